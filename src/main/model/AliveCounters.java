@@ -0,0 +1,98 @@
+package model;
+
+import static model.Fish.*;
+
+/*
+ * Represents counters over the alive fish of a population, kept up to date as fish are counted in and out, so
+ * statistics are read in constant time and histograms in time proportional to the number of buckets;
+ * a fish is counted by its size and its hunger level as of tick syncedAt, as the population holds them;
+ * numAlive, aliveBiomass (sum of sizes) and aliveHungerOffset (sum of hunger minus syncedAt) are summed over
+ * alive fish, aliveBySize counts them by size, and aliveByHunger by hunger minus syncedAt modulo HUNGER_RING,
+ * which stays the same as time passes; an alive fish below FISH_HUNGER_TO_STARVE starves before its hunger goes
+ * past it, so at tick clock the hunger of fish in bucket k is the one hunger below HUNGER_RING that is k plus
+ * clock modulo HUNGER_RING, and fish counted at or above FISH_HUNGER_TO_STARVE are counted in numAliveStarving
+ */
+class AliveCounters {
+    private static final int HUNGER_RING = Integer.highestOneBit(FISH_HUNGER_TO_STARVE) << 1;
+
+    private int numAlive;
+    private long aliveBiomass;
+    private long aliveHungerOffset;
+    private final int[] aliveByHunger;
+    private int numAliveStarving;
+    private final int[] aliveBySize;
+
+    // EFFECTS: constructs counters with no fish counted
+    AliveCounters() {
+        aliveByHunger = new int[HUNGER_RING];
+        aliveBySize = new int[FISH_MAX_SIZE + 1];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts in an alive fish of size, with hungerLevel as of tick syncedAt
+    void countIn(int size, int hungerLevel, long syncedAt) {
+        numAlive++;
+        aliveBiomass += size;
+        aliveHungerOffset += hungerLevel - syncedAt;
+        aliveBySize[sizeBucket(size)]++;
+        if (hungerLevel >= FISH_HUNGER_TO_STARVE) {
+            numAliveStarving++;
+        } else {
+            aliveByHunger[hungerBucket(hungerLevel - syncedAt)]++;
+        }
+    }
+
+    // REQUIRES: an alive fish of size, with hungerLevel as of tick syncedAt, is counted in
+    // MODIFIES: this
+    // EFFECTS: counts that fish out
+    void countOut(int size, int hungerLevel, long syncedAt) {
+        numAlive--;
+        aliveBiomass -= size;
+        aliveHungerOffset -= hungerLevel - syncedAt;
+        aliveBySize[sizeBucket(size)]--;
+        if (hungerLevel >= FISH_HUNGER_TO_STARVE) {
+            numAliveStarving--;
+        } else {
+            aliveByHunger[hungerBucket(hungerLevel - syncedAt)]--;
+        }
+    }
+
+    // EFFECTS: returns number of alive fish
+    int getNumAlive() {
+        return numAlive;
+    }
+
+    // EFFECTS: returns sum of sizes of alive fish
+    long getAliveBiomass() {
+        return aliveBiomass;
+    }
+
+    // EFFECTS: returns mean hunger level of alive fish at tick clock, 0 if there are none
+    double getMeanHunger(long clock) {
+        if (numAlive == 0) {
+            return 0;
+        }
+        // every alive fish's hunger is hungerLevel + clock - syncedAt
+        return (double) (aliveHungerOffset + numAlive * clock) / numAlive;
+    }
+
+    // EFFECTS: returns histograms of alive fish at tick clock by hunger category and by size
+    FishHistograms getHistograms(long clock) {
+        int[] hungerCounts = new int[FishHistograms.HUNGER_CATEGORIES.length];
+        for (int h = FISH_MIN_HUNGER; h < FISH_HUNGER_TO_STARVE; h++) {
+            hungerCounts[FishHistograms.hungerCategory(h)] += aliveByHunger[hungerBucket(h - clock)];
+        }
+        hungerCounts[FishHistograms.hungerCategory(FISH_HUNGER_TO_STARVE)] += numAliveStarving;
+        return new FishHistograms(hungerCounts, aliveBySize.clone());
+    }
+
+    // EFFECTS: returns bucket of aliveByHunger holding fish whose hunger minus syncedAt is offset
+    private static int hungerBucket(long offset) {
+        return (int) offset & (HUNGER_RING - 1);
+    }
+
+    // EFFECTS: returns bucket of aliveBySize for fish of size
+    private static int sizeBucket(int size) {
+        return Math.min(size, FISH_MAX_SIZE);
+    }
+}
@@ -4,37 +4,56 @@ import exception.IllegalAquariumException;
 import exception.IllegalFishException;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import persistence.JsonOutput;
 import persistence.Writable;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 
 import static model.Fish.*;
 
 /*
  * Represents an aquarium having cleanness level, and list of fish;
  * cleanness is the aquarium cleanness level, with a minimum and maximum value;
- * fishList is the list of fish present inside the aquarium;
+ * population holds the fish present inside the aquarium;
+ * food holds the pellets sinking through the water, each step a pellet is eaten by the nearest hungry fish
+ * within EAT_RADIUS, found through the population's spatial grid;
+ * passing time only visits fish whose starvation or growth deadline comes up, and fires them in parallel
+ * on a fork-join pool of parallelism threads once at least parallelThreshold are due on one tick;
+ * schooling fish are steered on the same pool once at least parallelThreshold fish are alive;
+ * eatListener, if not null, is told the id of every fish that eats a pellet
  */
 public class Aquarium implements Writable {
     public static final int MAX_CLEANNESS_LEVEL = 30;
     public static final int MIN_CLEANNESS_LEVEL = 0;
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50000;
+    public static final double EAT_RADIUS = 0.03;
     private int cleanness;
-    private final ArrayList<Fish> fishList;
+    private final FishPopulation population;
+    private final FoodPellets food;
+    private int parallelism = 1;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private ForkJoinPool tickPool;
+    private IntConsumer eatListener;
 
-    // EFFECTS: constructs an aquarium; sets cleanness to MAX_CLEANNESS_LEVEL; sets up fishList
+    // EFFECTS: constructs an aquarium; sets cleanness to MAX_CLEANNESS_LEVEL; sets up population
     public Aquarium() {
         cleanness = MAX_CLEANNESS_LEVEL;
-        fishList = new ArrayList<>();
+        population = new FishPopulation();
+        food = new FoodPellets();
     }
 
-    // EFFECTS: constructs an aquarium; sets cleanness to cleanness; sets up fishList
+    // EFFECTS: constructs an aquarium; sets cleanness to cleanness; sets up population
     // throws IllegalAquariumException if cleanness not valid
     public Aquarium(int cleanness) throws IllegalAquariumException {
         if (cleanness > MAX_CLEANNESS_LEVEL || cleanness < MIN_CLEANNESS_LEVEL) {
             throw new IllegalAquariumException();
         }
         this.cleanness = cleanness;
-        fishList = new ArrayList<>();
+        population = new FishPopulation();
+        food = new FoodPellets();
     }
 
     // EFFECTS: returns aquarium cleanness value
@@ -42,11 +61,33 @@ public class Aquarium implements Writable {
         return cleanness;
     }
 
-    // EFFECTS: returns list of fish in aquarium
-    public ArrayList<Fish> getFishList() {
+    // MODIFIES: this
+    // EFFECTS: sets cleanness to cleanness, throws IllegalAquariumException if cleanness not valid
+    public void setCleanness(int cleanness) throws IllegalAquariumException {
+        if (cleanness > MAX_CLEANNESS_LEVEL || cleanness < MIN_CLEANNESS_LEVEL) {
+            throw new IllegalAquariumException();
+        }
+        this.cleanness = cleanness;
+    }
+
+    // EFFECTS: returns a new list of the fish in aquarium, in order they were added, built on every call and
+    // handing out a handle for every fish; the list is not kept up to date, adding to or removing from it does not
+    // change aquarium, but changing a fish in it does
+    public ArrayList<Fish> copyFishList() {
+        ArrayList<Fish> fishList = new ArrayList<>(population.size());
+        for (int i = 0; i < population.getNumSlots(); i++) {
+            if (population.isOccupied(i)) {
+                fishList.add(population.getFish(i));
+            }
+        }
         return fishList;
     }
 
+    // EFFECTS: returns population holding the fish in aquarium
+    public FishPopulation getPopulation() {
+        return population;
+    }
+
     // MODIFIES: this
     // EFFECTS: decreases cleanness of tank by 1 down to a minimum of MIN_CLEANNESS_LEVEL,
     // for alive fish increases hunger of fish in list by 1,
@@ -55,100 +96,302 @@ public class Aquarium implements Writable {
     // if fish reaches FISH_HUNGER_TO_STARVE fish dies starved, and does not grow even if timer reaches zero
     public void passTime() {
         cleanness = Math.max(cleanness - 1, MIN_CLEANNESS_LEVEL);
+        population.advance(1, tickPool, parallelThreshold);
+    }
 
-        for (Fish fish : fishList) {
-            fish.passTime();
+    // REQUIRES: ticks >= 0
+    // MODIFIES: this
+    // EFFECTS: passes ticks units of time at once, leaving aquarium in the same state as calling passTime()
+    // ticks times; only visits fish when they starve or grow, so costs constant time per fish
+    // however many ticks pass
+    public void passTime(long ticks) {
+        cleanness = (int) Math.max(cleanness - ticks, MIN_CLEANNESS_LEVEL);
+        population.advance(ticks, tickPool, parallelThreshold);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restarts random stream of aquarium from seed, so fish added and moved from now on
+    // get reproducible coordinates, directions and speeds
+    public void setRandomSeed(long seed) {
+        population.setRandomSeed(seed);
+        food.setRandomSeed(seed);
+    }
+
+    // EFFECTS: returns number of threads used to fire deadlines on large tanks
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    // REQUIRES: parallelism >= 1
+    // MODIFIES: this
+    // EFFECTS: sets number of threads used to fire deadlines on large tanks, 1 means always sequential;
+    // shuts down previous thread pool if any
+    public void setParallelism(int parallelism) {
+        if (tickPool != null) {
+            tickPool.shutdown();
+            tickPool = null;
         }
+        this.parallelism = parallelism;
+        if (parallelism > 1) {
+            tickPool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    // EFFECTS: returns minimum number of deadlines due on one tick, or of schooling fish, to work on them in parallel
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    // REQUIRES: parallelThreshold >= 0
+    // MODIFIES: this
+    // EFFECTS: sets minimum number of deadlines due on one tick, or of schooling fish, to work on them in parallel
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
     }
 
     // MODIFIES: this
-    // EFFECTS: feeds all alive fish in list of fish
+    // EFFECTS: feeds all alive fish in aquarium
     public void feedAllFish() {
-        for (Fish fish : fishList) {
-            fish.feed();
+        population.feedAll();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves all fish in aquarium by one step, sinks food pellets, then has each pellet eaten by the
+    // nearest alive fish with hunger above FISH_MIN_HUNGER within EAT_RADIUS, if any; eating a pellet feeds
+    // that fish once; costs a grid search around each pellet, not a check of every fish
+    public void updateFishCoordinates() {
+        population.updateCoordinates(tickPool, parallelThreshold);
+        food.sink();
+        for (int k = food.size() - 1; k >= 0; k--) {
+            int i = population.findNearestHungry(food.getCoordinateX(k), food.getCoordinateY(k), EAT_RADIUS);
+            if (i != -1) {
+                population.feed(i);
+                food.remove(k);
+                if (eatListener != null) {
+                    eatListener.accept(population.getId(i));
+                }
+            }
         }
     }
 
-    // EFFECTS: returns true if fish list is empty, else false
+    // MODIFIES: this
+    // EFFECTS: sets listener told the id of every fish that eats a pellet from now on, null for none
+    public void setEatListener(IntConsumer eatListener) {
+        this.eatListener = eatListener;
+    }
+
+    // REQUIRES: numPellets >= 0
+    // MODIFIES: this
+    // EFFECTS: drops numPellets food pellets at random places along the top of the water
+    public void dropFood(int numPellets) {
+        food.drop(numPellets);
+    }
+
+    // EFFECTS: returns food pellets in aquarium
+    public FoodPellets getFood() {
+        return food;
+    }
+
+    // EFFECTS: returns true if fish school instead of swimming back and forth, else false
+    public boolean isSchooling() {
+        return population.isSchooling();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: turns schooling of alive fish on or off, see FishPopulation.setSchooling
+    public void setSchooling(boolean schooling) {
+        population.setSchooling(schooling);
+    }
+
+    // EFFECTS: returns true if aquarium has no fish, else false
     public boolean isFishListEmpty() {
-        return fishList.isEmpty();
+        return population.isEmpty();
     }
 
-    // EFFECTS: returns true if there is at least one alive fish in list of fish, else false
+    // EFFECTS: returns true if there is at least one alive fish in aquarium, else false
     public boolean isAnyFishAlive() {
-        for (Fish fish : fishList) {
-            if (fish.getStatus() == ALIVE) {
-                return true;
-            }
-        }
-        return false;
+        return population.anyWithStatus(ALIVE);
     }
 
-    // EFFECTS: returns true if there is at least one dead fish in list of fish, else false
+    // EFFECTS: returns true if there is at least one dead fish in aquarium, else false
     public boolean isAnyFishDead() {
-        for (Fish fish : fishList) {
-            if (fish.getStatus() == DEAD) {
-                return true;
-            }
+        return population.anyWithStatus(DEAD);
+    }
+
+    // EFFECTS: returns current number of alive and dead fish, biomass and mean hunger, in constant time
+    public AquariumStats getStats() {
+        return new AquariumStats(population.getNumAlive(), population.getNumDead(),
+                population.getAliveBiomass(), population.getMeanHunger());
+    }
+
+    // EFFECTS: returns histograms of alive fish by hunger category and size; they are kept up to date on every
+    // change, so this takes constant time however many fish there are
+    public FishHistograms getHistograms() {
+        return population.getHistograms();
+    }
+
+    // REQUIRES: radius >= 0
+    // EFFECTS: returns fish within radius of coordinates (x, y), using the population's spatial grid
+    public ArrayList<Fish> findFishInRadius(double x, double y, double radius) {
+        return toFishList(population.findInRadius(x, y, radius));
+    }
+
+    // EFFECTS: returns fish with coordinates inside the rectangle from (minX, minY) to (maxX, maxY),
+    // using the population's spatial grid
+    public ArrayList<Fish> findFishInRect(double minX, double minY, double maxX, double maxY) {
+        return toFishList(population.findInRect(minX, minY, maxX, maxY));
+    }
+
+    // EFFECTS: returns a new list of the fish in given slots of population
+    private ArrayList<Fish> toFishList(int[] slots) {
+        ArrayList<Fish> fishList = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            fishList.add(population.getFish(slot));
         }
-        return false;
+        return fishList;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns an immutable snapshot of aquarium, safe to hand to other threads; only the parts of the
+    // population changed since the previous snapshot are copied, the rest is shared with it
+    public AquariumSnapshot snapshot() {
+        return population.snapshot(cleanness, getStats(), food);
+    }
+
+    // EFFECTS: returns fish with id, or null if no fish in aquarium has it; takes constant time
+    public Fish getFishById(int id) {
+        int slot = population.slotOf(id);
+        return slot == FishPopulation.NO_SLOT ? null : population.getFish(slot);
+    }
+
+    // EFFECTS: returns fish named name, empty if none is; takes time proportional to the number found
+    public ArrayList<Fish> getFishByName(String name) {
+        ArrayList<Fish> fishList = new ArrayList<>();
+        for (int i = population.firstNamed(name); i != FishPopulation.NO_SLOT; i = population.nextNamed(i)) {
+            fishList.add(population.getFish(i));
+        }
+        return fishList;
+    }
+
+    // EFFECTS: returns id the next fish added to aquarium will get
+    public int getNextFishId() {
+        return population.getNextId();
     }
 
-    // EFFECT: Returns last fish added in List of fish
+    // MODIFIES: this
+    // EFFECTS: makes room for numFish fish in total, so adding that many does not grow the population again
+    public void ensureFishCapacity(int numFish) {
+        population.ensureCapacity(numFish);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes fish added from now on get ids of at least nextFishId, so ids of removed fish are not reused
+    public void reserveFishIds(int nextFishId) {
+        population.reserveIds(nextFishId);
+    }
+
+    // EFFECT: Returns last fish added in aquarium
     public Fish getLastFish() {
-        return fishList.get(fishList.size() - 1);
+        return population.getFish(population.getNumSlots() - 1);
     }
 
     @Override
     // EFFECTS: Prints cleanness, and fish status, hunger and size
     public String toString() {
-        StringBuilder output = new StringBuilder("Aquarium numFish=" + fishList.size() + " cleanness=" + cleanness);
-        for (Fish fish : fishList) {
-            output.append("\n").append(fish.toString());
+        StringBuilder output = new StringBuilder("Aquarium numFish=" + population.size() + " cleanness=" + cleanness);
+        for (int i = 0; i < population.getNumSlots(); i++) {
+            if (population.isOccupied(i)) {
+                output.append("\n").append(population.getFish(i).toString());
+            }
         }
         return output.toString();
     }
 
     // MODIFIES: this
-    // EFFECTS: sets the aquarium cleanness level to 10, removes all dead fish from tank
+    // EFFECTS: sets the aquarium cleanness level to 10, removes all dead fish and food resting on the sand from tank;
+    // takes time proportional to the number of dead fish, other fish are not touched
     public void clean() {
         this.cleanness = MAX_CLEANNESS_LEVEL;
-        fishList.removeIf(fish -> fish.getStatus() == DEAD);
+        population.removeDead();
+        food.removeResting();
     }
 
-    // MODIFIES: this
-    // EFFECTS: adds a fish to fishList
+    // REQUIRES: fish is not already in an aquarium
+    // MODIFIES: this, fish
+    // EFFECTS: adds a fish to aquarium, fish stays a handle to its state inside aquarium
     public void addFish(Fish fish) {
-        fishList.add(fish);
+        population.add(fish);
     }
 
 
     // MODIFIES: this
-    // EFFECTS: constructs new fish with default values, and adds to fishList
+    // EFFECTS: adds new fish with default values to aquarium
     public void addFish() throws IllegalFishException {
         addFish(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE);
     }
 
     // MODIFIES: this
-    // EFFECTS: constructs new fish with custom values and adds to fishList
+    // EFFECTS: adds new fish with custom values to aquarium
     public void addFish(int size, int initialHunger, int status, int growthTimer) throws IllegalFishException {
-        fishList.add(new Fish(size, initialHunger, status, growthTimer, null));
+        addFish(size, initialHunger, status, growthTimer, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds new fish with custom values and name to aquarium
+    public void addFish(int size, int initialHunger, int status, int growthTimer, String name)
+            throws IllegalFishException {
+        population.add(size, initialHunger, status, growthTimer, name);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds new fish with id, custom values and name to aquarium, fish added later get ids above id;
+    // throws IllegalFishException if values are not valid, or id is negative or already taken
+    public void addFish(int id, int size, int initialHunger, int status, int growthTimer, String name)
+            throws IllegalFishException {
+        population.add(id, size, initialHunger, status, growthTimer, name);
     }
 
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
         json.put("cleanness", cleanness);
+        json.put("nextFishId", population.getNextId());
         json.put("fishList", fishListToJson());
         return json;
     }
 
-    // EFFECTS: returns fishList in this Aquarium as a JSON array
+    @Override
+    public void write(JsonOutput out) throws IOException {
+        out.beginObject();
+        writeMembers(out);
+        out.endObject();
+    }
+
+    // REQUIRES: an object is being written to out and no name is waiting for its value
+    // MODIFIES: out
+    // EFFECTS: writes the members write writes into the object being written to out, so a caller can write
+    // members of its own next to them
+    public void writeMembers(JsonOutput out) throws IOException {
+        out.name("cleanness").value(cleanness);
+        out.name("nextFishId").value(population.getNextId());
+        out.name("fishList").beginArray();
+        for (int i = 0; i < population.getNumSlots(); i++) {
+            if (population.isOccupied(i)) {
+                Fish.write(out, population.getId(i), population.getName(i), population.getStatus(i),
+                        population.getHungerLevel(i), population.getGrowthTimer(i), population.getSize(i));
+            }
+        }
+        out.endArray();
+    }
+
+    // EFFECTS: returns fish in this Aquarium as a JSON array
     private JSONArray fishListToJson() {
         JSONArray jsonArray = new JSONArray();
 
-        for (Fish f : fishList) {
-            jsonArray.put(f.toJson());
+        for (int i = 0; i < population.getNumSlots(); i++) {
+            if (population.isOccupied(i)) {
+                jsonArray.put(population.getFish(i).toJson());
+            }
         }
 
         return jsonArray;
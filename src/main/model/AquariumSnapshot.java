@@ -0,0 +1,272 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.JsonOutput;
+import persistence.Writable;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/*
+ * Represents an immutable copy of an aquarium at one moment, safe to read from any thread without locks;
+ * fish are read by slot, like in a population, and slots below numSlots may be empty;
+ * fish state other than coordinates is held in chunks of CHUNK_SIZE slots, and a chunk no fish of which
+ * changed since the previous snapshot is shared with it rather than copied;
+ * coordinates and directions are the exception: they are copied whole into every snapshot, 17 bytes per slot,
+ * so producing a snapshot does cost time in proportion to the number of slots; every alive fish moves every step,
+ * so chunks of them would almost all have changed between two snapshots, and sharing them would save next to
+ * nothing while allocating a chunk per CHUNK_SIZE slots on top of the copy;
+ * clock is the tick of the population the snapshot was taken at, hunger and growth timer are worked out from it;
+ * origin is the same for every snapshot of one population
+ */
+public class AquariumSnapshot implements Writable {
+    public static final int CHUNK_SHIFT = 10;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private final Object origin;
+    private final int cleanness;
+    private final AquariumStats stats;
+    private final FishHistograms histograms;
+    private final long clock;
+    private final int nextFishId;
+    private final int numSlots;
+    private final int numFish;
+    private final FishChunk[] chunks;
+    private final double[] coordinateX;
+    private final double[] coordinateY;
+    private final byte[] direction;
+    private final double[] pelletX;
+    private final double[] pelletY;
+
+    // REQUIRES: arrays are not changed after construction, chunks cover slots below numSlots
+    // EFFECTS: constructs a snapshot holding given values
+    AquariumSnapshot(Object origin, int cleanness, AquariumStats stats, FishHistograms histograms, long clock,
+                     int nextFishId, int numSlots, int numFish, FishChunk[] chunks, double[] coordinateX,
+                     double[] coordinateY, byte[] direction, double[] pelletX, double[] pelletY) {
+        this.origin = origin;
+        this.cleanness = cleanness;
+        this.stats = stats;
+        this.histograms = histograms;
+        this.clock = clock;
+        this.nextFishId = nextFishId;
+        this.numSlots = numSlots;
+        this.numFish = numFish;
+        this.chunks = chunks;
+        this.coordinateX = coordinateX;
+        this.coordinateY = coordinateY;
+        this.direction = direction;
+        this.pelletX = pelletX;
+        this.pelletY = pelletY;
+    }
+
+    // EFFECTS: returns cleanness of aquarium
+    public int getCleanness() {
+        return cleanness;
+    }
+
+    // EFFECTS: returns population statistics of aquarium
+    public AquariumStats getStats() {
+        return stats;
+    }
+
+    // EFFECTS: returns histograms of alive fish by hunger and size
+    public FishHistograms getHistograms() {
+        return histograms;
+    }
+
+    // EFFECTS: returns tick of the population the snapshot was taken at
+    public long getClock() {
+        return clock;
+    }
+
+    // EFFECTS: returns id the next fish added to the aquarium would get
+    public int getNextFishId() {
+        return nextFishId;
+    }
+
+    // EFFECTS: returns number of fish
+    public int getNumFish() {
+        return numFish;
+    }
+
+    // EFFECTS: returns number of slots, every fish is in a slot below it
+    public int getNumSlots() {
+        return numSlots;
+    }
+
+    // EFFECTS: returns true if slot i holds a fish, else false
+    public boolean isOccupied(int i) {
+        return i < numSlots && chunk(i).getStatus(i) != FishPopulation.EMPTY;
+    }
+
+    // EFFECTS: returns status of fish i
+    public int getStatus(int i) {
+        return chunk(i).getStatus(i);
+    }
+
+    // EFFECTS: returns size of fish i
+    public int getSize(int i) {
+        return chunk(i).getSize(i);
+    }
+
+    // EFFECTS: returns hunger level of fish i
+    public int getHungerLevel(int i) {
+        return chunk(i).getHungerLevel(i, clock);
+    }
+
+    // EFFECTS: returns growth timer of fish i
+    public int getGrowthTimer(int i) {
+        return chunk(i).getGrowthTimer(i, clock);
+    }
+
+    // EFFECTS: returns id of fish i
+    public int getId(int i) {
+        return chunk(i).getId(i);
+    }
+
+    // EFFECTS: returns name of fish i
+    public String getName(int i) {
+        return chunk(i).getName(i);
+    }
+
+    // EFFECTS: returns x coordinate of fish i
+    public double getCoordinateX(int i) {
+        return coordinateX[i];
+    }
+
+    // EFFECTS: returns y coordinate of fish i
+    public double getCoordinateY(int i) {
+        return coordinateY[i];
+    }
+
+    // EFFECTS: returns swim direction of fish i
+    public int getDirection(int i) {
+        return direction[i];
+    }
+
+    // EFFECTS: returns number of food pellets
+    public int getNumPellets() {
+        return pelletX.length;
+    }
+
+    // EFFECTS: returns x coordinate of pellet k
+    public double getPelletX(int k) {
+        return pelletX[k];
+    }
+
+    // EFFECTS: returns y coordinate of pellet k
+    public double getPelletY(int k) {
+        return pelletY[k];
+    }
+
+    // EFFECTS: returns true if this and other hold the very same chunk for slot i, else false
+    boolean sharesChunk(AquariumSnapshot other, int i) {
+        return chunk(i) == other.chunk(i);
+    }
+
+    // EFFECTS: returns true if this and other are snapshots of the same aquarium, else false
+    public boolean isOfSameAquarium(AquariumSnapshot other) {
+        return origin == other.origin;
+    }
+
+    // REQUIRES: previous is an earlier snapshot of the same aquarium
+    // EFFECTS: calls changed with the slot of every fish of this that is not in previous at the same slot, or whose
+    // state other than coordinates differs from its state in previous aged to the clock of this, and removed with
+    // the id of every fish of previous that is not in this; only chunks not shared with previous are looked at,
+    // so the work done is proportional to the number of fish in chunks changed since previous
+    public void forEachChangeSince(AquariumSnapshot previous, IntConsumer changed, IntConsumer removed) {
+        int numChunks = chunks(numSlots);
+        int previousChunks = chunks(previous.numSlots);
+        IdIndex changedIds = new IdIndex();
+        for (int c = 0; c < numChunks; c++) {
+            if (c < previousChunks && chunks[c] == previous.chunks[c]) {
+                continue;
+            }
+            int to = Math.min((c + 1) << CHUNK_SHIFT, numSlots);
+            for (int i = c << CHUNK_SHIFT; i < to; i++) {
+                if (isOccupied(i)) {
+                    changedIds.put(getId(i), i);
+                    if (!isSameFish(previous, i)) {
+                        changed.accept(i);
+                    }
+                }
+            }
+        }
+        for (int c = 0; c < previousChunks; c++) {
+            if (c < numChunks && chunks[c] == previous.chunks[c]) {
+                continue;
+            }
+            // a fish in a shared chunk is in the same slot of both, so one left in this is in changedIds
+            int to = Math.min((c + 1) << CHUNK_SHIFT, previous.numSlots);
+            for (int i = c << CHUNK_SHIFT; i < to; i++) {
+                if (previous.isOccupied(i) && changedIds.get(previous.getId(i)) == IdIndex.NONE) {
+                    removed.accept(previous.getId(i));
+                }
+            }
+        }
+    }
+
+    // REQUIRES: slot i of this holds a fish
+    // EFFECTS: returns true if slot i of previous holds the same fish as slot i of this, in the same state once
+    // aged to the clock of this, else false
+    private boolean isSameFish(AquariumSnapshot previous, int i) {
+        if (!previous.isOccupied(i) || previous.getId(i) != getId(i) || previous.getStatus(i) != getStatus(i)
+                || previous.getSize(i) != getSize(i) || !Objects.equals(previous.getName(i), getName(i))) {
+            return false;
+        }
+        FishChunk before = previous.chunk(i);
+        return before.getHungerLevel(i, clock) == getHungerLevel(i)
+                && before.getGrowthTimer(i, clock) == getGrowthTimer(i);
+    }
+
+    // EFFECTS: returns number of chunks covering slots below numSlots
+    private static int chunks(int numSlots) {
+        return (numSlots + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+    }
+
+    // EFFECTS: returns chunk holding slot i
+    private FishChunk chunk(int i) {
+        return chunks[i >>> CHUNK_SHIFT];
+    }
+
+    @Override
+    // EFFECTS: returns this as a JSON object, in the same form as Aquarium.toJson
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("cleanness", cleanness);
+        json.put("nextFishId", nextFishId);
+        JSONArray jsonArray = new JSONArray();
+        for (int i = 0; i < numSlots; i++) {
+            if (isOccupied(i)) {
+                JSONObject fish = new JSONObject();
+                fish.put("id", getId(i));
+                String name = getName(i);
+                fish.put("name", name == null ? JSONObject.NULL : name);
+                fish.put("status", getStatus(i));
+                fish.put("hungerLevel", getHungerLevel(i));
+                fish.put("growthTimer", getGrowthTimer(i));
+                fish.put("size", getSize(i));
+                jsonArray.put(fish);
+            }
+        }
+        json.put("fishList", jsonArray);
+        return json;
+    }
+
+    @Override
+    public void write(JsonOutput out) throws IOException {
+        out.beginObject();
+        out.name("cleanness").value(cleanness);
+        out.name("nextFishId").value(nextFishId);
+        out.name("fishList").beginArray();
+        for (int i = 0; i < numSlots; i++) {
+            if (isOccupied(i)) {
+                Fish.write(out, getId(i), getName(i), getStatus(i), getHungerLevel(i), getGrowthTimer(i), getSize(i));
+            }
+        }
+        out.endArray();
+        out.endObject();
+    }
+}
@@ -0,0 +1,53 @@
+package model;
+
+/*
+ * Represents population statistics of an aquarium at one moment;
+ * numAlive and numDead are the number of alive and dead fish,
+ * biomass is the sum of sizes of alive fish, and meanHunger is the mean hunger level of alive fish
+ */
+public class AquariumStats {
+    private final int numAlive;
+    private final int numDead;
+    private final long biomass;
+    private final double meanHunger;
+
+    // EFFECTS: constructs statistics with given values
+    public AquariumStats(int numAlive, int numDead, long biomass, double meanHunger) {
+        this.numAlive = numAlive;
+        this.numDead = numDead;
+        this.biomass = biomass;
+        this.meanHunger = meanHunger;
+    }
+
+    // EFFECTS: returns number of alive fish
+    public int getNumAlive() {
+        return numAlive;
+    }
+
+    // EFFECTS: returns number of dead fish
+    public int getNumDead() {
+        return numDead;
+    }
+
+    // EFFECTS: returns number of fish
+    public int getNumFish() {
+        return numAlive + numDead;
+    }
+
+    // EFFECTS: returns sum of sizes of alive fish
+    public long getBiomass() {
+        return biomass;
+    }
+
+    // EFFECTS: returns mean hunger level of alive fish, 0 if there are none
+    public double getMeanHunger() {
+        return meanHunger;
+    }
+
+    @Override
+    // EFFECTS: Prints number of alive and dead fish, biomass and mean hunger
+    public String toString() {
+        return "alive=" + numAlive + " dead=" + numDead + " biomass=" + biomass
+                + " meanHunger=" + String.format("%.1f", meanHunger);
+    }
+}
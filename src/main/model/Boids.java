@@ -0,0 +1,138 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static model.Fish.*;
+
+/*
+ * Represents the boids steering of the alive fish of a population: every frame each alive fish steers towards the
+ * centre and mean velocity of up to MAX_NEIGHBORS alive fish within NEIGHBOR_RADIUS (cohesion, alignment) and away
+ * from those within SEPARATION_RADIUS (separation), found through the grid of the population;
+ * status, coordinateX, coordinateY, velocityX, velocityY and grid are those of the population, held only while a
+ * frame is steered, and steeredX and steeredY hold the new velocities while they are worked out
+ */
+class Boids {
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final double NEIGHBOR_RADIUS = 0.04;
+    private static final double SEPARATION_RADIUS = 0.01;
+    private static final int MAX_NEIGHBORS = 16;
+    private static final double COHESION_WEIGHT = 0.01;
+    private static final double ALIGNMENT_WEIGHT = 0.05;
+    private static final double SEPARATION_WEIGHT = 0.05;
+
+    private byte[] status;
+    private double[] coordinateX;
+    private double[] coordinateY;
+    private double[] velocityX;
+    private double[] velocityY;
+    private SpatialGrid grid;
+    private double[] steeredX;
+    private double[] steeredY;
+
+    // REQUIRES: arrays hold the state of at least numSlots slots, grid indexes every fish in them by coordinates
+    // MODIFIES: this, velocityX, velocityY
+    // EFFECTS: works out the new velocity of every alive fish below numSlots, on pool if it is not null, then
+    // makes it the fish's velocity; every fish steers from the velocities its neighbors had before the frame
+    void steer(int numSlots, byte[] status, double[] coordinateX, double[] coordinateY, double[] velocityX,
+               double[] velocityY, SpatialGrid grid, ForkJoinPool pool) {
+        this.status = status;
+        this.coordinateX = coordinateX;
+        this.coordinateY = coordinateY;
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.grid = grid;
+        if (steeredX == null || steeredX.length < numSlots) {
+            steeredX = new double[status.length];
+            steeredY = new double[status.length];
+        }
+        if (pool != null) {
+            int chunkSize = Math.max(1, numSlots / (pool.getParallelism() * CHUNKS_PER_THREAD));
+            pool.invoke(new SteerTask(this, 0, numSlots, chunkSize));
+        } else {
+            steerRange(0, numSlots);
+        }
+        for (int i = 0; i < numSlots; i++) {
+            if (status[i] == ALIVE) {
+                velocityX[i] = steeredX[i];
+                velocityY[i] = steeredY[i];
+            }
+        }
+        // the arrays are replaced when the population grows, so they are not kept past the frame
+        this.status = null;
+        this.coordinateX = null;
+        this.coordinateY = null;
+        this.velocityX = null;
+        this.velocityY = null;
+        this.grid = null;
+    }
+
+    // REQUIRES: a frame is being steered
+    // MODIFIES: this
+    // EFFECTS: works out the new velocity of alive fish in slots from (inclusive) to to (exclusive) into
+    // steeredX and steeredY, from the positions and velocities of their neighbors; only writes those slots,
+    // so disjoint ranges can run on different threads
+    void steerRange(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (status[i] == ALIVE) {
+                steerFish(i);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: works out the new velocity of alive fish i into steeredX and steeredY: its velocity plus
+    // cohesion, alignment and separation over up to MAX_NEIGHBORS alive neighbors, with speed kept between
+    // MIN_SPEED and MAX_SPEED
+    private void steerFish(int i) {
+        double x = coordinateX[i];
+        double y = coordinateY[i];
+        double sumX = 0;
+        double sumY = 0;
+        double sumVx = 0;
+        double sumVy = 0;
+        double awayX = 0;
+        double awayY = 0;
+        int neighbors = 0;
+        int lastRow = grid.row(y + NEIGHBOR_RADIUS);
+        int lastColumn = grid.column(x + NEIGHBOR_RADIUS);
+        for (int row = grid.row(y - NEIGHBOR_RADIUS); row <= lastRow && neighbors < MAX_NEIGHBORS; row++) {
+            for (int column = grid.column(x - NEIGHBOR_RADIUS); column <= lastColumn; column++) {
+                for (int j = grid.first(column, row); j != SpatialGrid.NONE && neighbors < MAX_NEIGHBORS;
+                        j = grid.next(j)) {
+                    double dx = coordinateX[j] - x;
+                    double dy = coordinateY[j] - y;
+                    double distanceSquared = dx * dx + dy * dy;
+                    if (j == i || status[j] != ALIVE || distanceSquared > NEIGHBOR_RADIUS * NEIGHBOR_RADIUS) {
+                        continue;
+                    }
+                    neighbors++;
+                    sumX += dx;
+                    sumY += dy;
+                    sumVx += velocityX[j];
+                    sumVy += velocityY[j];
+                    if (distanceSquared < SEPARATION_RADIUS * SEPARATION_RADIUS) {
+                        awayX -= dx;
+                        awayY -= dy;
+                    }
+                }
+            }
+        }
+
+        double vx = velocityX[i];
+        double vy = velocityY[i];
+        if (neighbors > 0) {
+            vx += sumX / neighbors * COHESION_WEIGHT + (sumVx / neighbors - vx) * ALIGNMENT_WEIGHT
+                    + awayX * SEPARATION_WEIGHT;
+            vy += sumY / neighbors * COHESION_WEIGHT + (sumVy / neighbors - vy) * ALIGNMENT_WEIGHT
+                    + awayY * SEPARATION_WEIGHT;
+        }
+        double speed = Math.hypot(vx, vy);
+        if (speed == 0) {
+            vx = MIN_SPEED;
+            speed = MIN_SPEED;
+        }
+        double scale = Math.max(MIN_SPEED, Math.min(speed, MAX_SPEED)) / speed;
+        steeredX[i] = vx * scale;
+        steeredY[i] = vy * scale;
+    }
+}
@@ -4,8 +4,11 @@ import exception.IllegalDirectionException;
 import exception.IllegalFishException;
 import exception.OutOfBoundsException;
 import org.json.JSONObject;
+import persistence.JsonOutput;
 import persistence.Writable;
 
+import java.io.IOException;
+
 /*
  * Represents a fish having hunger level, size , name, a growth timer and it's status;
  * hunger level has a default initial value, minimum value and a value for when fish starved and dies;
@@ -13,7 +16,9 @@ import persistence.Writable;
  * status is whether the fish is dead or alive;
  * fish has an initial minimum size, and a maximum size;
  * fish has a random swim speed between MIN_SPEED and MAX_SPEED
- * Contains coordinate x and y, and direction it is faction
+ * Contains coordinate x and y, and direction it is faction;
+ * state is held in a FishPopulation, a fish is a handle to its slot in population; a fish in no population, one
+ * constructed on its own or one removed from its population, holds its state in lone instead, and population is null
  */
 public class Fish implements Writable {
     public static final int FISH_FOOD_AMOUNT = 5;
@@ -32,15 +37,9 @@ public class Fish implements Writable {
     public static final double MAX_SPEED = 0.010;
 
 
-    private double speed;
-    private int status;
-    private int hungerLevel;
-    private int growthTimer;
-    private int size;
-    private String name;
-    private double coordinateX;
-    private double coordinateY;
-    private int direction;
+    private FishPopulation population;
+    private int index;
+    private LoneFish lone;
 
     // EFFECTS: constructs new fish; with hungerLevel set to 5; size of 1; status alive, and growthTimer set to 50;
     // throws exception illegal fish if parameters not valid
@@ -49,43 +48,53 @@ public class Fish implements Writable {
     }
 
     // EFFECTS: constructs new fish with specified size, hungerLevel, status, growthTimer
-    // with a randomized coordinate x and y, and direction (left or right), and a random speed
+    // with a randomized coordinate x and y, and direction (left or right), and a random speed;
+    // fish is in no population until added to an aquarium
     // throws exception illegal fish if parameters not valid
     public Fish(int size, int hungerLevel, int status, int growthTimer, String name) throws IllegalFishException {
-        if (size < FISH_MIN_SIZE || hungerLevel < FISH_MIN_HUNGER || status > ALIVE
-                || status < DEAD || growthTimer < GROWTH_TIMER_END_VALUE) {
-            throw new IllegalFishException();
-        } else {
-            this.hungerLevel = hungerLevel;
-            this.size = size;
-            this.status = status;
-            this.growthTimer = growthTimer;
-            this.name = name;
-            this.coordinateX = Math.random();
-            this.coordinateY = Math.random() * 0.95;
-            this.direction = Math.random() > 0.5 ? LEFT : RIGHT;
-            randomizeSwimSpeed();
-        }
+        lone = new LoneFish(size, hungerLevel, status, growthTimer, name);
+    }
+
+    // EFFECTS: constructs a handle to the fish stored in slot index of population
+    Fish(FishPopulation population, int index) {
+        this.population = population;
+        this.index = index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this a handle to the fish stored in slot index of population
+    void attach(FishPopulation population, int index) {
+        this.population = population;
+        this.index = index;
+        lone = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves state of this fish, id included, out of its current population, leaving it in no population
+    void detach() {
+        lone = new LoneFish(getId(), getStatus(), getHungerLevel(), getGrowthTimer(), getSize(), getName(),
+                getDirection(), getSpeed(), getCoordinateX(), getCoordinateY());
+        population = null;
     }
 
     // EFFECTS: return x coordinate
     public double getCoordinateX() {
-        return coordinateX;
+        return population == null ? lone.getCoordinateX() : population.getCoordinateX(index);
     }
 
     // EFFECTS: return swim direction
     public int getDirection() {
-        return direction;
+        return population == null ? lone.getDirection() : population.getDirection(index);
     }
 
     // EFFECTS: return y coordinate
     public double getCoordinateY() {
-        return coordinateY;
+        return population == null ? lone.getCoordinateY() : population.getCoordinateY(index);
     }
 
     // EFFECTS: return fish speed
     public double getSpeed() {
-        return speed;
+        return population == null ? lone.getSpeed() : population.getSpeed(index);
     }
 
     // MODIFIES: this
@@ -94,8 +103,10 @@ public class Fish implements Writable {
     public void setCoordinateY(double y) throws OutOfBoundsException {
         if (y < 0 || y > 1) {
             throw new OutOfBoundsException();
+        } else if (population == null) {
+            lone.setCoordinateY(y);
         } else {
-            coordinateY = y;
+            population.setCoordinateY(index, y);
         }
     }
 
@@ -105,8 +116,10 @@ public class Fish implements Writable {
     public void setCoordinateX(double x) throws OutOfBoundsException {
         if (x < 0.0 || x > 1.0) {
             throw new OutOfBoundsException();
+        } else if (population == null) {
+            lone.setCoordinateX(x);
         } else {
-            coordinateX = x;
+            population.setCoordinateX(index, x);
         }
     }
 
@@ -117,73 +130,61 @@ public class Fish implements Writable {
     public void setDirection(int direction) throws IllegalDirectionException {
         if (direction != RIGHT && direction != LEFT) {
             throw new IllegalDirectionException();
+        } else if (population == null) {
+            lone.setDirection(direction);
         } else {
-            this.direction = direction;
+            population.setDirection(index, direction);
         }
     }
 
     // MODIFIES: this
     // EFFECTS: If fish is dead then adds double the speed to coordinate Y
     // Else adds speed to coordinate X if direction is right, else subtracts speed
-    // if coordinate X is bigger than 1 then change direction of fish to left and calls randomizeSwimSpeed
-    // if coordinate X is smaller than 0 then changes direction of fish to right and calls randomizeSwimSpeed
+    // if coordinate X is bigger than 1 then change direction of fish to left and randomizes swim speed
+    // if coordinate X is smaller than 0 then changes direction of fish to right and randomizes swim speed
     public void updateCoordinate() {
-        if (status == DEAD) {
-            coordinateY += speed * 2.0;
-            if (coordinateY > 0.9) {
-                coordinateY = 0.9;
-            }
+        if (population == null) {
+            lone.updateCoordinate();
         } else {
-            coordinateX += direction == RIGHT ? speed : -speed;
-            if (coordinateX > 1.0) {
-                coordinateX = 1.0;
-                direction = LEFT;
-                randomizeSwimSpeed();
-            }
-            if (coordinateX < 0.0) {
-                coordinateX = 0.0;
-                direction = RIGHT;
-                randomizeSwimSpeed();
-            }
+            population.updateCoordinate(index);
         }
     }
 
-    // MODIFIES: this
-    // EFFECTS: randomize speed swim speed of fish, not more than max speed
-    private void randomizeSwimSpeed() {
-        speed = MIN_SPEED + Math.random() * (MAX_SPEED - MIN_SPEED);
-    }
-
     // EFFECTS: return hunger level
     public int getHungerLevel() {
-        return this.hungerLevel;
+        return population == null ? lone.getHungerLevel() : population.getHungerLevel(index);
     }
 
     // EFFECTS: return fish size
     public int getSize() {
-        return this.size;
+        return population == null ? lone.getSize() : population.getSize(index);
     }
 
     // EFFECTS: return fish growth timer
     public int getGrowthTimer() {
-        return this.growthTimer;
+        return population == null ? lone.getGrowthTimer() : population.getGrowthTimer(index);
+    }
+
+    // EFFECTS: return id of fish, unique within the aquarium it is in
+    public int getId() {
+        return population == null ? lone.getId() : population.getId(index);
     }
 
     // EFFECTS: return fish name
     public String getName() {
-        return this.name;
+        return population == null ? lone.getName() : population.getName(index);
     }
 
     // EFFECTS: return fish status (0 = Dead, 1 = Alive)
     public int getStatus() {
-        return this.status;
+        return population == null ? lone.getStatus() : population.getStatus(index);
     }
 
     @Override
     // EFFECTS: Prints fish name, hunger, and its status (dead or alive), and its size
     public String toString() {
-        return "Fish name=" + name + " hunger=" + hungerLevel + " size=" + size + " state="
-                + (status == Fish.ALIVE ? "alive" : "dead");
+        return "Fish name=" + getName() + " hunger=" + getHungerLevel() + " size=" + getSize() + " state="
+                + (getStatus() == Fish.ALIVE ? "alive" : "dead");
     }
 
 
@@ -191,41 +192,50 @@ public class Fish implements Writable {
     // MODIFIES: this.
     // EFFECTS: Reduces hunger level of fish by 5 points to a minimum of 0 only if alive.
     public void feed() {
-        if (this.status == ALIVE) {
-            this.hungerLevel -= FISH_FOOD_AMOUNT;
-
-            if (hungerLevel < FISH_MIN_HUNGER) {
-                hungerLevel = FISH_MIN_HUNGER;
-            }
+        if (population == null) {
+            lone.feed();
+        } else {
+            population.feed(index);
         }
     }
 
     // MODIFIES: this.
     // EFFECTS: Names fish, or renames the fish if it already has a name.
     public void setName(String name) {
-        this.name = name;
+        if (population == null) {
+            lone.setName(name);
+        } else {
+            population.setName(index, name);
+        }
     }
 
     // MODIFIES: this.
     // EFFECTS: sets fish alive status to dead
     public void die() {
-        this.status = DEAD;
+        if (population == null) {
+            lone.die();
+        } else {
+            population.die(index);
+        }
     }
 
     // MODIFIES: this.
     // EFFECTS: sets fish alive status to dead if fish hunger reaches FISH_HUNGER_TO_STARVE
     public void starveCheck() {
-        if (this.hungerLevel >= FISH_HUNGER_TO_STARVE) {
-            this.die();
+        if (population == null) {
+            lone.starveCheck();
+        } else {
+            population.starveCheck(index);
         }
     }
 
     // MODIFIES: this
     // EFFECTS: If growth timer is zero increases fish size by 1, to a maximum of 20 and resets timer
     public void growCheck() {
-        if (this.status == ALIVE && growthTimer == GROWTH_TIMER_END_VALUE) {
-            this.size = Math.min(size + 1, FISH_MAX_SIZE);
-            this.growthTimer = GROWTH_TIMER_START_VALUE;
+        if (population == null) {
+            lone.growCheck();
+        } else {
+            population.growCheck(index);
         }
     }
 
@@ -233,17 +243,20 @@ public class Fish implements Writable {
     // EFFECTS: If fish is alive, it increases hunger by 1, and decreases growth timer by 1,
     // checks if fish has starved, if so sets status to dead, else remains alive.
     public void passTime() {
-        if (this.status == ALIVE) {
-            this.hungerLevel++;
-            this.growthTimer--;
-
-            starveCheck();
-            growCheck();
+        if (population == null) {
+            lone.passTime();
+        } else {
+            population.passTime(index);
         }
     }
 
     // EFFECTS: Returns hunger level as a string
     public String hungerToString() {
+        return hungerToString(getHungerLevel());
+    }
+
+    // EFFECTS: Returns given hunger level as a string
+    public static String hungerToString(int hungerLevel) {
         if (hungerLevel == FISH_MIN_HUNGER) {
             return "Stuffed";
         } else if (hungerLevel <= FISH_HUNGER_TO_STARVE / 3) {
@@ -258,11 +271,32 @@ public class Fish implements Writable {
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
+        json.put("id", getId());
+        String name = getName();
         json.put("name", name == null ? JSONObject.NULL : name);
-        json.put("status", status);
-        json.put("hungerLevel", hungerLevel);
-        json.put("growthTimer", growthTimer);
-        json.put("size", size);
+        json.put("status", getStatus());
+        json.put("hungerLevel", getHungerLevel());
+        json.put("growthTimer", getGrowthTimer());
+        json.put("size", getSize());
         return json;
     }
+
+    @Override
+    public void write(JsonOutput out) throws IOException {
+        write(out, getId(), getName(), getStatus(), getHungerLevel(), getGrowthTimer(), getSize());
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes a fish with given values to out, in the form of toJson
+    static void write(JsonOutput out, int id, String name, int status, int hungerLevel, int growthTimer, int size)
+            throws IOException {
+        out.beginObject();
+        out.name("id").value(id);
+        out.name("name").value(name);
+        out.name("status").value(status);
+        out.name("hungerLevel").value(hungerLevel);
+        out.name("growthTimer").value(growthTimer);
+        out.name("size").value(size);
+        out.endObject();
+    }
 }
@@ -0,0 +1,63 @@
+package model;
+
+/*
+ * Represents an immutable copy of the state of a run of consecutive slots of a fish population,
+ * as shared between snapshots; slot first + k of the population is held at index k;
+ * hunger level and growth timer are held as of tick syncedAt, like in the population
+ */
+class FishChunk {
+    private final int first;
+    private final int[] id;
+    private final byte[] status;
+    private final int[] size;
+    private final int[] hungerLevel;
+    private final int[] growthTimer;
+    private final long[] syncedAt;
+    private final String[] name;
+
+    // REQUIRES: all arrays have the same length, none is changed after construction
+    // EFFECTS: constructs a chunk of the slots from first on, holding given arrays
+    FishChunk(int first, int[] id, byte[] status, int[] size, int[] hungerLevel, int[] growthTimer,
+              long[] syncedAt, String[] name) {
+        this.first = first;
+        this.id = id;
+        this.status = status;
+        this.size = size;
+        this.hungerLevel = hungerLevel;
+        this.growthTimer = growthTimer;
+        this.syncedAt = syncedAt;
+        this.name = name;
+    }
+
+    // EFFECTS: returns id of fish in slot i
+    int getId(int i) {
+        return id[i - first];
+    }
+
+    // EFFECTS: returns status of slot i, EMPTY if slot holds no fish
+    int getStatus(int i) {
+        return status[i - first];
+    }
+
+    // EFFECTS: returns size of fish in slot i
+    int getSize(int i) {
+        return size[i - first];
+    }
+
+    // EFFECTS: returns hunger level of fish in slot i as of tick clock
+    int getHungerLevel(int i, long clock) {
+        int k = i - first;
+        return status[k] == Fish.ALIVE ? hungerLevel[k] + (int) (clock - syncedAt[k]) : hungerLevel[k];
+    }
+
+    // EFFECTS: returns growth timer of fish in slot i as of tick clock
+    int getGrowthTimer(int i, long clock) {
+        int k = i - first;
+        return status[k] == Fish.ALIVE ? growthTimer[k] - (int) (clock - syncedAt[k]) : growthTimer[k];
+    }
+
+    // EFFECTS: returns name of fish in slot i
+    String getName(int i) {
+        return name[i - first];
+    }
+}
@@ -0,0 +1,62 @@
+package model;
+
+import static model.Fish.*;
+
+/*
+ * Represents histograms of the alive fish of an aquarium at one moment;
+ * hungerCounts holds the number of alive fish in each of the HUNGER_CATEGORIES of Fish.hungerToString,
+ * and sizeCounts the number of alive fish of each size from FISH_MIN_SIZE to FISH_MAX_SIZE (index is size,
+ * fish above FISH_MAX_SIZE are counted at FISH_MAX_SIZE)
+ */
+public class FishHistograms {
+    public static final String[] HUNGER_CATEGORIES = {"Stuffed", "Not Hungry", "Hungry", "Starving"};
+
+    private final int[] hungerCounts;
+    private final int[] sizeCounts;
+
+    // REQUIRES: hungerCounts has one entry per category, sizeCounts has FISH_MAX_SIZE + 1 entries,
+    // neither is changed after construction
+    // EFFECTS: constructs histograms holding given counts
+    FishHistograms(int[] hungerCounts, int[] sizeCounts) {
+        this.hungerCounts = hungerCounts;
+        this.sizeCounts = sizeCounts;
+    }
+
+    // REQUIRES: hungerLevel >= FISH_MIN_HUNGER
+    // EFFECTS: returns index in HUNGER_CATEGORIES of the category of hungerLevel
+    public static int hungerCategory(int hungerLevel) {
+        String category = hungerToString(hungerLevel);
+        int c = 0;
+        while (c < HUNGER_CATEGORIES.length - 1 && !HUNGER_CATEGORIES[c].equals(category)) {
+            c++;
+        }
+        return c;
+    }
+
+    // EFFECTS: returns number of alive fish in hunger category c
+    public int getHungerCount(int c) {
+        return hungerCounts[c];
+    }
+
+    // REQUIRES: FISH_MIN_SIZE <= size <= FISH_MAX_SIZE
+    // EFFECTS: returns number of alive fish of size
+    public int getSizeCount(int size) {
+        return sizeCounts[size];
+    }
+
+    @Override
+    // EFFECTS: Prints number of alive fish in each hunger category and of each size that has any
+    public String toString() {
+        StringBuilder output = new StringBuilder("hunger:");
+        for (int c = 0; c < HUNGER_CATEGORIES.length; c++) {
+            output.append(' ').append(HUNGER_CATEGORIES[c]).append('=').append(hungerCounts[c]);
+        }
+        output.append(" size:");
+        for (int s = FISH_MIN_SIZE; s <= FISH_MAX_SIZE; s++) {
+            if (sizeCounts[s] > 0) {
+                output.append(' ').append(s).append('=').append(sizeCounts[s]);
+            }
+        }
+        return output.toString();
+    }
+}
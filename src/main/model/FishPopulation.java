@@ -0,0 +1,1132 @@
+package model;
+
+import exception.IllegalFishException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static model.Fish.*;
+
+/*
+ * Represents a population of fish stored as parallel primitive arrays (structure of arrays);
+ * every fish occupies one slot, slot i of each array holds that fish's hunger, size, growth timer,
+ * status, direction, speed, coordinate x and y, and name;
+ * handles holds the Fish object for a slot if one has been handed out, else null;
+ * every fish has an id that stays the same for as long as it is in the population, nextId is the id the next
+ * fish added gets; slotsById indexes fish by id, and slotsByName indexes named fish by name, fish sharing a name
+ * are chained through nextSameName and prevSameName (NO_SLOT ends a chain), so finding a fish by id or by name
+ * takes constant time;
+ * numSlots is the number of slots in use and count the number of fish in them, slots are kept in insertion order;
+ * removing a fish leaves its slot EMPTY so the others never move, and slots are compacted (keeping order)
+ * only once there are more empty slots than fish;
+ * deadSlots holds the first numDeadSlots slots of fish that have died since dead fish were last removed,
+ * so removing them only visits those slots;
+ * clock is the number of ticks the population has passed with deadlines in the wheel; ticks passed with none
+ * left find no fish alive and change nothing, so they leave it where it is, and it stays far from overflowing
+ * however many ticks pass; for an alive fish hunger and growth timer hold its values as of tick syncedAt,
+ * and every tick since then adds 1 to hunger and takes 1 from timer;
+ * starveAt and growAt are the ticks an alive fish will starve and grow, NO_DEADLINE if it will not,
+ * and deadlines holds both in a timing wheel, so passing time only visits fish that starve or grow;
+ * velocityX and velocityY hold the step a fish moves by each frame, worked out from its status, direction and speed
+ * whenever one of those changes, so moving every fish is a plain add over the coordinate arrays;
+ * grid indexes every fish by its coordinates, it is kept up to date on every move and is rebuilt with cells sized
+ * for about FISH_PER_CELL fish whenever the arrays grow, so finding fish near a point only visits nearby cells;
+ * when schooling, boids steers alive fish every frame, working on the coordinate and velocity arrays;
+ * snapshotChunks tracks which runs of slots changed since the last snapshot, so a new snapshot only copies those,
+ * and origin, handed to every snapshot, tells snapshots of this population from those of others;
+ * random is the population's own random stream, used for coordinates, direction and speed;
+ * counters counts every alive fish in, and out again before its size or hunger changes or it dies, so population
+ * statistics and histograms are read without visiting fish
+ */
+public class FishPopulation {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int WHEEL_BUCKETS = 64;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int FISH_PER_CELL = 4;
+    private static final double BOTTOM = 0.9;
+    private static final long NO_DEADLINE = -1;
+    static final int STARVE_EVENT = 0;
+    static final int GROW_EVENT = 1;
+    static final byte EMPTY = -1;
+    public static final int NO_SLOT = -1;
+
+    private int numSlots;
+    private int count;
+    private int[] hungerLevel;
+    private int[] size;
+    private int[] growthTimer;
+    private byte[] status;
+    private byte[] direction;
+    private double[] speed;
+    private double[] coordinateX;
+    private double[] coordinateY;
+    private double[] velocityX;
+    private double[] velocityY;
+    private String[] name;
+    private Fish[] handles;
+    private int[] id;
+    private int nextId;
+    private final Object origin = new Object();
+    private final IdIndex slotsById;
+    private HashMap<String, Integer> slotsByName;
+    private int[] nextSameName;
+    private int[] prevSameName;
+
+    private long clock;
+    private long[] syncedAt;
+    private long[] starveAt;
+    private long[] growAt;
+    private final TimingWheel deadlines;
+    private int[] dueToStarve;
+    private int[] dueToGrow;
+    private int[] deadSlots;
+    private int numDeadSlots;
+    private SpatialGrid grid;
+    private boolean schooling;
+    private final Boids boids;
+    private final SnapshotChunks snapshotChunks;
+    private SplittableRandom random;
+    private final AliveCounters counters;
+
+    // EFFECTS: constructs an empty population with default capacity
+    public FishPopulation() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // REQUIRES: capacity >= 1
+    // EFFECTS: constructs an empty population with room for capacity fish before growing,
+    // with a random stream split from the calling thread's stream
+    public FishPopulation(int capacity) {
+        this(capacity, RandomSource.newStream());
+    }
+
+    // REQUIRES: capacity >= 1
+    // EFFECTS: constructs an empty population with room for capacity fish before growing, drawing randomness
+    // from random
+    public FishPopulation(int capacity, SplittableRandom random) {
+        this.random = random;
+        hungerLevel = new int[capacity];
+        size = new int[capacity];
+        growthTimer = new int[capacity];
+        status = new byte[capacity];
+        direction = new byte[capacity];
+        speed = new double[capacity];
+        coordinateX = new double[capacity];
+        coordinateY = new double[capacity];
+        velocityX = new double[capacity];
+        velocityY = new double[capacity];
+        name = new String[capacity];
+        handles = new Fish[capacity];
+        id = new int[capacity];
+        slotsById = new IdIndex();
+        slotsByName = new HashMap<>();
+        nextSameName = new int[capacity];
+        prevSameName = new int[capacity];
+        syncedAt = new long[capacity];
+        starveAt = new long[capacity];
+        growAt = new long[capacity];
+        deadlines = new TimingWheel(WHEEL_BUCKETS);
+        dueToStarve = new int[DEFAULT_CAPACITY];
+        dueToGrow = new int[DEFAULT_CAPACITY];
+        deadSlots = new int[DEFAULT_CAPACITY];
+        grid = new SpatialGrid(gridCellsPerSide(capacity), capacity);
+        boids = new Boids();
+        snapshotChunks = new SnapshotChunks(capacity);
+        counters = new AliveCounters();
+    }
+
+    // EFFECTS: returns number of fish in population
+    public int size() {
+        return count;
+    }
+
+    // EFFECTS: returns true if population has no fish, else false
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // EFFECTS: returns number of slots in use, every fish is in a slot below it, some of those slots may be empty
+    public int getNumSlots() {
+        return numSlots;
+    }
+
+    // EFFECTS: returns true if slot i holds a fish, else false
+    public boolean isOccupied(int i) {
+        return i < numSlots && status[i] != EMPTY;
+    }
+
+    // EFFECTS: returns number of ticks population has passed while any fish was alive
+    public long getClock() {
+        return clock;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds fish with specified size, hungerLevel, status, growthTimer and name,
+    // with a randomized coordinate x and y, and direction (left or right), and a random speed;
+    // returns slot of new fish
+    // throws IllegalFishException if parameters not valid
+    public int add(int size, int hungerLevel, int status, int growthTimer, String name)
+            throws IllegalFishException {
+        return add(nextId, size, hungerLevel, status, growthTimer, name);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds fish with id, and specified size, hungerLevel, status, growthTimer and name,
+    // see add(int, int, int, int, String); fish added later get ids above id
+    // throws IllegalFishException if parameters not valid, or id is negative or already taken
+    public int add(int id, int size, int hungerLevel, int status, int growthTimer, String name)
+            throws IllegalFishException {
+        if (size < FISH_MIN_SIZE || hungerLevel < FISH_MIN_HUNGER || status > ALIVE
+                || status < DEAD || growthTimer < GROWTH_TIMER_END_VALUE
+                || id < 0 || slotsById.get(id) != IdIndex.NONE) {
+            throw new IllegalFishException();
+        }
+        int i = nextSlot(id);
+        this.hungerLevel[i] = hungerLevel;
+        this.size[i] = size;
+        this.status[i] = (byte) status;
+        this.growthTimer[i] = growthTimer;
+        this.name[i] = name;
+        linkName(i);
+        this.coordinateX[i] = random.nextDouble();
+        this.coordinateY[i] = random.nextDouble() * 0.95;
+        this.direction[i] = (byte) (random.nextDouble() > 0.5 ? LEFT : RIGHT);
+        randomizeSwimSpeed(i);
+        grid.insert(i, this.coordinateX[i], this.coordinateY[i]);
+        schedule(i);
+        countIn(i);
+        return i;
+    }
+
+    // REQUIRES: fish is not already part of this population
+    // MODIFIES: this, fish
+    // EFFECTS: copies all state of fish into a new slot, and makes fish a handle to that slot;
+    // returns slot of fish
+    public int add(Fish fish) {
+        int i = add(nextId, fish.getStatus(), fish.getHungerLevel(), fish.getGrowthTimer(), fish.getSize(),
+                fish.getName(), fish.getDirection(), fish.getSpeed(), fish.getCoordinateX(), fish.getCoordinateY());
+        bind(i, fish);
+        return i;
+    }
+
+    // EFFECTS: returns the fish handle for slot i, creating one if none has been handed out yet
+    public Fish getFish(int i) {
+        Fish fish = handles[i];
+        if (fish == null) {
+            fish = new Fish(this, i);
+            handles[i] = fish;
+        }
+        return fish;
+    }
+
+    // MODIFIES: this, fish
+    // EFFECTS: makes fish the handle for slot i
+    void bind(int i, Fish fish) {
+        handles[i] = fish;
+        fish.attach(this, i);
+    }
+
+    // REQUIRES: id >= 0 and no fish has id
+    // MODIFIES: this
+    // EFFECTS: adds fish with id and all of the given state in a new slot, returns the new slot
+    private int add(int id, int status, int hungerLevel, int growthTimer, int size, String name, int direction,
+                    double speed, double coordinateX, double coordinateY) {
+        int j = nextSlot(id);
+        this.hungerLevel[j] = hungerLevel;
+        this.size[j] = size;
+        this.growthTimer[j] = growthTimer;
+        this.status[j] = (byte) status;
+        this.direction[j] = (byte) direction;
+        this.speed[j] = speed;
+        this.coordinateX[j] = coordinateX;
+        this.coordinateY[j] = coordinateY;
+        this.name[j] = name;
+        linkName(j);
+        updateVelocity(j);
+        grid.insert(j, coordinateX, coordinateY);
+        schedule(j);
+        countIn(j);
+        return j;
+    }
+
+    // REQUIRES: id >= 0 and no fish has id
+    // MODIFIES: this
+    // EFFECTS: reserves the next free slot for a fish with id, synced to the current tick, growing arrays if full,
+    // and returns it
+    private int nextSlot(int id) {
+        if (numSlots == status.length) {
+            grow(status.length * 2);
+        }
+        this.id[numSlots] = id;
+        slotsById.put(id, numSlots);
+        nextId = Math.max(nextId, id + 1);
+        syncedAt[numSlots] = clock;
+        snapshotChunks.touch(numSlots);
+        count++;
+        return numSlots++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: grows arrays and id index so capacity fish fit without growing again, for adding many fish at once
+    public void ensureCapacity(int capacity) {
+        if (capacity > status.length) {
+            grow(capacity);
+        }
+        slotsById.ensureCapacity(capacity);
+        if (slotsByName.isEmpty()) {
+            // a name index sized for every fish never rehashes while they are added
+            slotsByName = new HashMap<>(capacity / 3 * 4 + 16);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: grows all arrays to capacity
+    private void grow(int capacity) {
+        hungerLevel = Arrays.copyOf(hungerLevel, capacity);
+        size = Arrays.copyOf(size, capacity);
+        growthTimer = Arrays.copyOf(growthTimer, capacity);
+        status = Arrays.copyOf(status, capacity);
+        direction = Arrays.copyOf(direction, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        coordinateX = Arrays.copyOf(coordinateX, capacity);
+        coordinateY = Arrays.copyOf(coordinateY, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        name = Arrays.copyOf(name, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        id = Arrays.copyOf(id, capacity);
+        nextSameName = Arrays.copyOf(nextSameName, capacity);
+        prevSameName = Arrays.copyOf(prevSameName, capacity);
+        syncedAt = Arrays.copyOf(syncedAt, capacity);
+        starveAt = Arrays.copyOf(starveAt, capacity);
+        growAt = Arrays.copyOf(growAt, capacity);
+        snapshotChunks.grow(capacity);
+        rebuildGrid(capacity);
+    }
+
+    // EFFECTS: returns number of grid cells per side so that a full population of capacity has about
+    // FISH_PER_CELL fish per cell
+    private static int gridCellsPerSide(int capacity) {
+        return Math.max(1, (int) Math.sqrt((double) capacity / FISH_PER_CELL));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces grid with one sized for capacity, holding every fish
+    private void rebuildGrid(int capacity) {
+        grid = new SpatialGrid(gridCellsPerSide(capacity), capacity);
+        for (int i = 0; i < numSlots; i++) {
+            if (status[i] != EMPTY) {
+                grid.insert(i, coordinateX[i], coordinateY[i]);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes all dead fish, remaining fish keep their slots and order;
+    // handles of removed fish are detached and keep their last state, in no population;
+    // only visits the slots of dead fish, plus a compaction once more than half the slots are empty
+    public void removeDead() {
+        for (int k = 0; k < numDeadSlots; k++) {
+            int i = deadSlots[k];
+            if (status[i] == DEAD) {
+                if (handles[i] != null) {
+                    handles[i].detach();
+                }
+                slotsById.remove(id[i]);
+                unlinkName(i);
+                clearSlots(i, i + 1);
+                snapshotChunks.touch(i);
+                grid.remove(i);
+                status[i] = EMPTY;
+                updateVelocity(i);
+                count--;
+            }
+        }
+        numDeadSlots = 0;
+        while (numSlots > 0 && status[numSlots - 1] == EMPTY) {
+            numSlots--;
+        }
+        if (numSlots - count > count) {
+            compact();
+        }
+    }
+
+    // REQUIRES: no fish in population is dead
+    // MODIFIES: this
+    // EFFECTS: moves fish down into empty slots, keeping them in order, so numSlots is count
+    private void compact() {
+        int j = 0;
+        for (int i = 0; i < numSlots; i++) {
+            if (status[i] != EMPTY) {
+                if (i != j) {
+                    moveSlot(i, j);
+                }
+                j++;
+            }
+        }
+        clearSlots(j, numSlots);
+        snapshotChunks.touchAll();
+        numSlots = j;
+        reindex();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rebuilds the indexes by id and by name from scratch
+    private void reindex() {
+        slotsById.clear();
+        slotsByName.clear();
+        for (int i = 0; i < numSlots; i++) {
+            slotsById.put(id[i], i);
+            linkName(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds fish i to the front of the chain of fish sharing its name, does nothing if it has none
+    private void linkName(int i) {
+        prevSameName[i] = NO_SLOT;
+        nextSameName[i] = NO_SLOT;
+        if (name[i] != null) {
+            Integer head = slotsByName.put(name[i], i);
+            if (head != null) {
+                nextSameName[i] = head;
+                prevSameName[head] = i;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes fish i out of the chain of fish sharing its name, does nothing if it has none
+    private void unlinkName(int i) {
+        if (name[i] == null) {
+            return;
+        }
+        int prev = prevSameName[i];
+        int next = nextSameName[i];
+        if (prev != NO_SLOT) {
+            nextSameName[prev] = next;
+        } else if (next != NO_SLOT) {
+            slotsByName.put(name[i], next);
+        } else {
+            slotsByName.remove(name[i]);
+        }
+        if (next != NO_SLOT) {
+            prevSameName[next] = prev;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves state and handle of slot from into slot to, and schedules its deadlines under slot to
+    private void moveSlot(int from, int to) {
+        hungerLevel[to] = hungerLevel[from];
+        size[to] = size[from];
+        growthTimer[to] = growthTimer[from];
+        status[to] = status[from];
+        direction[to] = direction[from];
+        speed[to] = speed[from];
+        coordinateX[to] = coordinateX[from];
+        coordinateY[to] = coordinateY[from];
+        velocityX[to] = velocityX[from];
+        velocityY[to] = velocityY[from];
+        name[to] = name[from];
+        id[to] = id[from];
+        syncedAt[to] = syncedAt[from];
+        grid.remove(from);
+        grid.insert(to, coordinateX[to], coordinateY[to]);
+        handles[to] = handles[from];
+        if (handles[to] != null) {
+            handles[to].attach(this, to);
+        }
+        schedule(to);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: clears object references in slots from (inclusive) to to (exclusive)
+    private void clearSlots(int from, int to) {
+        Arrays.fill(name, from, to, null);
+        Arrays.fill(handles, from, to, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: passes one tick for every fish in population, see advance(long)
+    public void passTimeAll() {
+        advance(1);
+    }
+
+    // REQUIRES: ticks >= 0
+    // MODIFIES: this
+    // EFFECTS: passes ticks ticks for every fish in population, leaving each fish as if passTime(int) had been
+    // called ticks times on it; only fish whose starvation or growth deadline comes up are visited,
+    // and once no deadlines are left no fish is alive, and the remaining ticks pass at once without moving the clock
+    public void advance(long ticks) {
+        advance(ticks, null, 0);
+    }
+
+    // REQUIRES: ticks >= 0, parallelThreshold >= 0
+    // MODIFIES: this
+    // EFFECTS: same as advance(long), but if pool is not null, fires starvations and growths on pool whenever
+    // at least parallelThreshold of them are due on the same tick
+    public void advance(long ticks, ForkJoinPool pool, int parallelThreshold) {
+        for (long remaining = ticks; remaining > 0; remaining--) {
+            if (deadlines.isEmpty()) {
+                return;
+            }
+            clock++;
+            fireDeadlines(pool, parallelThreshold);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes entries due on the current tick out of the wheel, starves those due to starve,
+    // then grows those due to grow that are still alive
+    private void fireDeadlines(ForkJoinPool pool, int parallelThreshold) {
+        int numToStarve = 0;
+        int numToGrow = 0;
+        int[] bucket = deadlines.bucket(clock);
+        int bucketSize = deadlines.bucketSize(clock);
+        int kept = 0;
+
+        for (int k = 0; k < bucketSize; k++) {
+            int entry = bucket[k];
+            int i = entry >>> 1;
+            if (i >= numSlots || status[i] != ALIVE) {
+                continue;
+            }
+            long[] deadline = (entry & 1) == STARVE_EVENT ? starveAt : growAt;
+            if (deadline[i] == clock) {
+                // later copies of this entry no longer match, so each fish fires once
+                deadline[i] = NO_DEADLINE;
+                if ((entry & 1) == STARVE_EVENT) {
+                    dueToStarve = append(dueToStarve, numToStarve++, i);
+                } else {
+                    dueToGrow = append(dueToGrow, numToGrow++, i);
+                }
+            } else if (deadline[i] > clock && ((deadline[i] ^ clock) & (WHEEL_BUCKETS - 1)) == 0) {
+                bucket[kept++] = entry;
+            }
+        }
+        deadlines.truncateBucket(clock, kept);
+
+        // statistics are updated here rather than in fireRange, which may run on several threads
+        for (int k = 0; k < numToStarve; k++) {
+            countOut(dueToStarve[k]);
+        }
+        for (int k = 0; k < numToGrow; k++) {
+            countOut(dueToGrow[k]);
+        }
+        fire(dueToStarve, numToStarve, STARVE_EVENT, pool, parallelThreshold);
+        fire(dueToGrow, numToGrow, GROW_EVENT, pool, parallelThreshold);
+        for (int k = 0; k < numToStarve; k++) {
+            countIn(dueToStarve[k]);
+        }
+        for (int k = 0; k < numToGrow; k++) {
+            countIn(dueToGrow[k]);
+            scheduleGrowth(dueToGrow[k]);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: fires event for the first n slots of slots, on pool if there are at least parallelThreshold
+    private void fire(int[] slots, int n, int event, ForkJoinPool pool, int parallelThreshold) {
+        if (pool != null && n > 0 && n >= parallelThreshold) {
+            int chunkSize = Math.max(1, n / (pool.getParallelism() * CHUNKS_PER_THREAD));
+            pool.invoke(new PassTimeTask(this, slots, 0, n, chunkSize, event));
+        } else {
+            fireRange(slots, 0, n, event);
+        }
+    }
+
+    // REQUIRES: slots from (inclusive) to to (exclusive) are distinct and due for event on current tick
+    // MODIFIES: this
+    // EFFECTS: starves or grows the fish in those slots; only touches those fish,
+    // so disjoint ranges can run on different threads
+    void fireRange(int[] slots, int from, int to, int event) {
+        for (int k = from; k < to; k++) {
+            int i = slots[k];
+            sync(i);
+            if (event == STARVE_EVENT) {
+                status[i] = DEAD;
+                growAt[i] = NO_DEADLINE;
+                updateVelocity(i);
+            } else if (status[i] == ALIVE) {
+                size[i] = Math.min(size[i] + 1, FISH_MAX_SIZE);
+                growthTimer[i] = GROWTH_TIMER_START_VALUE;
+            }
+        }
+    }
+
+    // EFFECTS: returns slots with value stored at index n, growing slots if full
+    private static int[] append(int[] slots, int n, int value) {
+        if (n == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        slots[n] = value;
+        return slots;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns an immutable snapshot of population together with cleanness, stats and food;
+    // copies chunks changed since the last snapshot and shares the rest with it; copies coordinates and
+    // directions of every slot, see AquariumSnapshot
+    AquariumSnapshot snapshot(int cleanness, AquariumStats stats, FoodPellets food) {
+        FishChunk[] chunks = snapshotChunks.take(numSlots, this::copyChunk);
+        double[] pelletX = new double[food.size()];
+        double[] pelletY = new double[food.size()];
+        for (int k = 0; k < food.size(); k++) {
+            pelletX[k] = food.getCoordinateX(k);
+            pelletY[k] = food.getCoordinateY(k);
+        }
+        return new AquariumSnapshot(origin, cleanness, stats, getHistograms(), clock, nextId, numSlots, count,
+                chunks, Arrays.copyOf(coordinateX, numSlots), Arrays.copyOf(coordinateY, numSlots),
+                Arrays.copyOf(direction, numSlots), pelletX, pelletY);
+    }
+
+    // EFFECTS: returns a copy of the state of the slots in snapshot chunk c that are below numSlots
+    private FishChunk copyChunk(int c) {
+        int from = c << AquariumSnapshot.CHUNK_SHIFT;
+        int to = Math.min(from + AquariumSnapshot.CHUNK_SIZE, numSlots);
+        return new FishChunk(from, Arrays.copyOfRange(id, from, to), Arrays.copyOfRange(status, from, to),
+                Arrays.copyOfRange(size, from, to), Arrays.copyOfRange(hungerLevel, from, to),
+                Arrays.copyOfRange(growthTimer, from, to), Arrays.copyOfRange(syncedAt, from, to),
+                Arrays.copyOfRange(name, from, to));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: brings hunger and growth timer of fish i up to the current tick
+    private void sync(int i) {
+        snapshotChunks.touch(i);
+        if (status[i] == ALIVE) {
+            int elapsed = (int) (clock - syncedAt[i]);
+            hungerLevel[i] += elapsed;
+            growthTimer[i] -= elapsed;
+        }
+        syncedAt[i] = clock;
+    }
+
+    // REQUIRES: fish i is synced to current tick
+    // MODIFIES: this
+    // EFFECTS: works out when fish i starves and grows and adds those deadlines to the wheel;
+    // dead fish have no deadlines
+    private void schedule(int i) {
+        if (status[i] != ALIVE) {
+            starveAt[i] = NO_DEADLINE;
+            growAt[i] = NO_DEADLINE;
+            return;
+        }
+        starveAt[i] = syncedAt[i] + Math.max(1, FISH_HUNGER_TO_STARVE - hungerLevel[i]);
+        deadlines.schedule(starveAt[i], i << 1 | STARVE_EVENT);
+        scheduleGrowth(i);
+    }
+
+    // REQUIRES: fish i is synced and its starvation is scheduled
+    // MODIFIES: this
+    // EFFECTS: adds growth deadline of fish i to the wheel, if fish grows before it starves
+    private void scheduleGrowth(int i) {
+        growAt[i] = NO_DEADLINE;
+        if (status[i] == ALIVE && growthTimer[i] > GROWTH_TIMER_END_VALUE) {
+            long deadline = syncedAt[i] + growthTimer[i] - GROWTH_TIMER_END_VALUE;
+            if (deadline < starveAt[i]) {
+                growAt[i] = deadline;
+                deadlines.schedule(deadline, i << 1 | GROW_EVENT);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: feeds every alive fish in population, see feed(int)
+    public void feedAll() {
+        for (int i = 0; i < numSlots; i++) {
+            feed(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves every fish in population, see updateCoordinates(ForkJoinPool, int)
+    public void updateCoordinates() {
+        updateCoordinates(null, 0);
+    }
+
+    // REQUIRES: parallelThreshold >= 0
+    // MODIFIES: this
+    // EFFECTS: moves every fish in population; unless schooling, leaves each fish as if updateCoordinate(int)
+    // had been called on it in slot order;
+    // when schooling, first steers alive fish, on pool if not null and there are at least parallelThreshold
+    // alive fish; then adds every fish's velocity to its coordinates in one branch-free loop the JIT turns
+    // into SIMD adds, and only fish that went past an edge or sank past the bottom take the scalar path;
+    // fish are only relinked in the grid if they moved to another cell
+    public void updateCoordinates(ForkJoinPool pool, int parallelThreshold) {
+        if (schooling) {
+            steer(pool, parallelThreshold);
+        }
+        int n = numSlots;
+        double[] x = coordinateX;
+        double[] y = coordinateY;
+        double[] vx = velocityX;
+        double[] vy = velocityY;
+        for (int i = 0; i < n; i++) {
+            x[i] += vx[i];
+            y[i] += vy[i];
+        }
+        for (int i = 0; i < n; i++) {
+            if (x[i] > 1.0 || x[i] < 0.0 || y[i] > BOTTOM && status[i] == DEAD
+                    || schooling && (y[i] > BOTTOM || y[i] < 0.0)) {
+                bounce(i);
+            }
+            if (status[i] != EMPTY) {
+                grid.update(i, x[i], y[i]);
+            }
+        }
+    }
+
+    // REQUIRES: fish i has just moved by its velocity
+    // MODIFIES: this
+    // EFFECTS: clamps dead fish i to 0.9 from the top, or clamps alive fish i to the edge it went past,
+    // turns it around and randomizes its swim speed; a schooling fish is turned around without a new speed
+    private void bounce(int i) {
+        if (status[i] == DEAD) {
+            coordinateY[i] = BOTTOM;
+        } else if (schooling) {
+            reflect(i);
+        } else if (coordinateX[i] > 1.0) {
+            coordinateX[i] = 1.0;
+            direction[i] = LEFT;
+            randomizeSwimSpeed(i);
+        } else {
+            coordinateX[i] = 0.0;
+            direction[i] = RIGHT;
+            randomizeSwimSpeed(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: clamps alive fish i to the sides, top and bottom of the water, turning its velocity away from
+    // any it went past
+    private void reflect(int i) {
+        if (coordinateX[i] > 1.0) {
+            coordinateX[i] = 1.0;
+            velocityX[i] = -Math.abs(velocityX[i]);
+        } else if (coordinateX[i] < 0.0) {
+            coordinateX[i] = 0.0;
+            velocityX[i] = Math.abs(velocityX[i]);
+        }
+        if (coordinateY[i] > BOTTOM) {
+            coordinateY[i] = BOTTOM;
+            velocityY[i] = -Math.abs(velocityY[i]);
+        } else if (coordinateY[i] < 0.0) {
+            coordinateY[i] = 0.0;
+            velocityY[i] = Math.abs(velocityY[i]);
+        }
+        direction[i] = (byte) (velocityX[i] < 0 ? LEFT : RIGHT);
+    }
+
+    // EFFECTS: returns true if alive fish school, else false
+    public boolean isSchooling() {
+        return schooling;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: turns schooling on or off; when turned off, alive fish go back to swimming sideways in the
+    // direction they face, at the speed they had while schooling
+    public void setSchooling(boolean schooling) {
+        this.schooling = schooling;
+        if (!schooling) {
+            for (int i = 0; i < numSlots; i++) {
+                updateVelocity(i);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: steers every alive fish through boids, on pool if there are at least parallelThreshold alive fish,
+    // then makes the speed and direction of each the ones of its new velocity
+    private void steer(ForkJoinPool pool, int parallelThreshold) {
+        int numAlive = counters.getNumAlive();
+        boolean parallel = pool != null && numAlive > 0 && numAlive >= parallelThreshold;
+        boids.steer(numSlots, status, coordinateX, coordinateY, velocityX, velocityY, grid, parallel ? pool : null);
+        for (int i = 0; i < numSlots; i++) {
+            if (status[i] == ALIVE) {
+                speed[i] = Math.hypot(velocityX[i], velocityY[i]);
+                direction[i] = (byte) (velocityX[i] < 0 ? LEFT : RIGHT);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: works out velocity of fish i from its status, direction and speed; alive fish swim sideways,
+    // dead fish sink at double speed, empty slots stay still
+    private void updateVelocity(int i) {
+        if (status[i] == ALIVE) {
+            velocityX[i] = direction[i] == RIGHT ? speed[i] : -speed[i];
+            velocityY[i] = 0.0;
+        } else if (status[i] == DEAD) {
+            velocityX[i] = 0.0;
+            velocityY[i] = speed[i] * 2.0;
+        } else {
+            velocityX[i] = 0.0;
+            velocityY[i] = 0.0;
+        }
+    }
+
+    // EFFECTS: calls action with the slot of every fish with coordinates inside the rectangle from (minX, minY)
+    // to (maxX, maxY), edges included; only visits grid cells overlapping the rectangle
+    public void forEachInRect(double minX, double minY, double maxX, double maxY, IntConsumer action) {
+        for (int row = grid.row(minY); row <= grid.row(maxY); row++) {
+            for (int column = grid.column(minX); column <= grid.column(maxX); column++) {
+                for (int i = grid.first(column, row); i != SpatialGrid.NONE; i = grid.next(i)) {
+                    if (coordinateX[i] >= minX && coordinateX[i] <= maxX
+                            && coordinateY[i] >= minY && coordinateY[i] <= maxY) {
+                        action.accept(i);
+                    }
+                }
+            }
+        }
+    }
+
+    // REQUIRES: radius >= 0
+    // EFFECTS: calls action with the slot of every fish within radius of (x, y); only visits grid cells
+    // overlapping the circle
+    public void forEachInRadius(double x, double y, double radius, IntConsumer action) {
+        double radiusSquared = radius * radius;
+        for (int row = grid.row(y - radius); row <= grid.row(y + radius); row++) {
+            for (int column = grid.column(x - radius); column <= grid.column(x + radius); column++) {
+                for (int i = grid.first(column, row); i != SpatialGrid.NONE; i = grid.next(i)) {
+                    double dx = coordinateX[i] - x;
+                    double dy = coordinateY[i] - y;
+                    if (dx * dx + dy * dy <= radiusSquared) {
+                        action.accept(i);
+                    }
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns slots of fish with coordinates inside the rectangle, see forEachInRect
+    public int[] findInRect(double minX, double minY, double maxX, double maxY) {
+        IntStream.Builder found = IntStream.builder();
+        forEachInRect(minX, minY, maxX, maxY, found);
+        return found.build().toArray();
+    }
+
+    // REQUIRES: radius >= 0
+    // EFFECTS: returns slots of fish within radius of (x, y), see forEachInRadius
+    public int[] findInRadius(double x, double y, double radius) {
+        IntStream.Builder found = IntStream.builder();
+        forEachInRadius(x, y, radius, found);
+        return found.build().toArray();
+    }
+
+    // REQUIRES: radius >= 0
+    // EFFECTS: returns slot of the alive fish with hunger above FISH_MIN_HUNGER nearest to (x, y) and within
+    // radius of it, -1 if there is none; searches grid cells in rings around the point and stops once no
+    // unvisited cell can hold a nearer fish
+    public int findNearestHungry(double x, double y, double radius) {
+        int cellsPerSide = grid.getCellsPerSide();
+        int centreColumn = grid.column(x);
+        int centreRow = grid.row(y);
+        int maxRing = (int) Math.ceil(radius * cellsPerSide) + 1;
+        int nearest = -1;
+        double nearestSquared = radius * radius;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double ringDistance = (double) (ring - 1) / cellsPerSide;
+            if (ring > 1 && ringDistance * ringDistance > nearestSquared) {
+                break;
+            }
+            for (int row = centreRow - ring; row <= centreRow + ring; row++) {
+                for (int column = centreColumn - ring; column <= centreColumn + ring; column++) {
+                    boolean onRing = Math.abs(row - centreRow) == ring || Math.abs(column - centreColumn) == ring;
+                    if (!onRing || row < 0 || column < 0 || row >= cellsPerSide || column >= cellsPerSide) {
+                        continue;
+                    }
+                    for (int i = grid.first(column, row); i != SpatialGrid.NONE; i = grid.next(i)) {
+                        double dx = coordinateX[i] - x;
+                        double dy = coordinateY[i] - y;
+                        double distanceSquared = dx * dx + dy * dy;
+                        if (distanceSquared <= nearestSquared && status[i] == ALIVE
+                                && getHungerLevel(i) > FISH_MIN_HUNGER) {
+                            nearest = i;
+                            nearestSquared = distanceSquared;
+                        }
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    // EFFECTS: returns true if at least one fish in population has given status, else false
+    public boolean anyWithStatus(int status) {
+        return status == ALIVE ? counters.getNumAlive() > 0 : count - counters.getNumAlive() > 0;
+    }
+
+    // EFFECTS: returns number of alive fish
+    public int getNumAlive() {
+        return counters.getNumAlive();
+    }
+
+    // EFFECTS: returns number of dead fish
+    public int getNumDead() {
+        return count - counters.getNumAlive();
+    }
+
+    // EFFECTS: returns sum of sizes of alive fish
+    public long getAliveBiomass() {
+        return counters.getAliveBiomass();
+    }
+
+    // EFFECTS: returns mean hunger level of alive fish, 0 if there are none
+    public double getMeanHunger() {
+        return counters.getMeanHunger(clock);
+    }
+
+    // EFFECTS: returns histograms of alive fish by hunger category and by size,
+    // in time proportional to the number of buckets rather than the number of fish
+    public FishHistograms getHistograms() {
+        return counters.getHistograms(clock);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds fish i to counters if it is alive, or to dead slots if it is dead
+    private void countIn(int i) {
+        if (status[i] == ALIVE) {
+            counters.countIn(size[i], hungerLevel[i], syncedAt[i]);
+        } else {
+            deadSlots = append(deadSlots, numDeadSlots++, i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes fish i out of counters if it is alive
+    private void countOut(int i) {
+        if (status[i] == ALIVE) {
+            counters.countOut(size[i], hungerLevel[i], syncedAt[i]);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: If fish i is alive, it increases hunger by 1, and decreases growth timer by 1,
+    // checks if fish has starved, if so sets status to dead, else checks growth;
+    // only fish i ages, the rest of population does not
+    public void passTime(int i) {
+        sync(i);
+        if (status[i] == ALIVE) {
+            countOut(i);
+            hungerLevel[i]++;
+            growthTimer[i]--;
+
+            if (hungerLevel[i] >= FISH_HUNGER_TO_STARVE) {
+                status[i] = DEAD;
+                updateVelocity(i);
+            } else if (growthTimer[i] == GROWTH_TIMER_END_VALUE) {
+                size[i] = Math.min(size[i] + 1, FISH_MAX_SIZE);
+                growthTimer[i] = GROWTH_TIMER_START_VALUE;
+            }
+            schedule(i);
+            countIn(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Reduces hunger level of fish i by FISH_FOOD_AMOUNT to a minimum of FISH_MIN_HUNGER only if alive.
+    public void feed(int i) {
+        if (status[i] == ALIVE) {
+            sync(i);
+            countOut(i);
+            hungerLevel[i] = Math.max(hungerLevel[i] - FISH_FOOD_AMOUNT, FISH_MIN_HUNGER);
+            schedule(i);
+            countIn(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets fish i status to dead
+    public void die(int i) {
+        if (status[i] == ALIVE) {
+            sync(i);
+            countOut(i);
+            status[i] = DEAD;
+            updateVelocity(i);
+            schedule(i);
+            countIn(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets fish i status to dead if its hunger reaches FISH_HUNGER_TO_STARVE
+    public void starveCheck(int i) {
+        if (getHungerLevel(i) >= FISH_HUNGER_TO_STARVE) {
+            die(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: If fish i is alive and its growth timer ended, increases its size by 1, to a maximum
+    // of FISH_MAX_SIZE and resets timer
+    public void growCheck(int i) {
+        if (status[i] == ALIVE && getGrowthTimer(i) == GROWTH_TIMER_END_VALUE) {
+            sync(i);
+            countOut(i);
+            size[i] = Math.min(size[i] + 1, FISH_MAX_SIZE);
+            growthTimer[i] = GROWTH_TIMER_START_VALUE;
+            schedule(i);
+            countIn(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: If fish i is dead then adds double the speed to coordinate Y, down to 0.9
+    // Else adds speed to coordinate X if direction is right, else subtracts speed
+    // if coordinate X goes past 1 or 0, clamps it, turns fish around and randomizes its swim speed;
+    // moves fish to its new cell in the grid
+    public void updateCoordinate(int i) {
+        if (status[i] == DEAD) {
+            coordinateY[i] = Math.min(coordinateY[i] + speed[i] * 2.0, 0.9);
+        } else {
+            coordinateX[i] += direction[i] == RIGHT ? speed[i] : -speed[i];
+            if (coordinateX[i] > 1.0) {
+                coordinateX[i] = 1.0;
+                direction[i] = LEFT;
+                randomizeSwimSpeed(i);
+            }
+            if (coordinateX[i] < 0.0) {
+                coordinateX[i] = 0.0;
+                direction[i] = RIGHT;
+                randomizeSwimSpeed(i);
+            }
+        }
+        grid.update(i, coordinateX[i], coordinateY[i]);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: randomize swim speed of fish i, between MIN_SPEED and MAX_SPEED
+    private void randomizeSwimSpeed(int i) {
+        speed[i] = MIN_SPEED + random.nextDouble() * (MAX_SPEED - MIN_SPEED);
+        updateVelocity(i);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restarts random stream of population from seed, so the coordinates, directions and speeds
+    // it picks from now on are reproducible
+    public void setRandomSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    // EFFECTS: returns hunger level of fish i
+    public int getHungerLevel(int i) {
+        if (status[i] == ALIVE) {
+            return hungerLevel[i] + (int) (clock - syncedAt[i]);
+        }
+        return hungerLevel[i];
+    }
+
+    // EFFECTS: returns size of fish i
+    public int getSize(int i) {
+        return size[i];
+    }
+
+    // EFFECTS: returns growth timer of fish i
+    public int getGrowthTimer(int i) {
+        if (status[i] == ALIVE) {
+            return growthTimer[i] - (int) (clock - syncedAt[i]);
+        }
+        return growthTimer[i];
+    }
+
+    // EFFECTS: returns status of fish i (0 = Dead, 1 = Alive), EMPTY (-1) if slot i holds no fish
+    public int getStatus(int i) {
+        return status[i];
+    }
+
+    // EFFECTS: returns swim direction of fish i
+    public int getDirection(int i) {
+        return direction[i];
+    }
+
+    // EFFECTS: returns speed of fish i
+    public double getSpeed(int i) {
+        return speed[i];
+    }
+
+    // EFFECTS: returns x coordinate of fish i
+    public double getCoordinateX(int i) {
+        return coordinateX[i];
+    }
+
+    // EFFECTS: returns y coordinate of fish i
+    public double getCoordinateY(int i) {
+        return coordinateY[i];
+    }
+
+    // EFFECTS: returns name of fish i
+    public String getName(int i) {
+        return name[i];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: names or renames fish i
+    public void setName(int i, String name) {
+        unlinkName(i);
+        this.name[i] = name;
+        linkName(i);
+        snapshotChunks.touch(i);
+    }
+
+    // EFFECTS: returns id of fish i
+    public int getId(int i) {
+        return id[i];
+    }
+
+    // EFFECTS: returns id the next fish added will get
+    public int getNextId() {
+        return nextId;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes fish added from now on get ids of at least nextId
+    public void reserveIds(int nextId) {
+        this.nextId = Math.max(this.nextId, nextId);
+    }
+
+    // EFFECTS: returns slot of fish with id, NO_SLOT if no fish has it
+    public int slotOf(int id) {
+        return slotsById.get(id);
+    }
+
+    // EFFECTS: returns slot of a fish named name, NO_SLOT if none is; the others follow through nextNamed
+    public int firstNamed(String name) {
+        Integer slot = slotsByName.get(name);
+        return slot == null ? NO_SLOT : slot;
+    }
+
+    // EFFECTS: returns slot of the next fish with the same name as fish i, NO_SLOT if there are no more
+    public int nextNamed(int i) {
+        return nextSameName[i];
+    }
+
+    // REQUIRES: 0 <= x <= 1
+    // MODIFIES: this
+    // EFFECTS: sets x coordinate of fish i
+    public void setCoordinateX(int i, double x) {
+        coordinateX[i] = x;
+        grid.update(i, coordinateX[i], coordinateY[i]);
+    }
+
+    // REQUIRES: 0 <= y <= 1
+    // MODIFIES: this
+    // EFFECTS: sets y coordinate of fish i
+    public void setCoordinateY(int i, double y) {
+        coordinateY[i] = y;
+        grid.update(i, coordinateX[i], coordinateY[i]);
+    }
+
+    // REQUIRES: direction = RIGHT (0) || LEFT (1)
+    // MODIFIES: this
+    // EFFECTS: sets direction of fish i
+    public void setDirection(int i, int direction) {
+        this.direction[i] = (byte) direction;
+        updateVelocity(i);
+    }
+}
@@ -0,0 +1,97 @@
+package model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+ * Represents the food pellets floating in an aquarium, stored as parallel primitive arrays (a particle buffer);
+ * pellet i has coordinate x and y, the first count slots hold pellets and their order does not matter,
+ * so removing a pellet moves the last one into its slot;
+ * pellets are dropped at the top of the water and sink SINK_SPEED per step until they rest on the sand at BOTTOM;
+ * random is the stream used to pick where pellets are dropped
+ */
+public class FoodPellets {
+    public static final double SINK_SPEED = 0.005;
+    public static final double BOTTOM = 0.9;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] coordinateX;
+    private double[] coordinateY;
+    private int count;
+    private SplittableRandom random;
+
+    // EFFECTS: constructs an empty buffer, dropping pellets at places drawn from the calling thread's stream
+    public FoodPellets() {
+        coordinateX = new double[DEFAULT_CAPACITY];
+        coordinateY = new double[DEFAULT_CAPACITY];
+        random = RandomSource.newStream();
+    }
+
+    // EFFECTS: returns number of pellets
+    public int size() {
+        return count;
+    }
+
+    // EFFECTS: returns x coordinate of pellet i
+    public double getCoordinateX(int i) {
+        return coordinateX[i];
+    }
+
+    // EFFECTS: returns y coordinate of pellet i
+    public double getCoordinateY(int i) {
+        return coordinateY[i];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a pellet at coordinates (x, y)
+    public void add(double x, double y) {
+        if (count == coordinateX.length) {
+            coordinateX = Arrays.copyOf(coordinateX, count * 2);
+            coordinateY = Arrays.copyOf(coordinateY, count * 2);
+        }
+        coordinateX[count] = x;
+        coordinateY[count] = y;
+        count++;
+    }
+
+    // REQUIRES: numPellets >= 0
+    // MODIFIES: this
+    // EFFECTS: drops numPellets pellets at random places along the top of the water
+    public void drop(int numPellets) {
+        for (int k = 0; k < numPellets; k++) {
+            add(random.nextDouble(), 0.0);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes pellet i, the last pellet takes its place
+    public void remove(int i) {
+        count--;
+        coordinateX[i] = coordinateX[count];
+        coordinateY[i] = coordinateY[count];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sinks every pellet by SINK_SPEED, down to BOTTOM
+    public void sink() {
+        for (int i = 0; i < count; i++) {
+            coordinateY[i] = Math.min(coordinateY[i] + SINK_SPEED, BOTTOM);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes pellets resting on the sand
+    public void removeResting() {
+        for (int i = count - 1; i >= 0; i--) {
+            if (coordinateY[i] >= BOTTOM) {
+                remove(i);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restarts random stream from seed, so pellets dropped from now on land at reproducible places
+    public void setRandomSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+}
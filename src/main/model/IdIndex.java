@@ -0,0 +1,133 @@
+package model;
+
+import java.util.Arrays;
+
+/*
+ * Represents a hash index from non-negative int ids to slots, with open addressing and linear probing;
+ * keys and values hold the entries, a key of FREE marks an unused position, and the table is kept at most
+ * half full so probes stay short; removing an entry shifts the entries probed past it back, so no
+ * tombstones are left behind;
+ * size is the number of entries
+ */
+class IdIndex {
+    static final int NONE = -1;
+    private static final int FREE = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    // EFFECTS: constructs an empty index
+    IdIndex() {
+        allocate(MIN_CAPACITY);
+    }
+
+    // EFFECTS: returns number of ids in index
+    int size() {
+        return size;
+    }
+
+    // EFFECTS: returns slot of id, NONE if id is not in index
+    int get(int id) {
+        for (int p = position(id); keys[p] != FREE; p = (p + 1) & mask) {
+            if (keys[p] == id) {
+                return values[p];
+            }
+        }
+        return NONE;
+    }
+
+    // REQUIRES: id >= 0
+    // MODIFIES: this
+    // EFFECTS: maps id to slot, replacing its old slot if already in index
+    void put(int id, int slot) {
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int p = position(id);
+        while (keys[p] != FREE) {
+            if (keys[p] == id) {
+                values[p] = slot;
+                return;
+            }
+            p = (p + 1) & mask;
+        }
+        keys[p] = id;
+        values[p] = slot;
+        size++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes id from index, does nothing if it is not in index
+    void remove(int id) {
+        int p = position(id);
+        while (keys[p] != id) {
+            if (keys[p] == FREE) {
+                return;
+            }
+            p = (p + 1) & mask;
+        }
+        size--;
+        // shift back later entries of the probe run that could have used position p
+        int hole = p;
+        for (int q = (p + 1) & mask; keys[q] != FREE; q = (q + 1) & mask) {
+            int home = position(keys[q]);
+            if (((q - home) & mask) >= ((q - hole) & mask)) {
+                keys[hole] = keys[q];
+                values[hole] = values[q];
+                hole = q;
+            }
+        }
+        keys[hole] = FREE;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: grows table so numIds ids fit without rehashing
+    void ensureCapacity(int numIds) {
+        int capacity = keys.length;
+        while ((long) numIds * 2 > capacity) {
+            capacity *= 2;
+        }
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every id
+    void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    // EFFECTS: returns position id hashes to
+    private int position(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces table with an empty one of capacity positions
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves every entry to a table of capacity positions
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int p = 0; p < oldKeys.length; p++) {
+            if (oldKeys[p] != FREE) {
+                put(oldKeys[p], oldValues[p]);
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package model;
+
+import exception.IllegalFishException;
+
+import java.util.SplittableRandom;
+
+import static model.Fish.*;
+
+/*
+ * Represents the state of a fish that is in no population, one constructed on its own or one removed from its
+ * population, as plain fields holding the values a population slot holds; it ages only when passTime is called
+ * on it, and draws coordinates, direction and speed from the random stream of the thread using it
+ */
+final class LoneFish {
+    private final int id;
+    private int status;
+    private int hungerLevel;
+    private int growthTimer;
+    private int size;
+    private String name;
+    private int direction;
+    private double speed;
+    private double coordinateX;
+    private double coordinateY;
+
+    // EFFECTS: constructs fish with id 0, and specified size, hungerLevel, status, growthTimer and name,
+    // with a randomized coordinate x and y, and direction (left or right), and a random speed
+    // throws IllegalFishException if parameters not valid
+    LoneFish(int size, int hungerLevel, int status, int growthTimer, String name) throws IllegalFishException {
+        if (size < FISH_MIN_SIZE || hungerLevel < FISH_MIN_HUNGER || status > ALIVE
+                || status < DEAD || growthTimer < GROWTH_TIMER_END_VALUE) {
+            throw new IllegalFishException();
+        }
+        SplittableRandom random = RandomSource.current();
+        this.id = 0;
+        this.size = size;
+        this.hungerLevel = hungerLevel;
+        this.status = status;
+        this.growthTimer = growthTimer;
+        this.name = name;
+        this.coordinateX = random.nextDouble();
+        this.coordinateY = random.nextDouble() * 0.95;
+        this.direction = random.nextDouble() > 0.5 ? LEFT : RIGHT;
+        randomizeSwimSpeed();
+    }
+
+    // EFFECTS: constructs fish holding all of the given state, as last held by a population
+    LoneFish(int id, int status, int hungerLevel, int growthTimer, int size, String name, int direction,
+             double speed, double coordinateX, double coordinateY) {
+        this.id = id;
+        this.status = status;
+        this.hungerLevel = hungerLevel;
+        this.growthTimer = growthTimer;
+        this.size = size;
+        this.name = name;
+        this.direction = direction;
+        this.speed = speed;
+        this.coordinateX = coordinateX;
+        this.coordinateY = coordinateY;
+    }
+
+    // EFFECTS: returns id
+    int getId() {
+        return id;
+    }
+
+    // EFFECTS: returns status
+    int getStatus() {
+        return status;
+    }
+
+    // EFFECTS: returns hunger level
+    int getHungerLevel() {
+        return hungerLevel;
+    }
+
+    // EFFECTS: returns growth timer
+    int getGrowthTimer() {
+        return growthTimer;
+    }
+
+    // EFFECTS: returns size
+    int getSize() {
+        return size;
+    }
+
+    // EFFECTS: returns name
+    String getName() {
+        return name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: names or renames fish
+    void setName(String name) {
+        this.name = name;
+    }
+
+    // EFFECTS: returns swim direction
+    int getDirection() {
+        return direction;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets swim direction
+    void setDirection(int direction) {
+        this.direction = direction;
+    }
+
+    // EFFECTS: returns speed
+    double getSpeed() {
+        return speed;
+    }
+
+    // EFFECTS: returns x coordinate
+    double getCoordinateX() {
+        return coordinateX;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets x coordinate
+    void setCoordinateX(double x) {
+        coordinateX = x;
+    }
+
+    // EFFECTS: returns y coordinate
+    double getCoordinateY() {
+        return coordinateY;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets y coordinate
+    void setCoordinateY(double y) {
+        coordinateY = y;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: see FishPopulation.updateCoordinate(int)
+    void updateCoordinate() {
+        if (status == DEAD) {
+            coordinateY = Math.min(coordinateY + speed * 2.0, 0.9);
+        } else {
+            coordinateX += direction == RIGHT ? speed : -speed;
+            if (coordinateX > 1.0) {
+                coordinateX = 1.0;
+                direction = LEFT;
+                randomizeSwimSpeed();
+            }
+            if (coordinateX < 0.0) {
+                coordinateX = 0.0;
+                direction = RIGHT;
+                randomizeSwimSpeed();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: randomize swim speed, between MIN_SPEED and MAX_SPEED
+    private void randomizeSwimSpeed() {
+        speed = MIN_SPEED + RandomSource.current().nextDouble() * (MAX_SPEED - MIN_SPEED);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: see FishPopulation.feed(int)
+    void feed() {
+        if (status == ALIVE) {
+            hungerLevel = Math.max(hungerLevel - FISH_FOOD_AMOUNT, FISH_MIN_HUNGER);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets status to dead
+    void die() {
+        status = DEAD;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: see FishPopulation.starveCheck(int)
+    void starveCheck() {
+        if (hungerLevel >= FISH_HUNGER_TO_STARVE) {
+            die();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: see FishPopulation.growCheck(int)
+    void growCheck() {
+        if (status == ALIVE && growthTimer == GROWTH_TIMER_END_VALUE) {
+            size = Math.min(size + 1, FISH_MAX_SIZE);
+            growthTimer = GROWTH_TIMER_START_VALUE;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: see FishPopulation.passTime(int)
+    void passTime() {
+        if (status == ALIVE) {
+            hungerLevel++;
+            growthTimer--;
+            if (hungerLevel >= FISH_HUNGER_TO_STARVE) {
+                status = DEAD;
+            } else {
+                growCheck();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package model;
+
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Represents a fork-join task that fires one kind of deadline (starve or grow) for a range of due slots
+ * of a fish population; range is split in halves until it is no bigger than chunkSize,
+ * each chunk is then run sequentially
+ */
+class PassTimeTask extends RecursiveAction {
+    private final FishPopulation population;
+    private final int[] slots;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+    private final int event;
+
+    // REQUIRES: slots from (inclusive) to to (exclusive) are distinct slots of population due for event,
+    // chunkSize >= 1
+    // EFFECTS: constructs task firing event for slots[from] to slots[to - 1]
+    PassTimeTask(FishPopulation population, int[] slots, int from, int to, int chunkSize, int event) {
+        this.population = population;
+        this.slots = slots;
+        this.from = from;
+        this.to = to;
+        this.chunkSize = chunkSize;
+        this.event = event;
+    }
+
+    // MODIFIES: population
+    // EFFECTS: fires event for range, splitting it into two subtasks if bigger than chunkSize
+    @Override
+    protected void compute() {
+        if (to - from <= chunkSize) {
+            population.fireRange(slots, from, to, event);
+        } else {
+            int mid = (from + to) >>> 1;
+            invokeAll(new PassTimeTask(population, slots, from, mid, chunkSize, event),
+                    new PassTimeTask(population, slots, mid, to, chunkSize, event));
+        }
+    }
+}
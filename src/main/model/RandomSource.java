@@ -0,0 +1,34 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/*
+ * Represents the source of random streams for the model;
+ * every thread has its own root stream, and each fish population gets its own stream split from the root
+ * of the thread creating it, so no two threads ever share a generator; a fish in no population draws its few
+ * numbers straight from the root of the thread using it;
+ * seeding a thread's root makes every population it creates afterwards reproducible
+ */
+public final class RandomSource {
+    private static final ThreadLocal<SplittableRandom> ROOTS = ThreadLocal.withInitial(SplittableRandom::new);
+
+    private RandomSource() {
+    }
+
+    // MODIFIES: root stream of calling thread
+    // EFFECTS: returns a new stream split from calling thread's root stream
+    public static SplittableRandom newStream() {
+        return ROOTS.get().split();
+    }
+
+    // EFFECTS: returns calling thread's root stream
+    static SplittableRandom current() {
+        return ROOTS.get();
+    }
+
+    // MODIFIES: root stream of calling thread
+    // EFFECTS: restarts calling thread's root stream from seed
+    public static void seed(long seed) {
+        ROOTS.set(new SplittableRandom(seed));
+    }
+}
@@ -0,0 +1,65 @@
+package model;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/*
+ * Represents the chunks a fish population hands to its snapshots: chunks holds the state of each run of
+ * AquariumSnapshot.CHUNK_SIZE slots as last handed to a snapshot, and dirtyChunks marks the runs changed since,
+ * so a new snapshot only copies those and shares the rest with the snapshot before it
+ */
+class SnapshotChunks {
+    private FishChunk[] chunks;
+    private boolean[] dirtyChunks;
+
+    // REQUIRES: capacity >= 1
+    // EFFECTS: constructs chunks tracking changes to slots below capacity, none handed out yet
+    SnapshotChunks(int capacity) {
+        chunks = new FishChunk[0];
+        dirtyChunks = new boolean[numChunks(capacity)];
+    }
+
+    // EFFECTS: returns number of chunks needed to cover slots below numSlots
+    static int numChunks(int numSlots) {
+        return (numSlots + AquariumSnapshot.CHUNK_SIZE - 1) >>> AquariumSnapshot.CHUNK_SHIFT;
+    }
+
+    // REQUIRES: capacity is at least the capacity tracked so far
+    // MODIFIES: this
+    // EFFECTS: tracks changes to slots below capacity
+    void grow(int capacity) {
+        dirtyChunks = Arrays.copyOf(dirtyChunks, numChunks(capacity));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the chunk holding slot i as changed; racing writers all write true, so slots in the same
+    // chunk may be touched from different threads
+    void touch(int i) {
+        dirtyChunks[i >>> AquariumSnapshot.CHUNK_SHIFT] = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks every chunk as changed
+    void touchAll() {
+        Arrays.fill(dirtyChunks, true);
+    }
+
+    // REQUIRES: slots below numSlots are tracked
+    // MODIFIES: this
+    // EFFECTS: returns the chunks covering slots below numSlots, in an array of its own; chunks changed since
+    // they were last handed out, or never handed out, are made afresh by copy, given the index of the chunk,
+    // and the rest are the ones handed out before
+    FishChunk[] take(int numSlots, IntFunction<FishChunk> copy) {
+        int numChunks = numChunks(numSlots);
+        if (chunks.length != numChunks) {
+            chunks = Arrays.copyOf(chunks, numChunks);
+        }
+        for (int c = 0; c < numChunks; c++) {
+            if (chunks[c] == null || dirtyChunks[c]) {
+                chunks[c] = copy.apply(c);
+                dirtyChunks[c] = false;
+            }
+        }
+        return chunks.clone();
+    }
+}
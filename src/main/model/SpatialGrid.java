@@ -0,0 +1,121 @@
+package model;
+
+import java.util.Arrays;
+
+/*
+ * Represents a uniform grid over the unit square that indexes slots of a population by their coordinates;
+ * the square is cut into cellsPerSide by cellsPerSide cells, and the slots in each cell form a doubly linked list:
+ * heads holds the first slot of each cell, next and prev link slots within a cell, and cellOf holds the cell of
+ * each slot, NONE if slot is not in the grid;
+ * coordinates outside the square go in the nearest cell on its border
+ */
+class SpatialGrid {
+    static final int NONE = -1;
+
+    private final int cellsPerSide;
+    private final int[] heads;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] cellOf;
+
+    // REQUIRES: cellsPerSide >= 1, capacity >= 1
+    // EFFECTS: constructs an empty grid of cellsPerSide by cellsPerSide cells, for slots below capacity
+    SpatialGrid(int cellsPerSide, int capacity) {
+        this.cellsPerSide = cellsPerSide;
+        heads = new int[cellsPerSide * cellsPerSide];
+        Arrays.fill(heads, NONE);
+        next = new int[capacity];
+        prev = new int[capacity];
+        cellOf = new int[capacity];
+        Arrays.fill(cellOf, NONE);
+    }
+
+    // EFFECTS: returns number of cells along each side of the grid
+    int getCellsPerSide() {
+        return cellsPerSide;
+    }
+
+    // EFFECTS: returns column of the cell holding coordinate x
+    int column(double x) {
+        return clamp((int) (x * cellsPerSide));
+    }
+
+    // EFFECTS: returns row of the cell holding coordinate y
+    int row(double y) {
+        return clamp((int) (y * cellsPerSide));
+    }
+
+    // EFFECTS: returns c clamped to a valid column or row
+    private int clamp(int c) {
+        return Math.max(0, Math.min(c, cellsPerSide - 1));
+    }
+
+    // EFFECTS: returns first slot in cell at column and row, NONE if cell is empty
+    int first(int column, int row) {
+        return heads[row * cellsPerSide + column];
+    }
+
+    // EFFECTS: returns slot after slot in its cell, NONE if it is the last one
+    int next(int slot) {
+        return next[slot];
+    }
+
+    // EFFECTS: returns true if slot is in the grid, else false
+    boolean contains(int slot) {
+        return cellOf[slot] != NONE;
+    }
+
+    // REQUIRES: slot is not in the grid
+    // MODIFIES: this
+    // EFFECTS: adds slot to the cell holding (x, y)
+    void insert(int slot, double x, double y) {
+        link(slot, row(y) * cellsPerSide + column(x));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes slot out of the grid, does nothing if it is not in it
+    void remove(int slot) {
+        if (cellOf[slot] != NONE) {
+            unlink(slot);
+        }
+    }
+
+    // REQUIRES: slot is in the grid
+    // MODIFIES: this
+    // EFFECTS: moves slot to the cell holding (x, y), only relinks it if that cell is a different one
+    void update(int slot, double x, double y) {
+        int cell = row(y) * cellsPerSide + column(x);
+        if (cell != cellOf[slot]) {
+            unlink(slot);
+            link(slot, cell);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts slot at the front of cell
+    private void link(int slot, int cell) {
+        int head = heads[cell];
+        next[slot] = head;
+        prev[slot] = NONE;
+        if (head != NONE) {
+            prev[head] = slot;
+        }
+        heads[cell] = slot;
+        cellOf[slot] = cell;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes slot out of its cell
+    private void unlink(int slot) {
+        int cell = cellOf[slot];
+        if (prev[slot] == NONE) {
+            heads[cell] = next[slot];
+        } else {
+            next[prev[slot]] = next[slot];
+        }
+        if (next[slot] != NONE) {
+            prev[next[slot]] = prev[slot];
+        }
+        cellOf[slot] = NONE;
+    }
+}
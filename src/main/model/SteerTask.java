@@ -0,0 +1,35 @@
+package model;
+
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Represents a fork-join task that steers the schooling fish in a range of slots of the frame boids is steering;
+ * range is split in halves until it is no bigger than chunkSize, each chunk is then run sequentially
+ */
+class SteerTask extends RecursiveAction {
+    private final Boids boids;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+
+    // REQUIRES: chunkSize >= 1
+    // EFFECTS: constructs task steering fish in slots from (inclusive) to to (exclusive)
+    SteerTask(Boids boids, int from, int to, int chunkSize) {
+        this.boids = boids;
+        this.from = from;
+        this.to = to;
+        this.chunkSize = chunkSize;
+    }
+
+    // MODIFIES: boids
+    // EFFECTS: steers fish in range, splitting it into two subtasks if bigger than chunkSize
+    @Override
+    protected void compute() {
+        if (to - from <= chunkSize) {
+            boids.steerRange(from, to);
+        } else {
+            int mid = (from + to) >>> 1;
+            invokeAll(new SteerTask(boids, from, mid, chunkSize), new SteerTask(boids, mid, to, chunkSize));
+        }
+    }
+}
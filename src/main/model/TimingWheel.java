@@ -0,0 +1,71 @@
+package model;
+
+import java.util.Arrays;
+
+/*
+ * Represents a hashed timing wheel of int entries keyed by the tick they are due;
+ * buckets holds one list of entries per position of the wheel, an entry due at tick t goes in bucket t mod
+ * number of buckets, and bucketSizes holds how many entries each bucket has;
+ * entries due more than one turn away share a bucket with nearer ones, so whoever takes a bucket
+ * checks the deadline of each of its entries;
+ * size is the total number of entries in the wheel
+ */
+class TimingWheel {
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+    private static final int[] EMPTY_BUCKET = new int[0];
+
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private final int mask;
+    private int size;
+
+    // REQUIRES: numBuckets is a power of two
+    // EFFECTS: constructs an empty wheel with numBuckets buckets
+    TimingWheel(int numBuckets) {
+        buckets = new int[numBuckets][];
+        bucketSizes = new int[numBuckets];
+        mask = numBuckets - 1;
+    }
+
+    // EFFECTS: returns true if wheel has no entries, else false
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds entry to the bucket for tick deadline
+    void schedule(long deadline, int entry) {
+        int b = (int) (deadline & mask);
+        int[] bucket = buckets[b];
+        if (bucket == null) {
+            bucket = new int[INITIAL_BUCKET_CAPACITY];
+            buckets[b] = bucket;
+        } else if (bucketSizes[b] == bucket.length) {
+            bucket = Arrays.copyOf(bucket, bucket.length * 2);
+            buckets[b] = bucket;
+        }
+        bucket[bucketSizes[b]++] = entry;
+        size++;
+    }
+
+    // EFFECTS: returns the entries of the bucket for tick, only the first bucketSize(tick) are valid;
+    // returns an empty array if bucket was never used
+    int[] bucket(long tick) {
+        int[] bucket = buckets[(int) (tick & mask)];
+        return bucket == null ? EMPTY_BUCKET : bucket;
+    }
+
+    // EFFECTS: returns number of entries in the bucket for tick
+    int bucketSize(long tick) {
+        return bucketSizes[(int) (tick & mask)];
+    }
+
+    // REQUIRES: 0 <= newSize <= bucketSize(tick)
+    // MODIFIES: this
+    // EFFECTS: keeps only the first newSize entries of the bucket for tick
+    void truncateBucket(long tick, int newSize) {
+        int b = (int) (tick & mask);
+        size -= bucketSizes[b] - newSize;
+        bucketSizes[b] = newSize;
+    }
+}
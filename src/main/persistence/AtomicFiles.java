@@ -0,0 +1,68 @@
+package persistence;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Represents the way save files are replaced: a file is written in full to a temporary file next to it, named
+ * with TEMP_EXTENSION added, which is forced to disk and then renamed over it atomically, and the directory is
+ * forced after the rename so the rename itself survives a crash; a crash while saving leaves either the old file or
+ * the new one, never one written in part
+ */
+final class AtomicFiles {
+    static final String TEMP_EXTENSION = ".tmp";
+
+    private AtomicFiles() {
+    }
+
+    // EFFECTS: returns path of the temporary file destination is written to
+    static Path temp(String destination) {
+        return Paths.get(destination + TEMP_EXTENSION);
+    }
+
+    // EFFECTS: opens the temporary file of destination for writing, emptying it;
+    // throws FileNotFoundException if it cannot be opened
+    static FileChannel open(String destination) throws FileNotFoundException {
+        return new FileOutputStream(destination + TEMP_EXTENSION).getChannel();
+    }
+
+    // REQUIRES: channel is open on the temporary file of destination, holding all of the new file
+    // MODIFIES: channel
+    // EFFECTS: forces channel to disk, closes it, renames the temporary file to destination atomically, and forces
+    // the directory holding destination to disk
+    static void commit(FileChannel channel, String destination) throws IOException {
+        channel.force(true);
+        channel.close();
+        Path target = Paths.get(destination);
+        Files.move(temp(destination), target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(target.toAbsolutePath().getParent());
+    }
+
+    // EFFECTS: forces directory to disk, so files created, renamed or deleted in it stay that way after a crash;
+    // does nothing where directories cannot be opened
+    static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // some platforms, such as Windows, cannot open a directory; their renames are durable already
+        }
+    }
+
+    // EFFECTS: closes channel and deletes the temporary file of destination, after a write that failed;
+    // never throws, so the failure of the write is the one reported
+    static void abort(FileChannel channel, String destination) {
+        try {
+            channel.close();
+            Files.deleteIfExists(temp(destination));
+        } catch (IOException e) {
+            // the temporary file is emptied by the next write
+        }
+    }
+}
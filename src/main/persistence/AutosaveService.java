@@ -0,0 +1,139 @@
+package persistence;
+
+import model.AquariumSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+ * Represents a service saving an aquarium to saver on a background thread of its own, every interval milliseconds
+ * and whenever a save is asked for, so the thread asking, such as the Swing event thread, never waits for a save;
+ * source gives the snapshot to save, an immutable copy of the aquarium safe to read from the save thread, or null
+ * if there is nothing to save yet; saves run one at a time, in the order they are due, and saver writes each one
+ * so that a crash while saving leaves the last save whole;
+ * metrics holds the statistics of the saves made so far and is replaced after each save, onError is called on the
+ * save thread with the exception of every autosave that failed, and schedule is the running autosave, null if
+ * interval is 0
+ */
+public class AutosaveService implements Closeable {
+    public static final long DEFAULT_INTERVAL_MILLIS = 30000;
+    public static final long SKIPPED = -1;
+
+    private final SnapshotSaver saver;
+    private final Supplier<AquariumSnapshot> source;
+    private final ScheduledExecutorService executor;
+    private volatile Consumer<Exception> onError;
+    private volatile SaveMetrics metrics;
+    private ScheduledFuture<?> schedule;
+    private long interval;
+
+    // EFFECTS: constructs a service saving snapshots from source to saver, not autosaving until an interval is set
+    public AutosaveService(SnapshotSaver saver, Supplier<AquariumSnapshot> source) {
+        this.saver = saver;
+        this.source = source;
+        onError = e -> { };
+        metrics = new SaveMetrics(0, 0, 0, 0, 0, 0, 0);
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // EFFECTS: returns milliseconds between autosaves, 0 if not autosaving
+    public synchronized long getInterval() {
+        return interval;
+    }
+
+    // REQUIRES: intervalMillis >= 0
+    // MODIFIES: this
+    // EFFECTS: autosaves every intervalMillis milliseconds from now on, the first time intervalMillis from now;
+    // stops autosaving if intervalMillis is 0
+    public synchronized void setInterval(long intervalMillis) {
+        if (schedule != null) {
+            schedule.cancel(false);
+            schedule = null;
+        }
+        interval = intervalMillis;
+        if (intervalMillis > 0) {
+            schedule = executor.scheduleWithFixedDelay(this::autosave, intervalMillis, intervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: has autosaves that fail report their exception to onError, on the save thread
+    public void setErrorHandler(Consumer<Exception> onError) {
+        this.onError = onError;
+    }
+
+    // EFFECTS: returns statistics of the saves made so far
+    public SaveMetrics getMetrics() {
+        return metrics;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: asks for a save on the save thread and returns at once; the future returned completes with the
+    // number of bytes written, SKIPPED if source had nothing to save and nothing was saved, or with the exception
+    // the save failed with
+    public CompletableFuture<Long> saveNow() {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                result.complete(save());
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves, reporting failure to onError; never throws, so the schedule keeps running
+    private void autosave() {
+        try {
+            save();
+        } catch (IOException | RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the snapshot source gives to saver, adds the save to metrics, and returns number of bytes
+    // written, SKIPPED if source has nothing to save
+    private long save() throws IOException {
+        AquariumSnapshot snapshot = source.get();
+        if (snapshot == null) {
+            return SKIPPED;
+        }
+        long start = System.nanoTime();
+        try {
+            long bytes = saver.save(snapshot);
+            metrics = metrics.withSave(System.nanoTime() - start, bytes);
+            return bytes;
+        } catch (IOException | RuntimeException e) {
+            metrics = metrics.withFailure();
+            throw e;
+        }
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: stops autosaving and waits for the saves already asked for to end
+    public void close() {
+        setInterval(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package persistence;
+
+import exception.IllegalAquariumException;
+import exception.IllegalFishException;
+import model.Aquarium;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static persistence.BinaryWriter.*;
+
+/*
+ * Represents a reader that reads an aquarium from source file in the binary save format of BinaryWriter;
+ * the file is memory-mapped rather than read, and fish records are fixed width, so loading does no parsing
+ * and copies each field once, from the mapping straight into the population, sized for every fish up front
+ */
+public class BinaryReader {
+    private static final int MAX_MAPPING = Integer.MAX_VALUE / RECORD_BYTES * RECORD_BYTES;
+
+    private String source;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: returns true if file at path is in the binary save format by its name, else false
+    public static boolean isBinary(String path) {
+        return path.endsWith(EXTENSION);
+    }
+
+    // EFFECTS: reads aquarium from source file and returns it;
+    // throws IOException if cannot read file, it is not in the binary save format, is of a later version,
+    // or is cut short, IllegalAquariumException or IllegalFishException if illegal parameter values are given
+    public Aquarium read() throws IOException, IllegalAquariumException, IllegalFishException {
+        Aquarium[] aquarium = new Aquarium[1];
+        read(new Handler() {
+            @Override
+            public void begin(int cleanness, int nextFishId, int numFish) throws IllegalAquariumException {
+                aquarium[0] = new Aquarium(cleanness);
+                aquarium[0].ensureFishCapacity(numFish);
+                aquarium[0].reserveFishIds(nextFishId);
+            }
+
+            @Override
+            public void fish(int id, int status, int hungerLevel, int growthTimer, int size, String name)
+                    throws IllegalFishException {
+                aquarium[0].addFish(id, size, hungerLevel, status, growthTimer, name);
+            }
+        });
+        return aquarium[0];
+    }
+
+    // EFFECTS: reads source file, handing its header and then each fish record in order to handler;
+    // throws IOException if cannot read file, it is not in the binary save format, is of a later version,
+    // or is cut short, IllegalAquariumException or IllegalFishException if handler throws them
+    void read(Handler handler) throws IOException, IllegalAquariumException, IllegalFishException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Not a binary aquarium save");
+            }
+            ByteBuffer header = map(channel, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a binary aquarium save");
+            }
+            int version = header.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported binary save version " + version);
+            }
+            int cleanness = header.getInt();
+            int nextFishId = header.getInt();
+            int numFish = header.getInt();
+            header.getInt();
+            long nameBytes = header.getLong();
+            long namesStart = HEADER_BYTES + (long) numFish * RECORD_BYTES;
+            if (numFish < 0 || nameBytes < 0 || nameBytes > Integer.MAX_VALUE || fileSize != namesStart + nameBytes) {
+                throw new IOException("Binary aquarium save is cut short or corrupted");
+            }
+
+            handler.begin(cleanness, nextFishId, numFish);
+            ByteBuffer names = map(channel, namesStart, nameBytes);
+            byte[] nameBuffer = new byte[64];
+            long position = HEADER_BYTES;
+            while (position < namesStart) {
+                ByteBuffer records = map(channel, position, Math.min(namesStart - position, MAX_MAPPING));
+                while (records.hasRemaining()) {
+                    int id = records.getInt();
+                    int status = records.getInt();
+                    int hungerLevel = records.getInt();
+                    int growthTimer = records.getInt();
+                    int size = records.getInt();
+                    int nameOffset = records.getInt();
+                    String name = null;
+                    if (nameOffset != NO_NAME) {
+                        int length = nameOffset >= 0 && nameOffset <= nameBytes - Integer.BYTES
+                                ? names.getInt(nameOffset) : -1;
+                        if (length < 0 || length > nameBytes - Integer.BYTES - nameOffset) {
+                            throw new IOException("Binary aquarium save has a bad name offset");
+                        }
+                        if (nameBuffer.length < length) {
+                            nameBuffer = new byte[length];
+                        }
+                        names.position(nameOffset + Integer.BYTES);
+                        names.get(nameBuffer, 0, length);
+                        name = new String(nameBuffer, 0, length, StandardCharsets.UTF_8);
+                    }
+                    handler.fish(id, status, hungerLevel, growthTimer, size, name);
+                }
+                position += records.capacity();
+            }
+        }
+    }
+
+    // EFFECTS: maps size bytes of channel from position, read only and little-endian
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /*
+     * Represents what is done with the header and with each fish record of a binary save as they are read
+     */
+    interface Handler {
+        // EFFECTS: handles the header of the save
+        void begin(int cleanness, int nextFishId, int numFish) throws IllegalAquariumException;
+
+        // EFFECTS: handles the record of the next fish of the save
+        void fish(int id, int status, int hungerLevel, int growthTimer, int size, String name)
+                throws IllegalFishException;
+    }
+}
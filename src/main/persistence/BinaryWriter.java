@@ -0,0 +1,112 @@
+package persistence;
+
+import model.AquariumSnapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Represents a writer that writes an aquarium to destination file in the binary save format, which is read back
+ * by BinaryReader much faster than JSON; all numbers are little-endian:
+ * a header of HEADER_BYTES: MAGIC, VERSION, cleanness, nextFishId and number of fish as ints, one unused int,
+ * and the length in bytes of the name table as a long;
+ * then one record of RECORD_BYTES per fish: id, status, hungerLevel, growthTimer and size as ints, and the offset
+ * of its name in the name table as an int, NO_NAME if it has none;
+ * then the name table: for every name, its length in bytes as an int and the name in UTF-8;
+ * records and names are written in one pass, each through a buffer of its own, to their own places in the file,
+ * and the file is replaced atomically, as AtomicFiles does
+ */
+public class BinaryWriter {
+    public static final String EXTENSION = ".aqb";
+    public static final int MAGIC = 0x31425141;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+    public static final int RECORD_BYTES = 24;
+    public static final int NO_NAME = -1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private String destination;
+
+    // EFFECTS: constructs a writer to write to destination file
+    public BinaryWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // EFFECTS: writes aquarium in snapshot to file, replacing what it held atomically;
+    // throws IOException if file cannot be opened or written
+    public void write(AquariumSnapshot snapshot) throws IOException {
+        FileChannel channel = AtomicFiles.open(destination);
+        try {
+            write(channel, snapshot);
+        } catch (IOException | RuntimeException e) {
+            AtomicFiles.abort(channel, destination);
+            throw e;
+        }
+        AtomicFiles.commit(channel, destination);
+    }
+
+    // MODIFIES: channel
+    // EFFECTS: writes aquarium in snapshot to channel
+    private static void write(FileChannel channel, AquariumSnapshot snapshot) throws IOException {
+        ByteBuffer records = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer names = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        long recordPosition = HEADER_BYTES;
+        long namesStart = HEADER_BYTES + (long) snapshot.getNumFish() * RECORD_BYTES;
+        long namePosition = namesStart;
+
+        for (int i = 0; i < snapshot.getNumSlots(); i++) {
+            if (!snapshot.isOccupied(i)) {
+                continue;
+            }
+            String name = snapshot.getName(i);
+            int nameOffset = NO_NAME;
+            if (name != null) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                long offset = namePosition + names.position() - namesStart;
+                if (offset > Integer.MAX_VALUE) {
+                    throw new IOException("Name table too large for the binary save format");
+                }
+                nameOffset = (int) offset;
+                if (names.remaining() < Integer.BYTES + bytes.length) {
+                    namePosition += drain(channel, names, namePosition);
+                }
+                if (names.remaining() < Integer.BYTES + bytes.length) {
+                    // longer than the buffer, written straight through
+                    ByteBuffer large = ByteBuffer.allocate(Integer.BYTES + bytes.length)
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                    large.putInt(bytes.length).put(bytes);
+                    namePosition += drain(channel, large, namePosition);
+                } else {
+                    names.putInt(bytes.length).put(bytes);
+                }
+            }
+            if (records.remaining() < RECORD_BYTES) {
+                recordPosition += drain(channel, records, recordPosition);
+            }
+            records.putInt(snapshot.getId(i)).putInt(snapshot.getStatus(i)).putInt(snapshot.getHungerLevel(i))
+                    .putInt(snapshot.getGrowthTimer(i)).putInt(snapshot.getSize(i)).putInt(nameOffset);
+        }
+        drain(channel, records, recordPosition);
+        namePosition += drain(channel, names, namePosition);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(snapshot.getCleanness()).putInt(snapshot.getNextFishId())
+                .putInt(snapshot.getNumFish()).putInt(0).putLong(namePosition - namesStart);
+        drain(channel, header, 0);
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: writes what buffer holds to channel at position, empties buffer, and returns number of bytes written
+    private static int drain(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return written;
+    }
+}
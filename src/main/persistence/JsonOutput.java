@@ -0,0 +1,237 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/*
+ * Represents a streaming JSON writer that encodes values as UTF-8 straight into a buffer and writes the buffer
+ * to channel whenever it fills, so output of any size takes a fixed amount of memory and no tree of it is built;
+ * in pretty mode members and elements go on lines of their own, indented INDENT spaces per level, as
+ * JSONObject.toString(INDENT) lays them out, in compact mode there is no whitespace at all;
+ * nonEmpty tells for each object or array being written, innermost at depth - 1, whether anything is in it yet,
+ * and afterName whether a name was just written and its value is due
+ */
+public class JsonOutput {
+    public static final int INDENT = 4;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final boolean pretty;
+    private boolean[] nonEmpty;
+    private int depth;
+    private boolean afterName;
+
+    // EFFECTS: constructs writer writing to channel, pretty printed if pretty, else compact
+    public JsonOutput(WritableByteChannel channel, boolean pretty) {
+        this.channel = channel;
+        this.pretty = pretty;
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        nonEmpty = new boolean[8];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts an object as the next value
+    public JsonOutput beginObject() throws IOException {
+        return open('{');
+    }
+
+    // REQUIRES: an object is being written and no name is waiting for its value
+    // MODIFIES: this
+    // EFFECTS: ends the innermost object
+    public JsonOutput endObject() throws IOException {
+        return close('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts an array as the next value
+    public JsonOutput beginArray() throws IOException {
+        return open('[');
+    }
+
+    // REQUIRES: an array is being written
+    // MODIFIES: this
+    // EFFECTS: ends the innermost array
+    public JsonOutput endArray() throws IOException {
+        return close(']');
+    }
+
+    // REQUIRES: an object is being written and no name is waiting for its value
+    // MODIFIES: this
+    // EFFECTS: writes name of the next member of the innermost object
+    public JsonOutput name(String name) throws IOException {
+        separate();
+        string(name);
+        put((byte) ':');
+        if (pretty) {
+            put((byte) ' ');
+        }
+        afterName = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value as the next value
+    public JsonOutput value(long value) throws IOException {
+        separate();
+        if (value == Long.MIN_VALUE) {
+            ascii(Long.toString(value));
+            return this;
+        }
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        long scale = 1;
+        while (scale <= value / 10) {
+            scale *= 10;
+        }
+        for (; scale > 0; scale /= 10) {
+            put((byte) ('0' + value / scale % 10));
+        }
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes value as the next value, null if value is null
+    public JsonOutput value(String value) throws IOException {
+        separate();
+        if (value == null) {
+            for (byte b : NULL) {
+                put(b);
+            }
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes everything buffered out to channel
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the opening bracket of an object or array as the next value and enters it
+    private JsonOutput open(char bracket) throws IOException {
+        separate();
+        put((byte) bracket);
+        if (depth == nonEmpty.length) {
+            boolean[] grown = new boolean[depth * 2];
+            System.arraycopy(nonEmpty, 0, grown, 0, depth);
+            nonEmpty = grown;
+        }
+        nonEmpty[depth++] = false;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: leaves the innermost object or array and writes its closing bracket
+    private JsonOutput close(char bracket) throws IOException {
+        depth--;
+        if (pretty && nonEmpty[depth]) {
+            newLine();
+        }
+        put((byte) bracket);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes what goes before the next name or value: nothing after a name, else a comma if the
+    // innermost object or array already has something, and in pretty mode a new line
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+        if (nonEmpty[depth - 1]) {
+            put((byte) ',');
+        }
+        nonEmpty[depth - 1] = true;
+        if (pretty) {
+            newLine();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a new line indented to depth
+    private void newLine() throws IOException {
+        put((byte) '\n');
+        for (int k = depth * INDENT; k > 0; k--) {
+            put((byte) ' ');
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes s quoted, escaping quotes, backslashes and control characters, encoded as UTF-8
+    private void string(String s) throws IOException {
+        put((byte) '"');
+        for (int k = 0; k < s.length(); k++) {
+            char c = s.charAt(k);
+            if (c == '"' || c == '\\') {
+                put((byte) '\\');
+                put((byte) c);
+            } else if (c < 0x20) {
+                escape(c);
+            } else if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                put((byte) (0xC0 | c >> 6));
+                put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && k + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(k + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++k));
+                put((byte) (0xF0 | codePoint >> 18));
+                put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogates have no UTF-8 encoding, escape them as JSON does
+                escape(c);
+            } else {
+                put((byte) (0xE0 | c >> 12));
+                put((byte) (0x80 | c >> 6 & 0x3F));
+                put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        put((byte) '"');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes c as a \\u escape
+    private void escape(char c) throws IOException {
+        put((byte) '\\');
+        put((byte) 'u');
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            put(HEX[c >> shift & 0xF]);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes s, which has only ASCII characters
+    private void ascii(String s) throws IOException {
+        for (int k = 0; k < s.length(); k++) {
+            put((byte) s.charAt(k));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends b to buffer, writing buffer out first if it is full
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
+    }
+}
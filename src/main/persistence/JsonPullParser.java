@@ -0,0 +1,372 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/*
+ * Represents a pull parser reading JSON text from in one token at a time, so a document of any size is read
+ * with memory proportional to its longest string and deepest nesting, never to the whole document;
+ * next returns each token in document order, and getText, getInt or getLong the value of the last name,
+ * string, number or boolean token; the parser checks the document is well formed as it goes;
+ * buffer holds the characters read from in but not yet parsed, from position up to limit,
+ * offset is the number of characters parsed before buffer, text the value of the last token,
+ * and stack the state of each object or array the parser is in, innermost at depth - 1
+ */
+public class JsonPullParser {
+    private static final int BUFFER_SIZE = 1 << 13;
+    private static final byte EMPTY_DOCUMENT = 0;
+    private static final byte NONEMPTY_DOCUMENT = 1;
+    private static final byte EMPTY_OBJECT = 2;
+    private static final byte DANGLING_NAME = 3;
+    private static final byte NONEMPTY_OBJECT = 4;
+    private static final byte EMPTY_ARRAY = 5;
+    private static final byte NONEMPTY_ARRAY = 6;
+
+    /*
+     * Represents the kinds of token of a JSON document
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private final Reader in;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private long offset;
+    private final StringBuilder text;
+    private byte[] stack;
+    private int depth;
+
+    // EFFECTS: constructs a parser reading a JSON document from in; in is read in blocks, it need not be buffered
+    public JsonPullParser(Reader in) {
+        this.in = in;
+        buffer = new char[BUFFER_SIZE];
+        text = new StringBuilder();
+        stack = new byte[16];
+        stack[depth++] = EMPTY_DOCUMENT;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns the next token of the document, END_DOCUMENT once it has all been read;
+    // throws IOException if in cannot be read or the document is not well formed
+    public Token next() throws IOException {
+        int c = nextNonWhitespace();
+        switch (stack[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                return readValue(c);
+            case NONEMPTY_DOCUMENT:
+                if (c != -1) {
+                    throw syntaxError("Unexpected content after document");
+                }
+                return Token.END_DOCUMENT;
+            case EMPTY_OBJECT:
+                if (c == '}') {
+                    depth--;
+                    return Token.END_OBJECT;
+                }
+                return readName(c);
+            case NONEMPTY_OBJECT:
+                if (c == '}') {
+                    depth--;
+                    return Token.END_OBJECT;
+                }
+                expect(c, ',');
+                return readName(nextNonWhitespace());
+            case DANGLING_NAME:
+                expect(c, ':');
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                return readValue(nextNonWhitespace());
+            case EMPTY_ARRAY:
+                if (c == ']') {
+                    depth--;
+                    return Token.END_ARRAY;
+                }
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                return readValue(c);
+            default:
+                if (c == ']') {
+                    depth--;
+                    return Token.END_ARRAY;
+                }
+                expect(c, ',');
+                return readValue(nextNonWhitespace());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next value of the document and ignores it, with everything nested in it;
+    // throws IOException if in cannot be read or the document is not well formed
+    public void skipValue() throws IOException {
+        int nesting = 0;
+        do {
+            Token token = next();
+            if (token == Token.BEGIN_OBJECT || token == Token.BEGIN_ARRAY) {
+                nesting++;
+            } else if (token == Token.END_OBJECT || token == Token.END_ARRAY) {
+                nesting--;
+            }
+            if (nesting < 0 || token == Token.END_DOCUMENT || (nesting == 0 && token == Token.NAME)) {
+                throw syntaxError("Expected a value");
+            }
+        } while (nesting > 0);
+    }
+
+    // REQUIRES: last token is NAME, STRING, NUMBER or BOOLEAN
+    // EFFECTS: returns the text of the last token, "true" or "false" for a boolean
+    public String getText() {
+        return text.toString();
+    }
+
+    // REQUIRES: last token is NAME, STRING, NUMBER or BOOLEAN
+    // EFFECTS: returns true if the text of the last token is name, without copying it
+    public boolean isText(String name) {
+        if (text.length() != name.length()) {
+            return false;
+        }
+        for (int k = 0; k < name.length(); k++) {
+            if (text.charAt(k) != name.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // REQUIRES: last token is NUMBER
+    // EFFECTS: returns the last number as a long, dropping any fraction;
+    // throws IOException if it does not fit in a long
+    public long getLong() throws IOException {
+        int k = text.length() > 0 && text.charAt(0) == '-' ? 1 : 0;
+        if (k == text.length() || text.length() - k > 18) {
+            return (long) parseDouble();
+        }
+        long value = 0;
+        for (; k < text.length(); k++) {
+            char c = text.charAt(k);
+            if (c < '0' || c > '9') {
+                return (long) parseDouble();
+            }
+            value = value * 10 + (c - '0');
+        }
+        return text.charAt(0) == '-' ? -value : value;
+    }
+
+    // REQUIRES: last token is NUMBER
+    // EFFECTS: returns the last number as an int, dropping any fraction;
+    // throws IOException if it does not fit in an int
+    public int getInt() throws IOException {
+        long value = getLong();
+        if (value != (int) value) {
+            throw syntaxError("Number out of int range " + text);
+        }
+        return (int) value;
+    }
+
+    // EFFECTS: returns the last number as a double, throws IOException if it is not a number
+    private double parseDouble() throws IOException {
+        double value;
+        try {
+            value = Double.parseDouble(text.toString());
+        } catch (NumberFormatException e) {
+            throw syntaxError("Malformed number " + text);
+        }
+        if (Double.isNaN(value) || Math.abs(value) >= Long.MAX_VALUE) {
+            throw syntaxError("Number out of range " + text);
+        }
+        return value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the name of the next member of the current object, whose first character is c
+    private Token readName(int c) throws IOException {
+        expect(c, '"');
+        readString();
+        stack[depth - 1] = DANGLING_NAME;
+        return Token.NAME;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the value whose first character is c and returns its token
+    private Token readValue(int c) throws IOException {
+        switch (c) {
+            case '{':
+                push(EMPTY_OBJECT);
+                return Token.BEGIN_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return Token.BEGIN_ARRAY;
+            case '"':
+                readString();
+                return Token.STRING;
+            case 't':
+                readLiteral("true");
+                return Token.BOOLEAN;
+            case 'f':
+                readLiteral("false");
+                return Token.BOOLEAN;
+            case 'n':
+                readLiteral("null");
+                return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber((char) c);
+                    return Token.NUMBER;
+                }
+                throw syntaxError(c == -1 ? "Unexpected end of document" : "Unexpected character " + (char) c);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a string up to its closing quote into text, decoding escapes
+    private void readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                position++;
+            }
+            text.append(buffer, start, position - start);
+            int c = read();
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                text.append(readEscape());
+            } else if (c == -1) {
+                throw syntaxError("Unterminated string");
+            } else {
+                // buffer ran out in the middle of the string
+                position--;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the escape sequence after a backslash and returns the character it stands for
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int k = 0; k < 4; k++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw syntaxError("Malformed unicode escape");
+                    }
+                    value = value << 4 | digit;
+                }
+                return (char) value;
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            default:
+                throw syntaxError("Malformed escape");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of literal, whose first character has been read, into text
+    private void readLiteral(String literal) throws IOException {
+        for (int k = 1; k < literal.length(); k++) {
+            if (read() != literal.charAt(k)) {
+                throw syntaxError("Expected " + literal);
+            }
+        }
+        text.setLength(0);
+        text.append(literal);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a number whose first character is first into text
+    private void readNumber(char first) throws IOException {
+        text.setLength(0);
+        text.append(first);
+        while (true) {
+            if (position == limit && !fill()) {
+                return;
+            }
+            char c = buffer[position];
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                text.append(c);
+                position++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a nested object or array in state
+    private void push(byte state) {
+        if (depth == stack.length) {
+            byte[] grown = new byte[depth * 2];
+            System.arraycopy(stack, 0, grown, 0, depth);
+            stack = grown;
+        }
+        stack[depth++] = state;
+    }
+
+    // EFFECTS: throws IOException if c is not expected
+    private void expect(int c, char expected) throws IOException {
+        if (c != expected) {
+            throw syntaxError("Expected '" + expected + "'");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the next character after it, -1 at end of document
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            int c = read();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character, -1 at end of document
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refills buffer from in, returns false if in has nothing more
+    private boolean fill() throws IOException {
+        offset += limit;
+        position = 0;
+        limit = 0;
+        int read = in.read(buffer, 0, buffer.length);
+        while (read == 0) {
+            read = in.read(buffer, 0, buffer.length);
+        }
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    // EFFECTS: returns exception for a malformed document, giving where parsing stopped
+    private IOException syntaxError(String message) {
+        return new IOException(message + " at character " + (offset + position));
+    }
+}
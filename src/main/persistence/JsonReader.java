@@ -1,24 +1,33 @@
 package persistence;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
 
 import model.Aquarium;
-import model.Fish;
 import exception.IllegalAquariumException;
 import exception.IllegalFishException;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import persistence.JsonPullParser.Token;
 
 /*
  * Represents an reader to read source file, to enable data to be loaded;
  * contains source, which represents the location of file;
+ * the file is parsed as a stream of tokens and each fish is added to the aquarium as soon as its record is read,
+ * so reading takes memory for the aquarium and one fish record, not for the text or a tree of the whole file;
  * code based on JsonSerializationDemo, implementation from CPSC 210 UBC.
  */
 public class JsonReader {
+    private static final int FISH_SIZE = 1;
+    private static final int FISH_HUNGER = 1 << 1;
+    private static final int FISH_STATUS = 1 << 2;
+    private static final int FISH_TIMER = 1 << 3;
+    private static final int FISH_REQUIRED = FISH_SIZE | FISH_HUNGER | FISH_STATUS | FISH_TIMER;
+
     private String source;
 
     // EFFECTS: constructs reader to read from source file
@@ -26,35 +35,158 @@ public class JsonReader {
         this.source = source;
     }
 
+    // EFFECTS: reads aquarium from source file and returns it, ignoring keys it does not know;
+    // throws IOException if cannot read file or it is not well formed JSON,
+    // IllegalAquariumException or IllegalFishException if illegal or missing parameter values are given
     public Aquarium read() throws IOException, IllegalAquariumException, IllegalFishException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        return parseAquarium(jsonObject);
+        try (Reader in = new InputStreamReader(Files.newInputStream(Paths.get(source)), StandardCharsets.UTF_8)) {
+            JsonPullParser parser = new JsonPullParser(in);
+            expect(parser, Token.BEGIN_OBJECT);
+            Aquarium aquarium = parseAquarium(parser);
+            expect(parser, Token.END_DOCUMENT);
+            return aquarium;
+        }
     }
 
-    // EFFECTS: parses aquarium from JSON object and returns it
-    // throws IllegalAquariumException or IllegalFIshAquarium if illegal parameter values are given
-    private Aquarium parseAquarium(JSONObject jsonObject) throws IllegalAquariumException, IllegalFishException {
-        int cleanness = jsonObject.getInt("cleanness");
-        Aquarium aquarium = new Aquarium(cleanness);
-        addFishList(aquarium, jsonObject);
+    // EFFECTS: returns the number under key among the members of the object in source file, reading the file only
+    // up to it, so a member written first is read at once whatever the size of the file;
+    // throws IOException if cannot read file, it is not well formed JSON or has no number under key
+    public long readLong(String key) throws IOException {
+        try (Reader in = new InputStreamReader(Files.newInputStream(Paths.get(source)), StandardCharsets.UTF_8)) {
+            JsonPullParser parser = new JsonPullParser(in);
+            expect(parser, Token.BEGIN_OBJECT);
+            while (parser.next() == Token.NAME) {
+                if (parser.isText(key)) {
+                    expect(parser, Token.NUMBER);
+                    return parser.getLong();
+                }
+                parser.skipValue();
+            }
+            throw new IOException("Missing " + key);
+        }
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: parses members of aquarium object from parser up to its end and returns the aquarium;
+    // fish listed before cleanness are added before cleanness is set, the order of keys does not matter
+    private Aquarium parseAquarium(JsonPullParser parser)
+            throws IOException, IllegalAquariumException, IllegalFishException {
+        Aquarium aquarium = new Aquarium();
+        boolean hasCleanness = false;
+        int nextFishId = 0;
+        Token token = parser.next();
+        while (token == Token.NAME) {
+            if (parser.isText("cleanness")) {
+                aquarium.setCleanness(nextInt(parser));
+                hasCleanness = true;
+            } else if (parser.isText("nextFishId")) {
+                nextFishId = nextInt(parser);
+            } else if (parser.isText("fishList")) {
+                addFishList(aquarium, parser);
+            } else {
+                parser.skipValue();
+            }
+            token = parser.next();
+        }
+        if (!hasCleanness) {
+            throw new IllegalAquariumException();
+        }
+        aquarium.reserveFishIds(nextFishId);
         return aquarium;
     }
 
-    // MODIFIES: aquarium
-    // EFFECTS: parses fishList from JSON object and adds them to aquarium
+    // MODIFIES: aquarium, parser
+    // EFFECTS: parses fishList array from parser and adds each fish to aquarium as it is read
     // throws IllegalFIshAquarium if illegal parameter values are given
-    private void addFishList(Aquarium aquarium, JSONObject jsonObject) throws IllegalFishException {
+    private void addFishList(Aquarium aquarium, JsonPullParser parser) throws IOException, IllegalFishException {
+        expect(parser, Token.BEGIN_ARRAY);
+        Token token = parser.next();
+        while (token == Token.BEGIN_OBJECT) {
+            addFish(aquarium, parser);
+            token = parser.next();
+        }
+        if (token != Token.END_ARRAY) {
+            throw new IOException("Expected fish but found " + token);
+        }
+    }
+
+    // MODIFIES: aquarium, parser
+    // EFFECTS: parses members of fish object from parser up to its end and adds the fish to aquarium,
+    // keeping its id if saved with one
+    // throws IllegalFishException if illegal or missing parameter values or an id already taken are given
+    private void addFish(Aquarium aquarium, JsonPullParser parser) throws IOException, IllegalFishException {
+        String name = null;
+        int id = -1;
+        int status = 0;
+        int hungerLevel = 0;
+        int growthTimer = 0;
+        int size = 0;
+        int found = 0;
+        while (parser.next() == Token.NAME) {
+            if (parser.isText("size")) {
+                size = nextInt(parser);
+                found |= FISH_SIZE;
+            } else if (parser.isText("hungerLevel")) {
+                hungerLevel = nextInt(parser);
+                found |= FISH_HUNGER;
+            } else if (parser.isText("status")) {
+                status = nextInt(parser);
+                found |= FISH_STATUS;
+            } else if (parser.isText("growthTimer")) {
+                growthTimer = nextInt(parser);
+                found |= FISH_TIMER;
+            } else if (parser.isText("id")) {
+                id = nextInt(parser);
+            } else if (parser.isText("name")) {
+                Token token = parser.next();
+                name = token == Token.NULL ? null : parser.getText();
+            } else {
+                parser.skipValue();
+            }
+        }
+        if (found != FISH_REQUIRED) {
+            throw new IllegalFishException();
+        }
+
+        if (id != -1) {
+            aquarium.addFish(id, size, hungerLevel, status, growthTimer, name);
+        } else {
+            aquarium.addFish(size, hungerLevel, status, growthTimer, name);
+        }
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads the next value from parser and returns it, throws IOException if it is not a number
+    private int nextInt(JsonPullParser parser) throws IOException {
+        expect(parser, Token.NUMBER);
+        return parser.getInt();
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads the next token from parser, throws IOException if it is not expected
+    private void expect(JsonPullParser parser, Token expected) throws IOException {
+        Token token = parser.next();
+        if (token != expected) {
+            throw new IOException("Expected " + expected + " but found " + token);
+        }
+    }
+
+    // EFFECTS: parses aquarium from JSON object and returns it, ignoring keys it does not know
+    // throws IllegalAquariumException or IllegalFIshAquarium if illegal parameter values are given
+    public Aquarium parseAquarium(JSONObject jsonObject) throws IllegalAquariumException, IllegalFishException {
+        int cleanness = jsonObject.getInt("cleanness");
+        Aquarium aquarium = new Aquarium(cleanness);
         JSONArray jsonArray = jsonObject.getJSONArray("fishList");
         for (Object json : jsonArray) {
-            JSONObject nextFish = (JSONObject) json;
-            addFish(aquarium, nextFish);
+            addFish(aquarium, (JSONObject) json);
         }
+        aquarium.reserveFishIds(jsonObject.optInt("nextFishId", 0));
+        return aquarium;
     }
 
     // MODIFIES: aquarium
-    // EFFECTS: parses fish from JSON object and adds it to aquarium
-    // throws IllegalAquariumException are given
+    // EFFECTS: parses fish from JSON object and adds it to aquarium, keeping its id if saved with one
+    // throws IllegalFishException if illegal parameter values or an id already taken are given
     private void addFish(Aquarium aquarium, JSONObject jsonObject) throws IllegalFishException {
         String name = jsonObject.optString("name", null);
         int status = jsonObject.getInt("status");
@@ -62,18 +194,10 @@ public class JsonReader {
         int growthTimer = jsonObject.getInt("growthTimer");
         int size = jsonObject.getInt("size");
 
-        Fish fish = new Fish(size, hungerLevel, status, growthTimer, name);
-        aquarium.addFish(fish);
-    }
-
-    // EFFECTS: reads source file as string and returns it, throws IOException if cannot read file
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
-
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(s -> contentBuilder.append(s));
+        if (jsonObject.has("id")) {
+            aquarium.addFish(jsonObject.getInt("id"), size, hungerLevel, status, growthTimer, name);
+        } else {
+            aquarium.addFish(size, hungerLevel, status, growthTimer, name);
         }
-
-        return contentBuilder.toString();
     }
 }
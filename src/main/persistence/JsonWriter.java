@@ -1,48 +1,60 @@
 package persistence;
 
-import model.Aquarium;
-import org.json.JSONObject;
-import java.io.*;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
 
 /*
 Represents a writer that writes JSON representation of Aquarium to file
- * destination represents the destination of file;
+ * destination represents the destination of file, pretty whether the file is pretty printed or compact;
+ * the aquarium is streamed straight to the file through a fixed size buffer, without building it as JSON objects
+ * or as a string first, so saving takes the same extra memory whatever the number of fish;
+ * the file is replaced atomically, as AtomicFiles does, so a crash while writing leaves the old file whole;
  * code based on JsonSerializationDemo, implementation from CPSC 210 UBC.
  */
 public class JsonWriter {
-    private static final int TAB = 4;
-    private PrintWriter writer;
+    private FileChannel channel;
     private String destination;
+    private boolean pretty;
 
-    // EFFECTS: constructs a writer to write to destination file
+    // EFFECTS: constructs a writer to write to destination file, pretty printed
     public JsonWriter(String destination) {
+        this(destination, true);
+    }
+
+    // EFFECTS: constructs a writer to write to destination file, pretty printed if pretty, else compact
+    public JsonWriter(String destination, boolean pretty) {
         this.destination = destination;
+        this.pretty = pretty;
     }
 
     // MODIFIES: this
-    // EFFECTS: opens writer; if destination file cannot be opened throws FileNotFoundException
+    // EFFECTS: opens writer on a temporary file next to destination file, emptying it; if it cannot be opened
+    // throws FileNotFoundException
     public void openWriter() throws FileNotFoundException {
-        writer = new PrintWriter(new File(destination));
+        channel = AtomicFiles.open(destination);
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void closeWriter() {
-        writer.close();
+    // EFFECTS: closes writer, forcing what was written to disk and renaming it to destination file atomically;
+    // throws IOException if file cannot be closed or renamed
+    public void closeWriter() throws IOException {
+        AtomicFiles.commit(channel, destination);
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of workroom to file
-    public void write(Aquarium aquarium) throws FileNotFoundException {
+    // EFFECTS: writes JSON representation of aquarium, or of an aquarium snapshot, to file;
+    // throws IOException if file cannot be opened or written
+    public void write(Writable aquarium) throws IOException {
         openWriter();
-        JSONObject json = aquarium.toJson();
-        saveToFile(json.toString(TAB));
+        try {
+            JsonOutput out = new JsonOutput(channel, pretty);
+            aquarium.write(out);
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            AtomicFiles.abort(channel, destination);
+            throw e;
+        }
         closeWriter();
     }
-
-    // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
-    }
 }
@@ -0,0 +1,81 @@
+package persistence;
+
+/*
+ * Represents statistics of the saves made by an autosave service up to one moment;
+ * numSaves is the number of saves that succeeded and numFailures the number that failed,
+ * lastNanos, maxNanos and totalNanos the time the last, the slowest and all successful saves took,
+ * and lastBytes and totalBytes the number of bytes the last and all successful saves wrote
+ */
+public class SaveMetrics {
+    private final long numSaves;
+    private final long numFailures;
+    private final long lastNanos;
+    private final long maxNanos;
+    private final long totalNanos;
+    private final long lastBytes;
+    private final long totalBytes;
+
+    // EFFECTS: constructs statistics with given values
+    public SaveMetrics(long numSaves, long numFailures, long lastNanos, long maxNanos, long totalNanos,
+                       long lastBytes, long totalBytes) {
+        this.numSaves = numSaves;
+        this.numFailures = numFailures;
+        this.lastNanos = lastNanos;
+        this.maxNanos = maxNanos;
+        this.totalNanos = totalNanos;
+        this.lastBytes = lastBytes;
+        this.totalBytes = totalBytes;
+    }
+
+    // EFFECTS: returns number of saves that succeeded
+    public long getNumSaves() {
+        return numSaves;
+    }
+
+    // EFFECTS: returns number of saves that failed
+    public long getNumFailures() {
+        return numFailures;
+    }
+
+    // EFFECTS: returns time the last successful save took, in nanoseconds
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    // EFFECTS: returns time the slowest successful save took, in nanoseconds
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    // EFFECTS: returns mean time a successful save took, in nanoseconds, 0 if there was none
+    public long getMeanNanos() {
+        return numSaves == 0 ? 0 : totalNanos / numSaves;
+    }
+
+    // EFFECTS: returns number of bytes the last successful save wrote
+    public long getLastBytes() {
+        return lastBytes;
+    }
+
+    // EFFECTS: returns number of bytes all successful saves wrote
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    // EFFECTS: returns statistics with a successful save that took nanos and wrote bytes added
+    public SaveMetrics withSave(long nanos, long bytes) {
+        return new SaveMetrics(numSaves + 1, numFailures, nanos, Math.max(maxNanos, nanos), totalNanos + nanos,
+                bytes, totalBytes + bytes);
+    }
+
+    // EFFECTS: returns statistics with a failed save added
+    public SaveMetrics withFailure() {
+        return new SaveMetrics(numSaves, numFailures + 1, lastNanos, maxNanos, totalNanos, lastBytes, totalBytes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d saves, %d failed, last %.1f ms and %d bytes, mean %.1f ms, max %.1f ms",
+                numSaves, numFailures, lastNanos / 1e6, lastBytes, getMeanNanos() / 1e6, maxNanos / 1e6);
+    }
+}
@@ -0,0 +1,598 @@
+package persistence;
+
+import exception.IllegalAquariumException;
+import exception.IllegalFishException;
+import model.Aquarium;
+import model.AquariumSnapshot;
+import model.Fish;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/*
+ * Represents an incremental save of an aquarium kept in directory, so that saving costs I/O in proportion to
+ * what changed since the last save rather than to the number of fish;
+ * the save is a base file in the binary save format of BinaryWriter, named BASE_PREFIX, generation and
+ * BinaryWriter.EXTENSION, and after it the append-only delta logs named DELTA_PREFIX, generation and
+ * DELTA_EXTENSION of that generation and of later ones;
+ * a delta log starts with DELTA_MAGIC, VERSION and the tick the base of its generation was taken at, then holds
+ * a segment per save: its length, then body, then a CRC32 of the body, so loading can tell a segment torn by a
+ * crash and drops it; the body is the tick, cleanness and nextFishId of the aquarium, the number of changed and
+ * of removed fish, then id, status, hungerLevel, growthTimer, size and name of each changed fish, then the ids
+ * of the removed ones; a name is its length in bytes as an int, BinaryWriter.NO_NAME if there is none, then the
+ * name in UTF-8, as in the name table of BinaryWriter; logs of version 1 hold a name as whether there is one and
+ * then the name in modified UTF-8, are still read, and are not appended to: saves after loading one go to a new
+ * generation; ticks of one save lie on one timeline, and hunger level and growth timer of alive fish,
+ * as of the tick they were written at, are aged to the tick of the last segment when loaded;
+ * once the deltas of a generation add up to more than its base, and to at least COMPACT_MIN_BYTES, saving starts
+ * a new generation and compacts on a background thread: the last snapshot saved, which is base and deltas merged,
+ * becomes the base of the new generation, is renamed into place atomically, and older generations are deleted;
+ * lastSaved is the snapshot deltas are worked out against, null if nothing has been saved or loaded yet,
+ * tickOffset puts the clock of its aquarium on the timeline, deltaBytes is the size of the deltas written since
+ * the last base and baseBytes the size of the last base
+ */
+public class SaveStore implements SnapshotSaver, Closeable {
+    public static final String BASE_PREFIX = "base-";
+    public static final String DELTA_PREFIX = "delta-";
+    public static final String DELTA_EXTENSION = ".log";
+    public static final int DELTA_MAGIC = 0x31445141;
+    public static final int VERSION = 2;
+    public static final long COMPACT_MIN_BYTES = 1 << 20;
+    private static final int DELTA_HEADER_BYTES = 16;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final FishState REMOVED = new FishState(0, 0, 0, 0, 0, null, 0);
+
+    private final Path directory;
+    private final ExecutorService compactor;
+    private final CRC32 checksum;
+    private FileChannel channel;
+    private int generation;
+    private AquariumSnapshot lastSaved;
+    private long tickOffset;
+    private long deltaBytes;
+    private volatile long baseBytes;
+    private Future<?> compaction;
+
+    // EFFECTS: constructs a save kept in directory; nothing is read or written until it is loaded or saved to
+    public SaveStore(String directory) {
+        this.directory = Paths.get(directory);
+        checksum = new CRC32();
+        compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "save-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // EFFECTS: returns generation deltas are appended to
+    public synchronized int getGeneration() {
+        return generation;
+    }
+
+    // EFFECTS: returns true if directory holds a save, else false
+    public boolean hasSave() throws IOException {
+        return Files.isDirectory(directory) && !generations(BASE_PREFIX, BinaryWriter.EXTENSION).isEmpty();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the aquarium held by the save, its newest base with every intact delta after it merged in;
+    // a torn segment at the end of the last delta log is cut off, and later saves are deltas against the aquarium
+    // returned; throws FileNotFoundException if there is no save, IOException if it cannot be read or a delta log
+    // other than the last is corrupted, IllegalAquariumException or IllegalFishException if it holds an illegal
+    // aquarium
+    public synchronized Aquarium load() throws IOException, IllegalAquariumException, IllegalFishException {
+        awaitCompaction();
+        closeChannel();
+        List<Integer> bases = hasSave() ? generations(BASE_PREFIX, BinaryWriter.EXTENSION) : null;
+        if (bases == null || bases.isEmpty()) {
+            throw new FileNotFoundException("No save in " + directory);
+        }
+        int baseGeneration = bases.get(bases.size() - 1);
+        deleteOlder(baseGeneration);
+
+        Deltas deltas = new Deltas();
+        List<Integer> logs = new ArrayList<>();
+        for (int g : generations(DELTA_PREFIX, DELTA_EXTENSION)) {
+            if (g >= baseGeneration) {
+                logs.add(g);
+            }
+        }
+        for (int k = 0; k < logs.size(); k++) {
+            if (logs.get(k) != baseGeneration + k) {
+                throw new IOException("Save is missing the delta log of generation " + (baseGeneration + k));
+            }
+            readDeltas(logs.get(k), k == 0, deltas);
+            if (k < logs.size() - 1 && deltas.intactBytes < deltas.fileBytes) {
+                throw new IOException("Delta log of generation " + logs.get(k) + " is corrupted");
+            }
+        }
+
+        Path base = baseFile(baseGeneration);
+        Aquarium aquarium = merge(base, deltas);
+        lastSaved = aquarium.snapshot();
+        tickOffset = deltas.tick - lastSaved.getClock();
+        generation = logs.isEmpty() ? baseGeneration : logs.get(logs.size() - 1);
+        deltaBytes = deltas.bytes;
+        baseBytes = Files.size(base);
+        if (logs.isEmpty() || deltas.intactBytes < DELTA_HEADER_BYTES) {
+            // a log torn before its header was written has no segments, its base was taken at the last tick
+            openDelta(deltas.tick);
+        } else if (deltas.version < VERSION) {
+            // segments of another version cannot follow the ones in the log, they start the log of a new
+            // generation, the base of which loading finds merged from the older one until the next compaction
+            generation++;
+            openDelta(deltas.tick);
+        } else {
+            channel = FileChannel.open(deltaFile(generation), StandardOpenOption.WRITE);
+            channel.truncate(deltas.intactBytes);
+            channel.position(deltas.intactBytes);
+        }
+        return aquarium;
+    }
+
+    // MODIFIES: deltas
+    // EFFECTS: reads every intact segment of the delta log of generation g into deltas, and the tick of the base
+    // of the generation if base
+    private void readDeltas(int g, boolean base, Deltas deltas) throws IOException {
+        Path file = deltaFile(g);
+        deltas.fileBytes = Files.size(file);
+        deltas.intactBytes = 0;
+        if (deltas.fileBytes < DELTA_HEADER_BYTES) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file),
+                BUFFER_BYTES))) {
+            if (in.readInt() != DELTA_MAGIC) {
+                throw new IOException("Not an aquarium delta log");
+            }
+            int version = in.readInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported delta log version " + version);
+            }
+            long baseTick = in.readLong();
+            if (base) {
+                deltas.baseTick = baseTick;
+                deltas.tick = baseTick;
+            }
+            deltas.version = version;
+            deltas.intactBytes = DELTA_HEADER_BYTES;
+            byte[] body = new byte[0];
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                    if (length <= 0 || length > deltas.fileBytes - deltas.intactBytes) {
+                        return;
+                    }
+                    if (body.length < length) {
+                        body = new byte[length];
+                    }
+                    in.readFully(body, 0, length);
+                    checksum.reset();
+                    checksum.update(body, 0, length);
+                    if (in.readInt() != (int) checksum.getValue()) {
+                        return;
+                    }
+                } catch (EOFException e) {
+                    return;
+                }
+                deltas.read(new DataInputStream(new ByteArrayInputStream(body, 0, length)));
+                deltas.intactBytes += Integer.BYTES + length + Integer.BYTES;
+                deltas.bytes += Integer.BYTES + length + Integer.BYTES;
+            }
+        }
+    }
+
+    // EFFECTS: returns the aquarium of the base file with deltas merged in: fish keep their order in the base,
+    // fish the deltas changed take their last state, removed fish are left out, and fish the base does not have
+    // come after it in the order the deltas first have them
+    private static Aquarium merge(Path base, Deltas deltas)
+            throws IOException, IllegalAquariumException, IllegalFishException {
+        Aquarium[] aquarium = new Aquarium[1];
+        new BinaryReader(base.toString()).read(new BinaryReader.Handler() {
+            @Override
+            public void begin(int cleanness, int nextFishId, int numFish) throws IllegalAquariumException {
+                aquarium[0] = new Aquarium(deltas.numSegments > 0 ? deltas.cleanness : cleanness);
+                aquarium[0].ensureFishCapacity(numFish + deltas.fish.size());
+                aquarium[0].reserveFishIds(Math.max(nextFishId, deltas.nextFishId));
+            }
+
+            @Override
+            public void fish(int id, int status, int hungerLevel, int growthTimer, int size, String name)
+                    throws IllegalFishException {
+                FishState changed = deltas.fish.isEmpty() ? null : deltas.fish.remove(id);
+                if (changed == null) {
+                    changed = new FishState(id, status, hungerLevel, growthTimer, size, name, deltas.baseTick);
+                }
+                if (changed != REMOVED) {
+                    changed.addTo(aquarium[0], deltas.tick);
+                }
+            }
+        });
+        for (FishState added : deltas.fish.values()) {
+            if (added != REMOVED) {
+                added.addTo(aquarium[0], deltas.tick);
+            }
+        }
+        return aquarium[0];
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: saves aquarium in snapshot and returns number of bytes written: a delta of the fish changed since
+    // the last snapshot saved or loaded, appended and forced to disk, or a whole base if there is none or it is of
+    // another aquarium; starts a compaction once the deltas written since the last base outgrow it;
+    // throws IOException if the save cannot be written
+    public synchronized long save(AquariumSnapshot snapshot) throws IOException {
+        if (lastSaved == null || !snapshot.isOfSameAquarium(lastSaved) || snapshot.getClock() < lastSaved.getClock()) {
+            return rebase(snapshot);
+        }
+        IntList changed = new IntList();
+        IntList removed = new IntList();
+        snapshot.forEachChangeSince(lastSaved, changed::add, removed::add);
+        if (changed.size == 0 && removed.size == 0 && snapshot.getClock() == lastSaved.getClock()
+                && snapshot.getCleanness() == lastSaved.getCleanness()
+                && snapshot.getNextFishId() == lastSaved.getNextFishId()) {
+            lastSaved = snapshot;
+            return 0;
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(32 + changed.size * 32 + removed.size * 4);
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeLong(snapshot.getClock() + tickOffset);
+        out.writeInt(snapshot.getCleanness());
+        out.writeInt(snapshot.getNextFishId());
+        out.writeInt(changed.size);
+        out.writeInt(removed.size);
+        for (int k = 0; k < changed.size; k++) {
+            int i = changed.values[k];
+            out.writeInt(snapshot.getId(i));
+            out.writeInt(snapshot.getStatus(i));
+            out.writeInt(snapshot.getHungerLevel(i));
+            out.writeInt(snapshot.getGrowthTimer(i));
+            out.writeInt(snapshot.getSize(i));
+            String name = snapshot.getName(i);
+            if (name == null) {
+                out.writeInt(BinaryWriter.NO_NAME);
+            } else {
+                byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(nameBytes.length);
+                out.write(nameBytes);
+            }
+        }
+        for (int k = 0; k < removed.size; k++) {
+            out.writeInt(removed.values[k]);
+        }
+        out.flush();
+
+        byte[] bytes = body.toByteArray();
+        checksum.reset();
+        checksum.update(bytes);
+        ByteBuffer segment = ByteBuffer.allocate(Integer.BYTES + bytes.length + Integer.BYTES);
+        segment.putInt(bytes.length).put(bytes).putInt((int) checksum.getValue()).flip();
+        int written = segment.remaining();
+        while (segment.hasRemaining()) {
+            channel.write(segment);
+        }
+        channel.force(false);
+        lastSaved = snapshot;
+        deltaBytes += written;
+        if (deltaBytes > Math.max(COMPACT_MIN_BYTES, baseBytes) && (compaction == null || compaction.isDone())) {
+            compact();
+        }
+        return written;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes aquarium in snapshot as the base of a new generation, deletes older generations, and
+    // returns number of bytes written
+    private long rebase(AquariumSnapshot snapshot) throws IOException {
+        awaitCompaction();
+        closeChannel();
+        Files.createDirectories(directory);
+        int newest = generation;
+        for (int g : generations(BASE_PREFIX, BinaryWriter.EXTENSION)) {
+            newest = Math.max(newest, g);
+        }
+        for (int g : generations(DELTA_PREFIX, DELTA_EXTENSION)) {
+            newest = Math.max(newest, g);
+        }
+        generation = newest + 1;
+        tickOffset = 0;
+        writeBase(snapshot, generation);
+        openDelta(snapshot.getClock());
+        deleteOlder(generation);
+        lastSaved = snapshot;
+        deltaBytes = 0;
+        return baseBytes + DELTA_HEADER_BYTES;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new generation, deltas of which are appended from now on, and writes the last snapshot
+    // saved as its base on a background thread, then deletes older generations; returns the compaction, done at
+    // once if there is nothing saved yet; until the new base is in place, loading uses the old base, and a
+    // compaction that fails leaves it in use
+    public synchronized Future<?> compact() throws IOException {
+        if (lastSaved == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (compaction != null && !compaction.isDone()) {
+            return compaction;
+        }
+        AquariumSnapshot merged = lastSaved;
+        int newGeneration = generation + 1;
+        closeChannel();
+        generation = newGeneration;
+        openDelta(merged.getClock() + tickOffset);
+        deltaBytes = 0;
+        compaction = compactor.submit(() -> {
+            writeBase(merged, newGeneration);
+            deleteOlder(newGeneration);
+            return null;
+        });
+        return compaction;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes aquarium in snapshot as the base file of generation g, replacing it atomically
+    private void writeBase(AquariumSnapshot snapshot, int g) throws IOException {
+        Path base = baseFile(g);
+        new BinaryWriter(base.toString()).write(snapshot);
+        baseBytes = Files.size(base);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates the delta log of the current generation, starting with the tick its base was taken at, and
+    // forces it and its directory entry to disk
+    private void openDelta(long baseTick) throws IOException {
+        channel = FileChannel.open(deltaFile(generation), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(DELTA_HEADER_BYTES);
+        header.putInt(DELTA_MAGIC).putInt(VERSION).putLong(baseTick).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        AtomicFiles.forceDirectory(directory);
+    }
+
+    // EFFECTS: deletes the files of every generation before g, and temporary files left by a crash
+    private void deleteOlder(int g) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int fileGeneration = generation(name, BASE_PREFIX, BinaryWriter.EXTENSION);
+                if (fileGeneration < 0) {
+                    fileGeneration = generation(name, DELTA_PREFIX, DELTA_EXTENSION);
+                }
+                if (fileGeneration < 0) {
+                    String tempExtension = BinaryWriter.EXTENSION + AtomicFiles.TEMP_EXTENSION;
+                    fileGeneration = generation(name, BASE_PREFIX, tempExtension);
+                }
+                if (fileGeneration >= 0 && fileGeneration < g) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns in increasing order the generations of the files in directory named prefix, generation
+    // and extension
+    private List<Integer> generations(String prefix, String extension) throws IOException {
+        List<Integer> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                int g = generation(file.getFileName().toString(), prefix, extension);
+                if (g >= 0) {
+                    generations.add(g);
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    // EFFECTS: returns generation of file named name if it is prefix, generation and extension, else -1
+    private static int generation(String name, String prefix, String extension) {
+        if (!name.startsWith(prefix) || !name.endsWith(extension)
+                || name.length() == prefix.length() + extension.length()) {
+            return -1;
+        }
+        String digits = name.substring(prefix.length(), name.length() - extension.length());
+        for (int k = 0; k < digits.length(); k++) {
+            if (!Character.isDigit(digits.charAt(k))) {
+                return -1;
+            }
+        }
+        try {
+            return Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // EFFECTS: returns path of base file of generation g
+    private Path baseFile(int g) {
+        return directory.resolve(BASE_PREFIX + g + BinaryWriter.EXTENSION);
+    }
+
+    // EFFECTS: returns path of delta log of generation g
+    private Path deltaFile(int g) {
+        return directory.resolve(DELTA_PREFIX + g + DELTA_EXTENSION);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for a running compaction to end; one that failed leaves the save as it was, so its failure
+    // is not reported here but through the future compact returned
+    private void awaitCompaction() {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (ExecutionException e) {
+            // the old base and its deltas are still in place
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compaction = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the delta log being appended to, if any
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: waits for a running compaction to end and closes the save
+    public synchronized void close() throws IOException {
+        awaitCompaction();
+        closeChannel();
+        compactor.shutdown();
+    }
+
+    /*
+     * Represents the deltas read from delta logs so far, merged: fish maps the id of every fish changed to its
+     * last state, REMOVED if it was removed after that, in the order they were first changed; baseTick is the tick
+     * the base was taken at, and tick, cleanness and nextFishId are those of the last segment, or tick baseTick
+     * if there is none;
+     * bytes is the size of all intact segments, and version, fileBytes and intactBytes the version of the last
+     * delta log read, its size and the size of its intact part, header included
+     */
+    private static class Deltas {
+        private final Map<Integer, FishState> fish = new LinkedHashMap<>();
+        private long baseTick;
+        private long tick;
+        private int cleanness;
+        private int nextFishId;
+        private int version;
+        private int numSegments;
+        private long bytes;
+        private long fileBytes;
+        private long intactBytes;
+
+        // MODIFIES: this
+        // EFFECTS: merges in the segment body in holds
+        private void read(DataInputStream in) throws IOException {
+            tick = in.readLong();
+            cleanness = in.readInt();
+            nextFishId = Math.max(nextFishId, in.readInt());
+            int numChanged = in.readInt();
+            int numRemoved = in.readInt();
+            for (int k = 0; k < numChanged; k++) {
+                int id = in.readInt();
+                int status = in.readInt();
+                int hungerLevel = in.readInt();
+                int growthTimer = in.readInt();
+                int size = in.readInt();
+                String name = version == 1 ? readLegacyName(in) : readName(in);
+                fish.put(id, new FishState(id, status, hungerLevel, growthTimer, size, name, tick));
+            }
+            for (int k = 0; k < numRemoved; k++) {
+                fish.put(in.readInt(), REMOVED);
+            }
+            numSegments++;
+        }
+
+        // EFFECTS: reads a name from in, its length in bytes, BinaryWriter.NO_NAME if there is none, then the name
+        // in UTF-8; throws IOException if the length does not fit in the segment
+        private static String readName(DataInputStream in) throws IOException {
+            int length = in.readInt();
+            if (length == BinaryWriter.NO_NAME) {
+                return null;
+            }
+            if (length < 0 || length > in.available()) {
+                throw new IOException("Illegal name length " + length);
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // EFFECTS: reads a name from in as logs of version 1 hold it: whether there is one, then the name in
+        // modified UTF-8
+        private static String readLegacyName(DataInputStream in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+    }
+
+    /*
+     * Represents the state of a fish as written at tick
+     */
+    private static class FishState {
+        private final int id;
+        private final int status;
+        private final int hungerLevel;
+        private final int growthTimer;
+        private final int size;
+        private final String name;
+        private final long tick;
+
+        // EFFECTS: constructs state holding given values
+        private FishState(int id, int status, int hungerLevel, int growthTimer, int size, String name, long tick) {
+            this.id = id;
+            this.status = status;
+            this.hungerLevel = hungerLevel;
+            this.growthTimer = growthTimer;
+            this.size = size;
+            this.name = name;
+            this.tick = tick;
+        }
+
+        // MODIFIES: aquarium
+        // EFFECTS: adds this fish to aquarium, aged to tick now if it is alive
+        private void addTo(Aquarium aquarium, long now) throws IllegalFishException {
+            int elapsed = status == Fish.ALIVE ? (int) (now - tick) : 0;
+            aquarium.addFish(id, size, hungerLevel + elapsed, status, growthTimer - elapsed, name);
+        }
+    }
+
+    /*
+     * Represents a growable list of ints, the first size of values
+     */
+    private static class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        // MODIFIES: this
+        // EFFECTS: appends value
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
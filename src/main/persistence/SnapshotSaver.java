@@ -0,0 +1,14 @@
+package persistence;
+
+import model.AquariumSnapshot;
+
+import java.io.IOException;
+
+/*
+ * Represents a place aquarium snapshots are saved to
+ */
+public interface SnapshotSaver {
+    // EFFECTS: saves aquarium in snapshot and returns number of bytes written;
+    // throws IOException if it cannot be saved
+    long save(AquariumSnapshot snapshot) throws IOException;
+}
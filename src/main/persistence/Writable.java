@@ -2,8 +2,14 @@ package persistence;
 
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 // Represents Interface; meant for turning object into Json object
 public interface Writable {
     // EFFECTS: returns this as JSON object
     JSONObject toJson();
+
+    // MODIFIES: out
+    // EFFECTS: writes this to out as the same JSON toJson returns, without building the JSON object
+    void write(JsonOutput out) throws IOException;
 }
\ No newline at end of file
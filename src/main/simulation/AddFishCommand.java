@@ -0,0 +1,33 @@
+package simulation;
+
+import exception.IllegalFishException;
+import model.Aquarium;
+
+import static model.Fish.*;
+
+/*
+ * Represents adding a new fish with default values to an aquarium, with name, or unnamed if name is null
+ */
+public class AddFishCommand implements AquariumCommand {
+    private final String name;
+
+    // EFFECTS: constructs command adding an unnamed fish
+    public AddFishCommand() {
+        this(null);
+    }
+
+    // EFFECTS: constructs command adding a fish named name
+    public AddFishCommand(String name) {
+        this.name = name;
+    }
+
+    // EFFECTS: returns name of fish to add, null if unnamed
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void apply(Aquarium aquarium) throws IllegalFishException {
+        aquarium.addFish(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, name);
+    }
+}
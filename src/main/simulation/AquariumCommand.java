@@ -0,0 +1,22 @@
+package simulation;
+
+import exception.IllegalFishException;
+import model.Aquarium;
+
+/*
+ * Represents a change to an aquarium, queued by any thread and applied by the one thread that owns the aquarium;
+ * a command that can be applied together with the command queued right after it merges with it into one
+ */
+@FunctionalInterface
+public interface AquariumCommand {
+
+    // MODIFIES: aquarium
+    // EFFECTS: applies command to aquarium, throws IllegalFishException if it would add an illegal fish
+    void apply(Aquarium aquarium) throws IllegalFishException;
+
+    // EFFECTS: returns one command with the effect of applying this and then next,
+    // or null if they cannot be merged
+    default AquariumCommand mergeWith(AquariumCommand next) {
+        return null;
+    }
+}
@@ -0,0 +1,361 @@
+package simulation;
+
+import exception.IllegalAquariumException;
+import exception.IllegalFishException;
+import model.Aquarium;
+import org.json.JSONObject;
+import persistence.JsonOutput;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+import persistence.Writable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/*
+ * Represents an event-sourced journal of an aquarium kept in directory;
+ * LOG_FILE is an append-only binary log of the durable commands applied to the aquarium (adding a fish,
+ * feeding all fish or one fish, cleaning, renaming, passing time), and SNAPSHOT_FILE the last full snapshot
+ * of the aquarium as JSON, with the sequence number of the last record it includes as its first member;
+ * the snapshot is streamed to and from its file, never built as JSON objects or as a string, so snapshotting
+ * and recovering take the same extra memory whatever the number of fish;
+ * each record is its length, then sequence number, type and payload, then a CRC32 of those, so recovery can
+ * tell a record torn by a crash and drops it and everything after it; a record that is intact but cannot be
+ * read, such as one of a type this version does not know, is dropped the same way, with everything after it;
+ * names are written as their length in bytes and the name in UTF-8, so a name of any length can be journaled;
+ * records of the LEGACY types, written by earlier versions with names limited to 64K, are still replayed;
+ * appends go to a buffer, and commit writes the buffer out and forces it to disk once for all the records
+ * appended since the last commit (group commit); once snapshotEvery records have been appended since the last
+ * snapshot, commit also writes a new snapshot, which replaces the old one atomically through JsonWriter, and
+ * only once it and its directory are on disk empties the log;
+ * recovering loads the snapshot and replays the records after it;
+ * other commands are not durable and are not logged, such as pellet drops, whose pellets are logged as
+ * feeding the fish that eats them; actions run through SimulationLoop.invokeLater, such as turning schooling on
+ * or off, are excluded too: they change how fish swim, which no save holds either, so after recovery schooling
+ * is off, as after loading; replacing the aquarium through setAquarium is journaled as a new snapshot;
+ * sequence is the sequence number of the last record appended, and numSinceSnapshot the number of records
+ * appended since the last snapshot
+ */
+public class AquariumLog implements Closeable {
+    public static final int DEFAULT_SNAPSHOT_EVERY = 10000;
+    public static final String LOG_FILE = "events.log";
+    public static final String SNAPSHOT_FILE = "snapshot.json";
+    private static final String SEQUENCE = "logSequence";
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int NO_NAME = -1;
+    private static final byte LEGACY_ADD_FISH = 1;
+    private static final byte FEED_ALL = 2;
+    private static final byte FEED_FISH = 3;
+    private static final byte CLEAN = 4;
+    private static final byte LEGACY_RENAME = 5;
+    private static final byte PASS_TIME = 6;
+    private static final byte ADD_FISH = 7;
+    private static final byte RENAME = 8;
+
+    private final Path directory;
+    private final int snapshotEvery;
+    private final ByteArrayOutputStream record;
+    private final DataOutputStream recordOut;
+    private final CRC32 checksum;
+    private FileChannel channel;
+    private DataOutputStream out;
+    private long sequence;
+    private int numSinceSnapshot;
+    private boolean uncommitted;
+
+    // EFFECTS: constructs a journal kept in directory, snapshotting every DEFAULT_SNAPSHOT_EVERY records
+    public AquariumLog(String directory) {
+        this(directory, DEFAULT_SNAPSHOT_EVERY);
+    }
+
+    // REQUIRES: snapshotEvery >= 1
+    // EFFECTS: constructs a journal kept in directory, snapshotting every snapshotEvery records;
+    // nothing is read or written until recover is called
+    public AquariumLog(String directory, int snapshotEvery) {
+        this.directory = Paths.get(directory);
+        this.snapshotEvery = snapshotEvery;
+        record = new ByteArrayOutputStream();
+        recordOut = new DataOutputStream(record);
+        checksum = new CRC32();
+    }
+
+    // EFFECTS: returns sequence number of the last record appended
+    public long getSequence() {
+        return sequence;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal, creating directory if needed, and returns the aquarium it holds: the snapshot,
+    // or a new aquarium if there is none, with every intact record after the snapshot replayed on it;
+    // a torn or unreadable record is cut off with everything after it, and further records are appended after
+    // the last record replayed;
+    // throws IOException if the journal cannot be read or opened, IllegalAquariumException or
+    // IllegalFishException if it holds an illegal aquarium
+    public Aquarium recover() throws IOException, IllegalAquariumException, IllegalFishException {
+        Files.createDirectories(directory);
+        Aquarium aquarium = new Aquarium();
+        long snapshotSequence = 0;
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            JsonReader reader = new JsonReader(snapshot.toString());
+            aquarium = reader.read();
+            snapshotSequence = reader.readLong(SEQUENCE);
+        }
+        sequence = snapshotSequence;
+
+        channel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long intactBytes = replay(aquarium, snapshotSequence);
+        channel.truncate(intactBytes);
+        channel.position(intactBytes);
+        out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES));
+        return aquarium;
+    }
+
+    // MODIFIES: this, aquarium
+    // EFFECTS: applies every intact record of the log after snapshotSequence to aquarium, in order, up to the
+    // first torn or unreadable one, and returns the number of bytes of the log up to the end of the last record
+    // replayed
+    private long replay(Aquarium aquarium, long snapshotSequence) throws IOException, IllegalFishException {
+        long intactBytes = 0;
+        InputStream stream = new BufferedInputStream(Channels.newInputStream(channel.position(0)), BUFFER_BYTES);
+        DataInputStream in = new DataInputStream(stream);
+        byte[] body = new byte[0];
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+                if (length <= 0 || length > channel.size() - intactBytes - 2 * Integer.BYTES) {
+                    return intactBytes;
+                }
+                if (body.length < length) {
+                    body = new byte[length];
+                }
+                in.readFully(body, 0, length);
+                checksum.reset();
+                checksum.update(body, 0, length);
+                if (in.readInt() != (int) checksum.getValue()) {
+                    return intactBytes;
+                }
+            } catch (EOFException e) {
+                return intactBytes;
+            }
+
+            DataInputStream recordIn = new DataInputStream(new ByteArrayInputStream(body, 0, length));
+            long recordSequence;
+            AquariumCommand command;
+            try {
+                recordSequence = recordIn.readLong();
+                command = decode(recordIn);
+            } catch (IOException e) {
+                return intactBytes;
+            }
+            if (command == null) {
+                return intactBytes;
+            }
+            intactBytes += Integer.BYTES + length + Integer.BYTES;
+            sequence = Math.max(sequence, recordSequence);
+            if (recordSequence > snapshotSequence) {
+                command.apply(aquarium);
+                numSinceSnapshot++;
+            }
+        }
+    }
+
+    // EFFECTS: reads the type and payload of a record from in and returns the command it holds, null if the type
+    // is unknown; throws IOException if the payload is cut short
+    private static AquariumCommand decode(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case LEGACY_ADD_FISH:
+                return new AddFishCommand(readLegacyName(in));
+            case ADD_FISH:
+                return new AddFishCommand(readName(in));
+            case FEED_ALL:
+                return new FeedCommand();
+            case FEED_FISH:
+                return new FeedFishCommand(in.readInt());
+            case CLEAN:
+                return new CleanCommand();
+            case LEGACY_RENAME:
+                int legacyId = in.readInt();
+                return new RenameCommand(legacyId, readLegacyName(in));
+            case RENAME:
+                int id = in.readInt();
+                return new RenameCommand(id, readName(in));
+            case PASS_TIME:
+                return new PassTimeCommand(in.readLong());
+            default:
+                return null;
+        }
+    }
+
+    // REQUIRES: journal has been recovered
+    // MODIFIES: this
+    // EFFECTS: appends command to the buffer if it is durable, with the next sequence number;
+    // it reaches disk at the next commit
+    public void append(AquariumCommand command) throws IOException {
+        record.reset();
+        recordOut.writeLong(sequence + 1);
+        if (!encode(command)) {
+            return;
+        }
+        recordOut.flush();
+        checksum.reset();
+        checksum.update(record.toByteArray());
+        out.writeInt(record.size());
+        record.writeTo(out);
+        out.writeInt((int) checksum.getValue());
+        sequence++;
+        numSinceSnapshot++;
+        uncommitted = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes type and payload of command to the record, returns false if command is not durable
+    private boolean encode(AquariumCommand command) throws IOException {
+        if (command instanceof AddFishCommand) {
+            recordOut.writeByte(ADD_FISH);
+            writeName(((AddFishCommand) command).getName());
+        } else if (command instanceof FeedCommand && ((FeedCommand) command).getNumPellets() == 0) {
+            recordOut.writeByte(FEED_ALL);
+        } else if (command instanceof FeedFishCommand) {
+            recordOut.writeByte(FEED_FISH);
+            recordOut.writeInt(((FeedFishCommand) command).getId());
+        } else if (command instanceof CleanCommand) {
+            recordOut.writeByte(CLEAN);
+        } else if (command instanceof RenameCommand) {
+            recordOut.writeByte(RENAME);
+            recordOut.writeInt(((RenameCommand) command).getId());
+            writeName(((RenameCommand) command).getName());
+        } else if (command instanceof PassTimeCommand) {
+            recordOut.writeByte(PASS_TIME);
+            recordOut.writeLong(((PassTimeCommand) command).getTicks());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes name, which may be null, to the record: NO_NAME if it is null, else its length in bytes
+    // and the name in UTF-8, so names of any length can be written
+    private void writeName(String name) throws IOException {
+        if (name == null) {
+            recordOut.writeInt(NO_NAME);
+        } else {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            recordOut.writeInt(bytes.length);
+            recordOut.write(bytes);
+        }
+    }
+
+    // EFFECTS: reads a name written by writeName from in; throws IOException if it is cut short
+    private static String readName(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NO_NAME) {
+            return null;
+        }
+        if (length < 0 || length > in.available()) {
+            throw new EOFException();
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: reads a name from in as records of LEGACY_ADD_FISH and LEGACY_RENAME hold it, written by earlier
+    // versions: whether there is one, then the name in modified UTF-8, at most 65535 bytes long
+    private static String readLegacyName(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // REQUIRES: journal has been recovered, aquarium is the aquarium every appended record was applied to
+    // MODIFIES: this
+    // EFFECTS: writes out the records appended since the last commit and forces them to disk, then snapshots
+    // aquarium if snapshotEvery records have been appended since the last snapshot
+    public void commit(Aquarium aquarium) throws IOException {
+        if (uncommitted) {
+            out.flush();
+            channel.force(false);
+            uncommitted = false;
+        }
+        if (numSinceSnapshot >= snapshotEvery) {
+            snapshot(aquarium);
+        }
+    }
+
+    // REQUIRES: journal has been recovered, aquarium is the aquarium every appended record was applied to,
+    // or one that replaces it
+    // MODIFIES: this
+    // EFFECTS: writes aquarium as the new snapshot, replacing the old one atomically and forcing it and its
+    // directory to disk, then empties the log
+    public void snapshot(Aquarium aquarium) throws IOException {
+        out.flush();
+        String snapshot = directory.resolve(SNAPSHOT_FILE).toString();
+        new JsonWriter(snapshot, false).write(new LoggedAquarium(aquarium, sequence));
+        // the new snapshot, and its name in directory, are on disk: every record in the log is now in it,
+        // and a crash before this point replays none of them
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        numSinceSnapshot = 0;
+        uncommitted = false;
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: writes out and forces appended records, and closes the log; does nothing if not recovered
+    public void close() throws IOException {
+        if (channel != null) {
+            out.flush();
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /*
+     * Represents an aquarium as it is snapshotted: its members, with the sequence number of the last record
+     * applied to it under SEQUENCE
+     */
+    private static class LoggedAquarium implements Writable {
+        private final Aquarium aquarium;
+        private final long sequence;
+
+        // EFFECTS: constructs aquarium to snapshot, with sequence number of the last record applied to it
+        LoggedAquarium(Aquarium aquarium, long sequence) {
+            this.aquarium = aquarium;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public JSONObject toJson() {
+            return aquarium.toJson().put(SEQUENCE, sequence);
+        }
+
+        @Override
+        public void write(JsonOutput out) throws IOException {
+            out.beginObject();
+            out.name(SEQUENCE).value(sequence);
+            aquarium.writeMembers(out);
+            out.endObject();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package simulation;
+
+/*
+ * Represents the throughput report of a batch run; ticks is the number of ticks run, fishUpdates the number of
+ * fish aged and moved over all ticks, totalNanos the time all ticks took, feeding included, feedNanos the time
+ * spent feeding all fish, and tickNanos the time each tick took to age and move fish, feeding left out so the
+ * latency percentiles do not jump on feeding ticks, sorted from fastest to slowest
+ */
+public class BatchReport {
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final int ticks;
+    private final long fishUpdates;
+    private final long totalNanos;
+    private final long feedNanos;
+    private final long[] tickNanos;
+
+    // REQUIRES: tickNanos is sorted and not changed after construction
+    // EFFECTS: constructs report holding given values
+    BatchReport(int ticks, long fishUpdates, long totalNanos, long feedNanos, long[] tickNanos) {
+        this.ticks = ticks;
+        this.fishUpdates = fishUpdates;
+        this.totalNanos = totalNanos;
+        this.feedNanos = feedNanos;
+        this.tickNanos = tickNanos;
+    }
+
+    // EFFECTS: returns number of ticks run
+    public int getTicks() {
+        return ticks;
+    }
+
+    // EFFECTS: returns number of fish updated over all ticks
+    public long getFishUpdates() {
+        return fishUpdates;
+    }
+
+    // EFFECTS: returns time all ticks took, feeding included, in nanoseconds
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    // EFFECTS: returns time spent feeding all fish, in nanoseconds
+    public long getFeedNanos() {
+        return feedNanos;
+    }
+
+    // EFFECTS: returns ticks run per second
+    public double getTicksPerSecond() {
+        return totalNanos == 0 ? 0 : ticks * NANOS_PER_SECOND / totalNanos;
+    }
+
+    // EFFECTS: returns fish updated per second
+    public double getFishUpdatesPerSecond() {
+        return totalNanos == 0 ? 0 : fishUpdates * NANOS_PER_SECOND / totalNanos;
+    }
+
+    // REQUIRES: 0 < percentile <= 100
+    // EFFECTS: returns the time within which percentile percent of ticks aged and moved fish, in nanoseconds
+    // (nearest rank), 0 if no ticks were run
+    public long getPercentileNanos(double percentile) {
+        if (tickNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * tickNanos.length);
+        return tickNanos[Math.max(rank, 1) - 1];
+    }
+
+    @Override
+    // EFFECTS: Prints ticks, throughput, feeding time and tick latency percentiles in milliseconds
+    public String toString() {
+        return String.format("ticks=%d fishUpdates=%d seconds=%.3f ticks/s=%.1f fishUpdates/s=%.0f"
+                        + " feedSeconds=%.3f p50=%.3fms p99=%.3fms",
+                ticks, fishUpdates, totalNanos / NANOS_PER_SECOND, getTicksPerSecond(), getFishUpdatesPerSecond(),
+                feedNanos / NANOS_PER_SECOND, getPercentileNanos(50) / 1e6, getPercentileNanos(99) / 1e6);
+    }
+}
@@ -0,0 +1,237 @@
+package simulation;
+
+import exception.IllegalAquariumException;
+import exception.IllegalFishException;
+import model.Aquarium;
+import persistence.BinaryReader;
+import persistence.BinaryWriter;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static model.Fish.*;
+
+/*
+ * Represents a headless batch run of one aquarium, for measuring throughput without a display;
+ * the aquarium is read from source, or if source is null generated with numFish random fish from seed;
+ * every tick passes time once and moves every fish once, and every feedEvery ticks (never if 0) all fish are fed
+ * first so the population does not simply starve; time passes and fish move on threads worker threads;
+ * after ticks ticks the aquarium is written to destination, unless it is null;
+ * source and destination are in the binary save format if their names end in BinaryWriter.EXTENSION, else JSON
+ */
+public class BatchRunner {
+    public static final int DEFAULT_NUM_FISH = 100000;
+    public static final int DEFAULT_TICKS = 1000;
+    public static final int DEFAULT_FEED_EVERY = 3;
+    private static final String USAGE = "usage: BatchRunner [--load file | --fish n] [--ticks n] [--threads n]"
+            + " [--feed-every n] [--seed n] [--out file]";
+
+    private String source;
+    private int numFish = DEFAULT_NUM_FISH;
+    private int ticks = DEFAULT_TICKS;
+    private int threads = 1;
+    private int feedEvery = DEFAULT_FEED_EVERY;
+    private long seed;
+    private String destination;
+
+    // EFFECTS: runs a batch with the options in args and prints its report, or prints usage if args are not valid
+    public static void main(String[] args) {
+        BatchRunner runner;
+        try {
+            runner = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+        try {
+            System.out.println(runner.run());
+        } catch (IOException e) {
+            System.out.println("Unable to read or write aquarium: " + e.getMessage());
+        } catch (IllegalAquariumException | IllegalFishException e) {
+            System.out.println("Corrupted aquarium save file");
+        }
+    }
+
+    // EFFECTS: returns a runner with the options in args,
+    // throws IllegalArgumentException if an option is unknown, has no value or has a value out of range
+    public static BatchRunner parse(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        for (int k = 0; k < args.length; k += 2) {
+            if (k + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[k]);
+            }
+            String value = args[k + 1];
+            switch (args[k]) {
+                case "--load":
+                    runner.setSource(value);
+                    break;
+                case "--fish":
+                    runner.setNumFish(parseInt(args[k], value, 0));
+                    break;
+                case "--ticks":
+                    runner.setTicks(parseInt(args[k], value, 0));
+                    break;
+                case "--threads":
+                    runner.setThreads(parseInt(args[k], value, 1));
+                    break;
+                case "--feed-every":
+                    runner.setFeedEvery(parseInt(args[k], value, 0));
+                    break;
+                case "--seed":
+                    runner.setSeed(parseLong(args[k], value));
+                    break;
+                case "--out":
+                    runner.setDestination(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[k]);
+            }
+        }
+        return runner;
+    }
+
+    // EFFECTS: returns value of option as an int,
+    // throws IllegalArgumentException if it is not an int or is below min
+    private static int parseInt(String option, String value, int min) {
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number for " + option + ": " + value);
+        }
+        if (parsed < min) {
+            throw new IllegalArgumentException(option + " must be at least " + min);
+        }
+        return parsed;
+    }
+
+    // EFFECTS: returns value of option as a long, throws IllegalArgumentException if it is not a long
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number for " + option + ": " + value);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets file aquarium is read from, null to generate one
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    // REQUIRES: numFish >= 0
+    // MODIFIES: this
+    // EFFECTS: sets number of fish of a generated aquarium
+    public void setNumFish(int numFish) {
+        this.numFish = numFish;
+    }
+
+    // REQUIRES: ticks >= 0
+    // MODIFIES: this
+    // EFFECTS: sets number of ticks to run
+    public void setTicks(int ticks) {
+        this.ticks = ticks;
+    }
+
+    // REQUIRES: threads >= 1
+    // MODIFIES: this
+    // EFFECTS: sets number of worker threads
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    // REQUIRES: feedEvery >= 0
+    // MODIFIES: this
+    // EFFECTS: sets number of ticks between feedings, 0 to never feed
+    public void setFeedEvery(int feedEvery) {
+        this.feedEvery = feedEvery;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets seed a generated aquarium and its movement are drawn from
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets file the aquarium is written to after the run, null to not write it
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    // EFFECTS: reads or generates the aquarium, runs it for ticks ticks timing feeding and the rest of every tick
+    // apart, see BatchReport, writes it to
+    // destination if set, and returns the report; throws IOException if source cannot be read or destination
+    // cannot be written, IllegalAquariumException or IllegalFishException if source holds an illegal aquarium
+    public BatchReport run() throws IOException, IllegalAquariumException, IllegalFishException {
+        Aquarium aquarium = source == null ? generate() : load(source);
+        aquarium.setRandomSeed(seed);
+        aquarium.setParallelism(threads);
+        if (threads > 1) {
+            // work is split across threads whatever the tank size, it is what is being measured
+            aquarium.setParallelThreshold(0);
+        }
+
+        long[] tickNanos = new long[ticks];
+        long fishUpdates = 0;
+        long feedNanos = 0;
+        long start = System.nanoTime();
+        try {
+            for (int t = 0; t < ticks; t++) {
+                long tickStart = System.nanoTime();
+                if (feedEvery > 0 && t % feedEvery == 0) {
+                    aquarium.feedAllFish();
+                    long fed = System.nanoTime();
+                    feedNanos += fed - tickStart;
+                    tickStart = fed;
+                }
+                aquarium.passTime();
+                aquarium.updateFishCoordinates();
+                tickNanos[t] = System.nanoTime() - tickStart;
+                fishUpdates += aquarium.getPopulation().size();
+            }
+        } finally {
+            aquarium.setParallelism(1);
+        }
+        long totalNanos = System.nanoTime() - start;
+
+        if (destination != null) {
+            save(aquarium, destination);
+        }
+        Arrays.sort(tickNanos);
+        return new BatchReport(ticks, fishUpdates, totalNanos, feedNanos, tickNanos);
+    }
+
+    // EFFECTS: reads aquarium from file, in the binary save format or JSON by its name, and returns it
+    private static Aquarium load(String file) throws IOException, IllegalAquariumException, IllegalFishException {
+        return BinaryReader.isBinary(file) ? new BinaryReader(file).read() : new JsonReader(file).read();
+    }
+
+    // EFFECTS: writes aquarium to file, in the binary save format or JSON by its name
+    private static void save(Aquarium aquarium, String file) throws IOException {
+        if (BinaryReader.isBinary(file)) {
+            new BinaryWriter(file).write(aquarium.snapshot());
+        } else {
+            new JsonWriter(file).write(aquarium);
+        }
+    }
+
+    // EFFECTS: returns a new aquarium with numFish alive fish of random size, hunger and growth timer,
+    // drawn from seed
+    private Aquarium generate() throws IllegalFishException {
+        Aquarium aquarium = new Aquarium();
+        aquarium.setRandomSeed(seed);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < numFish; i++) {
+            aquarium.addFish(random.nextInt(FISH_MIN_SIZE, FISH_MAX_SIZE + 1),
+                    random.nextInt(FISH_MIN_HUNGER, FISH_HUNGER_TO_STARVE), ALIVE,
+                    random.nextInt(GROWTH_TIMER_END_VALUE + 1, GROWTH_TIMER_START_VALUE + 1));
+        }
+        return aquarium;
+    }
+}
@@ -0,0 +1,20 @@
+package simulation;
+
+import model.Aquarium;
+
+/*
+ * Represents cleaning an aquarium; cleaning twice in a row is the same as cleaning once,
+ * so cleans queued back to back merge into one
+ */
+public class CleanCommand implements AquariumCommand {
+
+    @Override
+    public void apply(Aquarium aquarium) {
+        aquarium.clean();
+    }
+
+    @Override
+    public AquariumCommand mergeWith(AquariumCommand next) {
+        return next instanceof CleanCommand ? this : null;
+    }
+}
@@ -0,0 +1,89 @@
+package simulation;
+
+import exception.IllegalFishException;
+import model.Aquarium;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+ * Represents a queue of commands for an aquarium with a single writer: any thread may submit commands,
+ * only the thread that owns the aquarium drains them, applying everything queued as one batch in order;
+ * commands queued back to back that merge are applied once, so a burst of commands costs one apply;
+ * a drain only takes the commands queued when it starts, commands submitted while it runs wait for the next one,
+ * so producers that never stop cannot hold the owner in a drain; numQueued counts the commands in pending,
+ * it goes up only once a command is in pending, so a drain never waits for a command it counted;
+ * no locks are taken, submitting is a lock-free enqueue
+ */
+public class CommandQueue {
+    private final Queue<AquariumCommand> pending;
+    private final AtomicInteger numQueued;
+
+    // EFFECTS: constructs an empty queue
+    public CommandQueue() {
+        pending = new ConcurrentLinkedQueue<>();
+        numQueued = new AtomicInteger();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues command to be applied at the next drain; safe to call from any thread
+    public void submit(AquariumCommand command) {
+        pending.add(command);
+        numQueued.incrementAndGet();
+    }
+
+    // EFFECTS: returns true if no command is queued
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    // MODIFIES: this, aquarium
+    // EFFECTS: removes every command queued when drain starts and applies it to aquarium in order, merging
+    // commands queued back to back; commands submitted while draining are left for the next drain;
+    // a command that throws is passed to onError and the rest are still applied; returns number of commands removed
+    public int drain(Aquarium aquarium, Consumer<IllegalFishException> onError) {
+        return drain(() -> aquarium, onError);
+    }
+
+    // MODIFIES: this, aquarium
+    // EFFECTS: same as drain(Aquarium, Consumer), but applies each command to the aquarium target supplies
+    // at the time, so a command may replace the aquarium the commands after it are applied to
+    public int drain(Supplier<Aquarium> target, Consumer<IllegalFishException> onError) {
+        return drain(target, onError, command -> { });
+    }
+
+    // MODIFIES: this, aquarium
+    // EFFECTS: same as drain(Supplier, Consumer), and passes every command that applied without throwing,
+    // merged as it was applied, to onApplied
+    public int drain(Supplier<Aquarium> target, Consumer<IllegalFishException> onError,
+                     Consumer<AquariumCommand> onApplied) {
+        int toDrain = numQueued.get();
+        int drained = 0;
+        AquariumCommand batched = drained < toDrain ? pending.poll() : null;
+        while (batched != null) {
+            drained++;
+            AquariumCommand next = drained < toDrain ? pending.poll() : null;
+            while (next != null) {
+                AquariumCommand merged = batched.mergeWith(next);
+                if (merged == null) {
+                    break;
+                }
+                batched = merged;
+                drained++;
+                next = drained < toDrain ? pending.poll() : null;
+            }
+            try {
+                batched.apply(target.get());
+                onApplied.accept(batched);
+            } catch (IllegalFishException e) {
+                onError.accept(e);
+            }
+            batched = next;
+        }
+        numQueued.addAndGet(-drained);
+        return drained;
+    }
+}
@@ -0,0 +1,45 @@
+package simulation;
+
+import model.Aquarium;
+
+/*
+ * Represents feeding the fish in an aquarium, either all alive fish at once when numPellets is 0,
+ * or by dropping numPellets food pellets for the hungry fish to eat;
+ * pellet drops queued back to back merge into one drop
+ */
+public class FeedCommand implements AquariumCommand {
+    private final int numPellets;
+
+    // EFFECTS: constructs command feeding all alive fish at once
+    public FeedCommand() {
+        this(0);
+    }
+
+    // REQUIRES: numPellets >= 0
+    // EFFECTS: constructs command dropping numPellets pellets, or feeding all alive fish at once if 0
+    public FeedCommand(int numPellets) {
+        this.numPellets = numPellets;
+    }
+
+    // EFFECTS: returns number of pellets dropped, 0 if all fish are fed at once
+    public int getNumPellets() {
+        return numPellets;
+    }
+
+    @Override
+    public void apply(Aquarium aquarium) {
+        if (numPellets == 0) {
+            aquarium.feedAllFish();
+        } else {
+            aquarium.dropFood(numPellets);
+        }
+    }
+
+    @Override
+    public AquariumCommand mergeWith(AquariumCommand next) {
+        if (numPellets > 0 && next instanceof FeedCommand && ((FeedCommand) next).numPellets > 0) {
+            return new FeedCommand(numPellets + ((FeedCommand) next).numPellets);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package simulation;
+
+import model.Aquarium;
+import model.Fish;
+
+/*
+ * Represents feeding the one fish with id, as when it eats a pellet
+ */
+public class FeedFishCommand implements AquariumCommand {
+    private final int id;
+
+    // EFFECTS: constructs command feeding fish with id
+    public FeedFishCommand(int id) {
+        this.id = id;
+    }
+
+    // EFFECTS: returns id of fish to feed
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    // EFFECTS: feeds fish with id, does nothing if it is no longer in aquarium
+    public void apply(Aquarium aquarium) {
+        Fish fish = aquarium.getFishById(id);
+        if (fish != null) {
+            fish.feed();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package simulation;
+
+import model.Aquarium;
+
+/*
+ * Represents passing ticks units of time in an aquarium; passes queued back to back merge into one,
+ * since passing a and then b ticks leaves the aquarium as passing a + b ticks at once; a merged pass stops at
+ * Long.MAX_VALUE ticks, by which every fish has starved and the tank is as dirty as it gets
+ */
+public class PassTimeCommand implements AquariumCommand {
+    private final long ticks;
+
+    // EFFECTS: constructs command passing one unit of time
+    public PassTimeCommand() {
+        this(1);
+    }
+
+    // REQUIRES: ticks >= 0
+    // EFFECTS: constructs command passing ticks units of time
+    public PassTimeCommand(long ticks) {
+        this.ticks = ticks;
+    }
+
+    // EFFECTS: returns units of time passed
+    public long getTicks() {
+        return ticks;
+    }
+
+    @Override
+    public void apply(Aquarium aquarium) {
+        aquarium.passTime(ticks);
+    }
+
+    @Override
+    public AquariumCommand mergeWith(AquariumCommand next) {
+        if (next instanceof PassTimeCommand) {
+            long nextTicks = ((PassTimeCommand) next).ticks;
+            return new PassTimeCommand(nextTicks > Long.MAX_VALUE - ticks ? Long.MAX_VALUE : ticks + nextTicks);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,46 @@
+package simulation;
+
+import model.Aquarium;
+import model.Fish;
+
+/*
+ * Represents renaming the fish with id to name;
+ * a rename of the same fish queued right after replaces this one
+ */
+public class RenameCommand implements AquariumCommand {
+    private final int id;
+    private final String name;
+
+    // EFFECTS: constructs command renaming fish with id to name
+    public RenameCommand(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    // EFFECTS: returns id of fish to rename
+    public int getId() {
+        return id;
+    }
+
+    // EFFECTS: returns new name of fish
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    // EFFECTS: renames fish with id, does nothing if it is no longer in aquarium
+    public void apply(Aquarium aquarium) {
+        Fish fish = aquarium.getFishById(id);
+        if (fish != null) {
+            fish.setName(name);
+        }
+    }
+
+    @Override
+    public AquariumCommand mergeWith(AquariumCommand next) {
+        if (next instanceof RenameCommand && ((RenameCommand) next).id == id) {
+            return next;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,243 @@
+package simulation;
+
+import model.Aquarium;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Represents a headless engine that passes time for many aquariums on a shared clock;
+ * aquariums are spread over a fixed number of shards, every tick each shard is one task on a
+ * fork-join pool of worker threads, idle workers steal shards from busy ones;
+ * the load of an aquarium is 1 plus its number of fish when it was added, addedLoads holds the load of each
+ * aquarium of a shard in the order of the shard, and shardLoads the sum of those per shard, kept up to date on
+ * every add and remove, so placing an aquarium costs time in proportion to the number of shards only;
+ * tick is the number of ticks passed, and for each shard the engine keeps the duration of its last tick,
+ * its slowest tick and the total time spent ticking it, in nanoseconds; tick and the timings are published
+ * through volatile reads and writes, so reading them never waits for a tick in progress;
+ * the tasks for a tick are made once and reinitialized every tick, so ticking allocates nothing
+ */
+public class SimulationEngine {
+    private static final int SHARDS_PER_THREAD = 4;
+
+    private final ForkJoinPool workers;
+    private final List<List<Aquarium>> shards;
+    private final List<List<Long>> addedLoads;
+    private final long[] shardLoads;
+    private final ShardTask[] shardTasks;
+    private final RecursiveAction tickTask;
+    private final AtomicLongArray lastTickNanos;
+    private final AtomicLongArray maxTickNanos;
+    private final AtomicLongArray totalTickNanos;
+    private volatile long tick;
+    private ScheduledExecutorService clock;
+    private ScheduledFuture<?> clockTask;
+
+    // EFFECTS: constructs engine with one worker thread per available processor
+    public SimulationEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    // REQUIRES: numThreads >= 1
+    // EFFECTS: constructs engine with numThreads worker threads and SHARDS_PER_THREAD shards per thread
+    public SimulationEngine(int numThreads) {
+        this(numThreads, numThreads * SHARDS_PER_THREAD);
+    }
+
+    // REQUIRES: numThreads >= 1, numShards >= 1
+    // EFFECTS: constructs engine with numThreads worker threads and numShards empty shards
+    public SimulationEngine(int numThreads, int numShards) {
+        workers = new ForkJoinPool(numThreads);
+        shards = new ArrayList<>(numShards);
+        addedLoads = new ArrayList<>(numShards);
+        for (int i = 0; i < numShards; i++) {
+            shards.add(new ArrayList<>());
+            addedLoads.add(new ArrayList<>());
+        }
+        shardLoads = new long[numShards];
+        lastTickNanos = new AtomicLongArray(numShards);
+        maxTickNanos = new AtomicLongArray(numShards);
+        totalTickNanos = new AtomicLongArray(numShards);
+        shardTasks = new ShardTask[numShards];
+        for (int i = 0; i < numShards; i++) {
+            shardTasks[i] = new ShardTask(i);
+        }
+        tickTask = new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(shardTasks);
+            }
+        };
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds aquarium to the shard with least load, returns that shard
+    public synchronized int addAquarium(Aquarium aquarium) {
+        int best = 0;
+        for (int i = 1; i < shardLoads.length; i++) {
+            if (shardLoads[i] < shardLoads[best]) {
+                best = i;
+            }
+        }
+        long load = 1 + aquarium.getPopulation().size();
+        shards.get(best).add(aquarium);
+        addedLoads.get(best).add(load);
+        shardLoads[best] += load;
+        return best;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes aquarium from engine, returns true if it was in engine, else false
+    public synchronized boolean removeAquarium(Aquarium aquarium) {
+        for (int i = 0; i < shards.size(); i++) {
+            int index = shards.get(i).indexOf(aquarium);
+            if (index >= 0) {
+                shards.get(i).remove(index);
+                shardLoads[i] -= addedLoads.get(i).remove(index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns number of aquariums in engine
+    public synchronized int getNumAquariums() {
+        int numAquariums = 0;
+        for (List<Aquarium> shard : shards) {
+            numAquariums += shard.size();
+        }
+        return numAquariums;
+    }
+
+    // EFFECTS: returns number of shards
+    public int getNumShards() {
+        return shards.size();
+    }
+
+    // EFFECTS: returns number of worker threads
+    public int getNumThreads() {
+        return workers.getParallelism();
+    }
+
+    // EFFECTS: returns number of ticks passed
+    public long getTick() {
+        return tick;
+    }
+
+    // MODIFIES: this, aquariums in engine
+    // EFFECTS: passes time once for every aquarium, shards run in parallel on the worker threads;
+    // returns once every shard is done
+    public synchronized void tick() {
+        for (ShardTask task : shardTasks) {
+            task.reinitialize();
+        }
+        tickTask.reinitialize();
+        workers.invoke(tickTask);
+        tick++;
+    }
+
+    // REQUIRES: ticks >= 0
+    // MODIFIES: this, aquariums in engine
+    // EFFECTS: calls tick() ticks times
+    public void run(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            tick();
+        }
+    }
+
+    // REQUIRES: periodMillis > 0
+    // MODIFIES: this
+    // EFFECTS: starts ticking every periodMillis milliseconds on a background clock thread,
+    // does nothing if already started; a tick that runs late delays the next one instead of overlapping
+    public synchronized void start(long periodMillis) {
+        if (clock != null) {
+            return;
+        }
+        clock = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "simulation-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        clockTask = clock.scheduleAtFixedRate(this::tick, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops background ticking started by start, waits for a running tick to finish
+    public void stop() {
+        ScheduledExecutorService oldClock;
+        synchronized (this) {
+            if (clock == null) {
+                return;
+            }
+            clockTask.cancel(false);
+            oldClock = clock;
+            clock = null;
+            clockTask = null;
+        }
+        oldClock.shutdown();
+        try {
+            oldClock.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops ticking and shuts down worker threads
+    public void shutdown() {
+        stop();
+        workers.shutdown();
+    }
+
+    // EFFECTS: returns duration of last tick of shard in nanoseconds
+    public long getLastTickNanos(int shard) {
+        return lastTickNanos.get(shard);
+    }
+
+    // EFFECTS: returns duration of slowest tick of shard in nanoseconds
+    public long getMaxTickNanos(int shard) {
+        return maxTickNanos.get(shard);
+    }
+
+    // EFFECTS: returns mean duration of a tick of shard in nanoseconds, 0 if no tick has passed;
+    // while a tick is in progress the total may already include it, so the mean can be off by that one tick
+    public double getMeanTickNanos(int shard) {
+        long ticks = tick;
+        return ticks == 0 ? 0 : (double) totalTickNanos.get(shard) / ticks;
+    }
+
+    /*
+     * Represents the task passing time for every aquarium of one shard and timing it
+     */
+    private class ShardTask extends RecursiveAction {
+        private final int shard;
+
+        // EFFECTS: constructs task for shard
+        ShardTask(int shard) {
+            this.shard = shard;
+        }
+
+        // MODIFIES: aquariums in shard, SimulationEngine.this
+        // EFFECTS: passes time for every aquarium in shard, records how long it took
+        @Override
+        protected void compute() {
+            long start = System.nanoTime();
+            List<Aquarium> aquariums = shards.get(shard);
+            for (int i = 0; i < aquariums.size(); i++) {
+                aquariums.get(i).passTime();
+            }
+            long duration = System.nanoTime() - start;
+            // only this task writes the timings of shard, so they are read and set without compare-and-set
+            lastTickNanos.set(shard, duration);
+            maxTickNanos.set(shard, Math.max(maxTickNanos.get(shard), duration));
+            totalTickNanos.set(shard, totalTickNanos.get(shard) + duration);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package simulation;
+
+import model.AquariumSnapshot;
+
+/*
+ * Represents what a simulation loop publishes after a batch of steps, an immutable snapshot of the aquarium
+ * together with step, the number of steps the loop had run, and revision, the number of changes to the
+ * aquarium other than movement (aging, commands), so a view only rebuilds when it changes
+ */
+public class SimulationFrame {
+    private final long step;
+    private final long revision;
+    private final AquariumSnapshot snapshot;
+
+    // EFFECTS: constructs a frame holding snapshot, taken at step and revision
+    public SimulationFrame(AquariumSnapshot snapshot, long step, long revision) {
+        this.snapshot = snapshot;
+        this.step = step;
+        this.revision = revision;
+    }
+
+    // EFFECTS: returns number of steps loop had run when frame was taken
+    public long getStep() {
+        return step;
+    }
+
+    // EFFECTS: returns number of changes other than movement made to aquarium when frame was taken
+    public long getRevision() {
+        return revision;
+    }
+
+    // EFFECTS: returns snapshot of aquarium
+    public AquariumSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
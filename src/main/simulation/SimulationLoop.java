@@ -0,0 +1,225 @@
+package simulation;
+
+import model.Aquarium;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+ * Represents a simulation loop that owns an aquarium and runs it on a thread of its own with a fixed timestep;
+ * every step moves the fish, and every stepsPerTick steps the aquarium also passes time;
+ * when the thread falls behind it runs the missed steps back to back, at most MAX_CATCH_UP_STEPS at a time,
+ * and drops the rest rather than spiral;
+ * other threads never touch the aquarium, they submit commands to the command queue, which the loop thread
+ * drains as one batch before the next step, and read the frame the loop publishes after each batch of steps,
+ * whose snapshot of the aquarium shares unchanged chunks with the one before;
+ * step is the number of steps run and revision the number of aging ticks and commands applied;
+ * log, if not null, journals every durable change as it is applied: commands, aging ticks, and fish eating
+ * pellets, and is committed once per published frame, so a batch of steps costs one write to disk;
+ * onError is told about commands that failed and journal writes that failed
+ */
+public class SimulationLoop {
+    public static final long DEFAULT_STEP_MILLIS = 100;
+    public static final int DEFAULT_STEPS_PER_TICK = 500;
+    private static final int MAX_CATCH_UP_STEPS = 10;
+    private static final AquariumCommand PASS_TIME = new PassTimeCommand();
+
+    private final long stepNanos;
+    private final int stepsPerTick;
+    private final CommandQueue commands;
+    private final Supplier<Aquarium> target;
+    private volatile Consumer<Exception> onError;
+    private Aquarium aquarium;
+    private AquariumLog log;
+    private long step;
+    private long revision;
+    private volatile SimulationFrame frame;
+    private volatile boolean running;
+    private Thread thread;
+
+    // EFFECTS: constructs a stopped loop for aquarium, stepping every DEFAULT_STEP_MILLIS milliseconds
+    // and passing time every DEFAULT_STEPS_PER_TICK steps
+    public SimulationLoop(Aquarium aquarium) {
+        this(aquarium, DEFAULT_STEP_MILLIS, DEFAULT_STEPS_PER_TICK);
+    }
+
+    // REQUIRES: stepMillis > 0, stepsPerTick >= 1
+    // EFFECTS: constructs a stopped loop for aquarium, stepping every stepMillis milliseconds
+    // and passing time every stepsPerTick steps; publishes a first frame of aquarium
+    public SimulationLoop(Aquarium aquarium, long stepMillis, int stepsPerTick) {
+        this.aquarium = aquarium;
+        this.stepNanos = TimeUnit.MILLISECONDS.toNanos(stepMillis);
+        this.stepsPerTick = stepsPerTick;
+        commands = new CommandQueue();
+        target = () -> this.aquarium;
+        onError = e -> { };
+        frame = new SimulationFrame(aquarium.snapshot(), 0, 0);
+    }
+
+    // EFFECTS: returns the last frame published by the loop; safe to call from any thread
+    public SimulationFrame getFrame() {
+        return frame;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues command to be applied to the aquarium on the loop thread, before the next step;
+    // safe to call from any thread
+    public void submit(AquariumCommand command) {
+        commands.submit(command);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues action to run on the aquarium on the loop thread, see submit; actions are never journaled,
+    // see AquariumLog
+    public void invokeLater(Consumer<Aquarium> action) {
+        submit(action::accept);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets handler told, on the loop thread, about commands that failed to apply
+    // and journal writes that failed
+    public void setErrorHandler(Consumer<Exception> onError) {
+        this.onError = onError;
+    }
+
+    // REQUIRES: loop is not running, log has been recovered and the aquarium of the loop is the one it holds
+    // MODIFIES: this
+    // EFFECTS: journals every durable change to the aquarium from now on to log
+    public void setLog(AquariumLog log) {
+        this.log = log;
+        aquarium.setEatListener(id -> journal(new FeedFishCommand(id)));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues replacing the aquarium the loop runs with aquarium, see invokeLater;
+    // if journaling, the journal then starts over from a snapshot of aquarium
+    public void setAquarium(Aquarium aquarium) {
+        invokeLater(current -> {
+            current.setEatListener(null);
+            this.aquarium = aquarium;
+            if (log != null) {
+                aquarium.setEatListener(id -> journal(new FeedFishCommand(id)));
+                try {
+                    log.snapshot(aquarium);
+                } catch (IOException e) {
+                    onError.accept(e);
+                }
+            }
+        });
+    }
+
+    // REQUIRES: loop is not running
+    // MODIFIES: this
+    // EFFECTS: runs one step on the calling thread and publishes a frame, for driving the loop by hand
+    public void step() {
+        runStep();
+        publish();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the loop thread, does nothing if already running
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "simulation-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the loop thread and waits for it to finish its current step, does nothing if not running
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    // EFFECTS: returns true if loop thread is running, else false
+    public boolean isRunning() {
+        return running;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs steps on a fixed timestep until stopped, catching up on missed steps,
+    // and publishes a frame after every batch of steps
+    private void run() {
+        long next = System.nanoTime() + stepNanos;
+        while (running) {
+            long now = System.nanoTime();
+            int steps = 0;
+            while (now - next >= 0 && steps < MAX_CATCH_UP_STEPS) {
+                runStep();
+                next += stepNanos;
+                steps++;
+            }
+            if (steps > 0) {
+                if (now - next >= 0) {
+                    // too far behind, give up on the missed steps
+                    next = now + stepNanos;
+                }
+                publish();
+            }
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+        applyCommands();
+        publish();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies queued commands, then moves the fish and passes time if a tick is due
+    private void runStep() {
+        applyCommands();
+        aquarium.updateFishCoordinates();
+        step++;
+        if (step % stepsPerTick == 0) {
+            aquarium.passTime();
+            journal(PASS_TIME);
+            revision++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies every queued command as one batch, journaling those that applied
+    private void applyCommands() {
+        revision += commands.drain(target, onError::accept, this::journal);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends command, which has just been applied to aquarium, to log if journaling
+    private void journal(AquariumCommand command) {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.append(command);
+        } catch (IOException e) {
+            onError.accept(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: commits log if journaling, then publishes a frame with a snapshot of the current state of aquarium
+    private void publish() {
+        if (log != null) {
+            try {
+                log.commit(aquarium);
+            } catch (IOException e) {
+                onError.accept(e);
+            }
+        }
+        frame = new SimulationFrame(aquarium.snapshot(), step, revision);
+    }
+}
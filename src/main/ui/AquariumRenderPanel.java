@@ -2,6 +2,8 @@ package ui;
 
 import model.Aquarium;
 import model.Fish;
+import model.AquariumSnapshot;
+import simulation.SimulationLoop;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -16,7 +18,8 @@ import java.io.IOException;
  * Represents the panel for aquarium rendering;
  * holds values for tank color (clear, and dirty) and sand,
  * also contains image for fish, for dead and alive, and a timer that is the speed the tank render is being updated,
- * contains a filed with actual aquarium
+ * waterColors holds the water color for each cleanness level, worked out once so painting creates no colors,
+ * contains the simulation loop whose published frames it draws, it never changes the aquarium itself
  */
 public class AquariumRenderPanel extends JPanel implements ActionListener {
     private static final String FISH_RENDER_ALIVE = "./render/f1.png";
@@ -24,30 +27,35 @@ public class AquariumRenderPanel extends JPanel implements ActionListener {
     private static final Color TANK_COLOR = new Color(149, 166, 187, 255);
     private static final Color SAND_COLOR = new Color(154, 128, 89);
     private static final Color DIRTY_COLOR = new Color(107, 116, 73);
+    private static final Color FOOD_COLOR = new Color(120, 72, 40);
+    private static final int PELLET_SIZE = 4;
     private final BufferedImage aliveFishImage;
     private final BufferedImage deadFishImage;
+    private final Color[] waterColors;
     private final Timer timer;
-    private Aquarium aquarium;
+    private final SimulationLoop loop;
 
 
     // EFFECTS: constructs aquarium render panel
-    public AquariumRenderPanel(Aquarium aquarium) {
-        this.aquarium = aquarium;
+    public AquariumRenderPanel(SimulationLoop loop) {
+        this.loop = loop;
         aliveFishImage = readImage(FISH_RENDER_ALIVE);
         deadFishImage = readImage(FISH_RENDER_DEAD);
+        waterColors = new Color[Aquarium.MAX_CLEANNESS_LEVEL + 1];
+        for (int cleanness = 0; cleanness < waterColors.length; cleanness++) {
+            waterColors[cleanness] = interpolateColor(TANK_COLOR, DIRTY_COLOR,
+                    1.0 - (double) cleanness / Aquarium.MAX_CLEANNESS_LEVEL);
+        }
 
         timer = new Timer(100, this);
         timer.start();
     }
 
-    // MODIFIES: this and fish
-    // EFFECTS: updates fish location, at timer and updates aquarium rendering
+    // MODIFIES: this
+    // EFFECTS: updates aquarium rendering at timer, fish are moved by the simulation loop
     @Override
     public void actionPerformed(ActionEvent ev) {
         if (ev.getSource() == timer) {
-            for (Fish fish : aquarium.getFishList()) {
-                fish.updateCoordinate();
-            }
             repaint();
         }
     }
@@ -65,38 +73,48 @@ public class AquariumRenderPanel extends JPanel implements ActionListener {
         return null;
     }
 
-    // MODIFIES: this
-    // EFFECTS: sets aquarium as given aquarium
-    public void setAquarium(Aquarium aquarium) {
-        this.aquarium = aquarium;
-    }
-
     // MODIFIES: this
     // EFFECT: takes a graphic and paints/renders the aquarium, (with background and its fish)
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        drawBackground(g);
-        drawFish(g);
+        AquariumSnapshot snapshot = loop.getFrame().getSnapshot();
+        drawBackground(g, snapshot);
+        drawFood(g, snapshot);
+        drawFish(g, snapshot);
     }
 
     // MODIFIES: this
-    // EFFECT:  takes a graphic and paints/renders fish facing correct direction
-    private void drawFish(Graphics g) {
-        for (Fish fish : aquarium.getFishList()) {
-            int width = 20 * fish.getSize();
-            int height = 10 * fish.getSize();
-            int x = (int)(this.getWidth() * fish.getCoordinateX());
-            int y = (int)(this.getHeight() * fish.getCoordinateY());
+    // EFFECT: takes a graphic and paints the food pellets of snapshot
+    private void drawFood(Graphics g, AquariumSnapshot snapshot) {
+        g.setColor(FOOD_COLOR);
+        for (int k = 0; k < snapshot.getNumPellets(); k++) {
+            int x = (int) (getWidth() * snapshot.getPelletX(k));
+            int y = (int) (getHeight() * snapshot.getPelletY(k));
+            g.fillOval(x, y, PELLET_SIZE, PELLET_SIZE);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECT:  takes a graphic and paints/renders fish of snapshot facing correct direction
+    private void drawFish(Graphics g, AquariumSnapshot snapshot) {
+        for (int i = 0; i < snapshot.getNumSlots(); i++) {
+            if (!snapshot.isOccupied(i)) {
+                continue;
+            }
+            int width = 20 * snapshot.getSize(i);
+            int height = 10 * snapshot.getSize(i);
+            int x = (int)(this.getWidth() * snapshot.getCoordinateX(i));
+            int y = (int)(this.getHeight() * snapshot.getCoordinateY(i));
 
             // renders fish facing direction it is swimming
-            if (fish.getDirection() == Fish.RIGHT) {
+            if (snapshot.getDirection(i) == Fish.RIGHT) {
                 x = x + width;
                 width = -width;
             }
 
             // renders fish for its status (alive or dead)
-            if (fish.getStatus() == Fish.ALIVE) {
+            if (snapshot.getStatus(i) == Fish.ALIVE) {
                 g.drawImage(aliveFishImage, x, y, width, height, null);
             } else {
                 g.drawImage(deadFishImage, x, y, width, height, null);
@@ -105,10 +123,9 @@ public class AquariumRenderPanel extends JPanel implements ActionListener {
     }
 
     // MODIFIES: this
-    // EFFECT: paints background, and interpolates color of water
-    private void drawBackground(Graphics g) {
-        g.setColor(interpolateColor(TANK_COLOR, DIRTY_COLOR,
-                1.0 - (double) aquarium.getCleanness() / Aquarium.MAX_CLEANNESS_LEVEL));
+    // EFFECT: paints background, and interpolates color of water for cleanness of snapshot
+    private void drawBackground(Graphics g, AquariumSnapshot snapshot) {
+        g.setColor(waterColors[snapshot.getCleanness()]);
         g.fillRect(0, 0, getWidth(), getHeight());
         g.setColor(SAND_COLOR);
         g.fillRect(0, (int)(getHeight() * 0.9), getWidth(), getHeight());
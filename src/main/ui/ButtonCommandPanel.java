@@ -1,36 +1,67 @@
 package ui;
 
 import model.Aquarium;
+import model.AquariumSnapshot;
 import exception.IllegalAquariumException;
 import exception.IllegalFishException;
+import persistence.AutosaveService;
 import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.SaveStore;
+import simulation.AddFishCommand;
+import simulation.CleanCommand;
+import simulation.FeedCommand;
+import simulation.PassTimeCommand;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
 
 /*
  * Represents panel for button commands;
- * Command panel that allows saving, loading, feeding, adding fish, and cleaning tank
+ * Command panel that allows saving, loading, feeding, adding fish, and cleaning tank;
+ * commands are submitted to the simulation loop, which owns the aquarium and applies them in batches,
+ * and checks read its last published frame;
+ * the last frame is saved by an autosave service, every AUTOSAVE_INTERVAL_MILLIS and when Save is pressed, on a
+ * thread of its own; loading marks loading until the loop publishes a frame of loaded, the aquarium loaded,
+ * and no frame is saved meanwhile, so a frame of the aquarium replaced never overwrites the save just loaded
  */
 public class ButtonCommandPanel extends JPanel implements ActionListener {
     private static final String ADD_FISH = "addFish";
     private static final String FEED_FISH = "feedFish";
     private static final String CLEAN_TANK = "clean";
     private static final String PASS_TIME = "passTime";
+    private static final String SCHOOL = "school";
     private static final String SAVE = "save";
     private static final String LOAD = "load";
 
     private static final String JSON_STORE = "./save/aquarium.json";
+    private static final String SAVE_STORE = "./save/aquarium";
+    private static final long AUTOSAVE_INTERVAL_MILLIS = AutosaveService.DEFAULT_INTERVAL_MILLIS;
     private final GUI gui;
+    private final SaveStore saveStore;
+    private final AutosaveService autosave;
+    private volatile boolean loading;
+    private volatile AquariumSnapshot loaded;
 
     // EFFECTS: constructs button command panel
     public ButtonCommandPanel(GUI gui) {
         super();
         this.gui = gui;
+        saveStore = new SaveStore(SAVE_STORE);
+        autosave = new AutosaveService(saveStore, this::frameToSave);
+        autosave.setErrorHandler(e -> SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(
+                gui,
+                "Error: Unable to autosave! " + e.getMessage(),
+                "Save Error",
+                JOptionPane.ERROR_MESSAGE)));
+        autosave.setInterval(AUTOSAVE_INTERVAL_MILLIS);
+        gui.getLoop().setErrorHandler(e -> SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(
+                gui,
+                e instanceof IOException ? "Unable to write aquarium journal" : "Internal code implementation error",
+                "Critical Error",
+                JOptionPane.WARNING_MESSAGE)));
         addAllButtons();
     }
 
@@ -53,6 +84,9 @@ public class ButtonCommandPanel extends JPanel implements ActionListener {
                 case PASS_TIME:
                     processPassTime();
                     break;
+                case SCHOOL:
+                    processSchooling();
+                    break;
                 case SAVE:
                     processSaving();
                     break;
@@ -66,26 +100,31 @@ public class ButtonCommandPanel extends JPanel implements ActionListener {
     // MODIFIES: this
     // EFFECTS: Processes time passing
     private void processPassTime() {
-        gui.getAquarium().passTime();
-        gui.getStatusPanel().updateFishTable();
+        gui.getLoop().submit(new PassTimeCommand());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Processes turning fish schooling on or off
+    private void processSchooling() {
+        gui.getLoop().invokeLater(aquarium -> aquarium.setSchooling(!aquarium.isSchooling()));
     }
 
     // MODIFIES: this
     // EFFECTS: Process aquarium cleaning
     private void processCleaning() {
-        if (gui.getAquarium().getCleanness() == Aquarium.MAX_CLEANNESS_LEVEL) {
+        AquariumSnapshot snapshot = gui.getLoop().getFrame().getSnapshot();
+        if (snapshot.getCleanness() == Aquarium.MAX_CLEANNESS_LEVEL) {
             JOptionPane.showMessageDialog(gui, "No need to clean tank!");
-        } else if (gui.getAquarium().isFishListEmpty()) {
-            gui.getAquarium().clean();
+        } else if (snapshot.getNumFish() == 0) {
+            gui.getLoop().submit(new CleanCommand());
             messagePopUp("Tank cleaned!");
-        } else if (!gui.getAquarium().isAnyFishDead() && !gui.getAquarium().isFishListEmpty()) {
-            gui.getAquarium().clean();
+        } else if (snapshot.getStats().getNumDead() == 0) {
+            gui.getLoop().submit(new CleanCommand());
             messagePopUp("Tank cleaned! All fish are alive and tank is clean...");
-        } else if  (gui.getAquarium().isAnyFishDead()) {
-            gui.getAquarium().clean();
+        } else {
+            gui.getLoop().submit(new CleanCommand());
             messagePopUp("Tank cleaned! All dead fish have been removed...");
         }
-        gui.getStatusPanel().updateFishTable();
     }
 
     // MODIFIES: this
@@ -98,90 +137,138 @@ public class ButtonCommandPanel extends JPanel implements ActionListener {
     }
 
     // MODIFIES: this and AquariumRenderPanel
-    // EFFECTS: reads the saved file and loads it to aquarium
-    // pops error window in case of exception
+    // EFFECTS: loads aquarium from the incremental save, or from the JSON save file if there is none yet, on a
+    // worker thread, so merging the save never freezes the event thread; hands it to the loop and pops up message
+    // on the event thread once loaded, or error window in case of exception
     private void processLoading() {
-        JsonReader jsonReader = new JsonReader(JSON_STORE);
-        try {
-            gui.setAquarium(jsonReader.read());
-            JOptionPane.showMessageDialog(gui, "Loaded Aquarium  from " + JSON_STORE,
-                    "Successful Load", JOptionPane.PLAIN_MESSAGE);
-        } catch (IOException e) {
-            JOptionPane.showMessageDialog(gui,"Error: Unable to load save: " + e.getMessage(),
-                    "Load Error", JOptionPane.ERROR_MESSAGE);
-        } catch (IllegalFishException e) {
+        loading = true;
+        loaded = null;
+        new SwingWorker<Aquarium, Void>() {
+            private String source = SAVE_STORE;
+
+            @Override
+            protected Aquarium doInBackground() throws Exception {
+                Aquarium aquarium;
+                if (saveStore.hasSave()) {
+                    aquarium = saveStore.load();
+                } else {
+                    source = JSON_STORE;
+                    aquarium = new JsonReader(JSON_STORE).read();
+                }
+                loaded = aquarium.snapshot();
+                return aquarium;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    gui.setAquarium(get());
+                    JOptionPane.showMessageDialog(gui, "Loaded Aquarium  from " + source,
+                            "Successful Load", JOptionPane.PLAIN_MESSAGE);
+                } catch (ExecutionException e) {
+                    loadFailed(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    if (loaded == null) {
+                        loading = false;
+                    }
+                }
+            }
+        }.execute();
+    }
+
+    // EFFECTS: pops error window for loading that failed with cause
+    private void loadFailed(Throwable cause) {
+        if (cause instanceof IllegalFishException) {
             JOptionPane.showMessageDialog(gui, "Corrupted Aquarium save file. Unable to load save file.",
                     "Corruption Error", JOptionPane.ERROR_MESSAGE);
-        } catch (IllegalAquariumException e) {
+        } else if (cause instanceof IllegalAquariumException) {
             JOptionPane.showMessageDialog(gui, "Corrupted save file. Unable to load save fine.",
                     "Corruption Error", JOptionPane.ERROR_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(gui,"Error: Unable to load save: " + cause.getMessage(),
+                    "Load Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    // EFFECTS: saves the aquarium to file, and pops up message
-    private void processSaving() {
-        JsonWriter jsonWriter = new JsonWriter(JSON_STORE);
-        try {
-            jsonWriter.write(gui.getAquarium());
-            JOptionPane.showMessageDialog(
-                    gui,
-                    "Aquarium has been saved to " + JSON_STORE,
-                    "Successful Save",
-                    JOptionPane.PLAIN_MESSAGE);
-        } catch (FileNotFoundException e) {
-            JOptionPane.showMessageDialog(
-                    gui,
-                    "Error: Unable to save! " + e.getMessage(),
-                    "Save Error",
-                    JOptionPane.ERROR_MESSAGE);
+    // EFFECTS: returns the last frame of the aquarium, to be saved, or null while a loaded aquarium has not
+    // reached the loop yet
+    private AquariumSnapshot frameToSave() {
+        AquariumSnapshot snapshot = gui.getLoop().getFrame().getSnapshot();
+        if (loading) {
+            AquariumSnapshot expected = loaded;
+            if (expected == null || !snapshot.isOfSameAquarium(expected)) {
+                return null;
+            }
+            loading = false;
+            loaded = null;
         }
+        return snapshot;
+    }
+
+    // EFFECTS: saves the last snapshot of the aquarium to the incremental save on the autosave thread, writing
+    // only the fish changed since the last save, and pops up message once it is saved, or once it is known that
+    // nothing was saved because a loaded aquarium has not reached the loop yet
+    private void processSaving() {
+        autosave.saveNow().whenComplete((bytes, e) -> SwingUtilities.invokeLater(() -> {
+            if (e == null && bytes == AutosaveService.SKIPPED) {
+                JOptionPane.showMessageDialog(
+                        gui,
+                        "Aquarium not saved: the loaded aquarium is not running yet, try again.",
+                        "Save Skipped",
+                        JOptionPane.WARNING_MESSAGE);
+            } else if (e == null) {
+                JOptionPane.showMessageDialog(
+                        gui,
+                        "Aquarium has been saved to " + SAVE_STORE + "\n" + autosave.getMetrics(),
+                        "Successful Save",
+                        JOptionPane.PLAIN_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(
+                        gui,
+                        "Error: Unable to save! " + e.getMessage(),
+                        "Save Error",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }));
     }
 
     // MODIFIES: this
-    // EFFECTS: processes fish feeding and displays feeding visual and messages
+    // EFFECTS: processes fish feeding, dropping one food pellet per alive fish, and displays messages
     private void processFishFeed() {
-        if (gui.getAquarium().isFishListEmpty()) {
+        AquariumSnapshot snapshot = gui.getLoop().getFrame().getSnapshot();
+        if (snapshot.getNumFish() == 0) {
             JOptionPane.showMessageDialog(
                     gui,
                     "There are no fish to feed!",
                     "Feeding Error",
                     JOptionPane.WARNING_MESSAGE);
-        } else if (!gui.getAquarium().isAnyFishAlive()) {
+        } else if (snapshot.getStats().getNumAlive() == 0) {
             JOptionPane.showMessageDialog(
                     gui,
                     "There are no alive fish to feed :(",
                     "Feeding Error",
                     JOptionPane.WARNING_MESSAGE);
         } else {
-            gui.getAquarium().feedAllFish();
-            gui.getStatusPanel().updateFishTable();
+            // one pellet per alive fish, eaten by whichever hungry fish it sinks past
+            int numPellets = snapshot.getStats().getNumAlive();
+            gui.getLoop().submit(new FeedCommand(numPellets));
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: processes user command for naming new fish and displays it
+    // EFFECTS: processes user command for adding a new fish, named if the user picks a name
     private void processNewFish() {
-        try {
-            gui.getAquarium().addFish();
-        } catch (IllegalFishException e) {
-            JOptionPane.showMessageDialog(
-                    gui, "Internal code implementation error",
-                    "Critical Error",
-                    JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-        gui.getStatusPanel().updateFishTable();
+        String name = null;
         int option = JOptionPane.showConfirmDialog(gui, "Would you like to name your fish?",
                 "New fish options", JOptionPane.YES_NO_OPTION);
         if (option == JOptionPane.YES_OPTION) {
-            String name = (String) JOptionPane.showInputDialog(
+            name = (String) JOptionPane.showInputDialog(
                     gui, "What is their name?", "Fish naming menu", JOptionPane.QUESTION_MESSAGE,
                     null, null, "");
-
-            // names the fish
-            gui.getAquarium().getLastFish().setName(name);
-            gui.getStatusPanel().updateFishTable();
         }
+        gui.getLoop().submit(new AddFishCommand(name));
     }
 
     // MODIFIES: this
@@ -191,6 +278,7 @@ public class ButtonCommandPanel extends JPanel implements ActionListener {
         addButton("Feed Fish", FEED_FISH);
         addButton("Clean Aquarium", CLEAN_TANK);
         addButton("Pass Time", PASS_TIME);
+        addButton("School", SCHOOL);
         addButton("Save", SAVE);
         addButton("Load", LOAD);
     }
@@ -1,7 +1,11 @@
 package ui;
 
 
+import exception.IllegalAquariumException;
+import exception.IllegalFishException;
 import model.Aquarium;
+import simulation.AquariumLog;
+import simulation.SimulationLoop;
 
 import javax.sound.sampled.*;
 import javax.swing.*;
@@ -14,36 +18,47 @@ import javax.swing.Timer;
 
 /*
  * Represents Graphical User Interface
- * contains button panel, status panel, and render panel;
- * contains an aquarium, and
- * holds a timer for passage of time on aquarium
+ * contains button panel, status panel, summary panel, and render panel;
+ * contains the simulation loop running the aquarium on its own thread, and the journal the loop records
+ * the aquarium to, from which the aquarium is recovered at start up;
+ * holds a timer refreshing the status and summary panels from the frames the loop publishes
  */
 public class GUI extends JFrame implements ActionListener {
     private static final String SONG_STORE = "./media/background.wav";
+    private static final String JOURNAL_STORE = "./save/journal";
 
-    private Aquarium aquarium;
+    private final SimulationLoop loop;
+    private final AquariumLog journal;
+    private boolean journaled;
     private ButtonCommandPanel buttonsPanel;
     private StatusTablePanel statusPanel;
+    private HistogramSummaryPanel summaryPanel;
     private AquariumRenderPanel aquariumRender;
-    private Timer passTimeTimer;
+    private Timer refreshTimer;
     private AudioInputStream backgroundMusic;
 
 
-    // EFFECTS: constructs graphical user interface and initializes aquarium
+    // EFFECTS: constructs graphical user interface and initializes aquarium from the journal
     public GUI() {
         super("Aquarium Simulator 2020 Pandemic Edition");
-        aquarium = new Aquarium();
+        journal = new AquariumLog(JOURNAL_STORE);
+        loop = new SimulationLoop(recoverAquarium());
+        if (journaled) {
+            loop.setLog(journal);
+        }
         backgroundMusic = loadMusic(SONG_STORE);
 
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setPreferredSize(new Dimension(1200, 500));
         setLayout();
-        passTimeAuto();
         loopMusic(backgroundMusic);
 
         addButtonPanel();
         addStatusTablePanel();
+        addSummaryPanel();
         addAquariumRenderPanel();
+        startRefreshing();
+        loop.start();
 
         pack();
         setLocationRelativeTo(null);
@@ -51,6 +66,23 @@ public class GUI extends JFrame implements ActionListener {
         setResizable(true);
     }
 
+    // MODIFIES: this
+    // EFFECTS: returns the aquarium held by the journal and has the loop journal to it,
+    // or a new aquarium that is not journaled if the journal cannot be recovered, leaving its files as they are
+    private Aquarium recoverAquarium() {
+        try {
+            Aquarium aquarium = journal.recover();
+            journaled = true;
+            return aquarium;
+        } catch (IOException | IllegalAquariumException | IllegalFishException e) {
+            JOptionPane.showMessageDialog(this,
+                    "Unable to recover aquarium journal, changes will not be journaled",
+                    "Journal error",
+                    JOptionPane.ERROR_MESSAGE);
+            return new Aquarium();
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: plays audio in loop
     private void loopMusic(AudioInputStream audio) {
@@ -134,22 +166,30 @@ public class GUI extends JFrame implements ActionListener {
     // MODIFIES: this
     // EFFECTS: Constructs status table panel and adds to this
     private void addStatusTablePanel() {
-        statusPanel = new StatusTablePanel(aquarium);
-        add(statusPanel, generateGridBagConstraints(0, 0, 1, 3));
+        statusPanel = new StatusTablePanel(loop);
+        add(statusPanel, generateGridBagConstraints(0, 0, 1, 2));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Constructs histogram summary panel and adds it below status table panel
+    private void addSummaryPanel() {
+        summaryPanel = new HistogramSummaryPanel(loop);
+        add(summaryPanel, generateGridBagConstraints(0, 2, 1, 1));
     }
 
     // MODIFIES: this
     // EFFECTS: Constructs Aquarium render panel and adds to this
     private void addAquariumRenderPanel() {
-        aquariumRender = new AquariumRenderPanel(aquarium);
+        aquariumRender = new AquariumRenderPanel(loop);
         add(aquariumRender, generateGridBagConstraints(1, 1, 2, 2));
     }
 
     // MODIFIES: this
-    // EFFECTS: starts time passer for 50 seconds, and passes time events every 50 second
-    private void passTimeAuto() {
-        passTimeTimer = new javax.swing.Timer(50000, this);
-        passTimeTimer.start();
+    // EFFECTS: starts timer refreshing status panel every step of the simulation loop;
+    // time passes on the loop thread, not on the event dispatch thread
+    private void startRefreshing() {
+        refreshTimer = new javax.swing.Timer((int) SimulationLoop.DEFAULT_STEP_MILLIS, this);
+        refreshTimer.start();
     }
 
     // MODIFIES: this
@@ -166,9 +206,9 @@ public class GUI extends JFrame implements ActionListener {
     // MODIFIES: this
     // EFFECT: processes action performed
     public void actionPerformed(ActionEvent e) {
-        if (e.getSource() == passTimeTimer) {
-            aquarium.passTime();
-            statusPanel.updateFishTable();
+        if (e.getSource() == refreshTimer) {
+            statusPanel.refresh();
+            summaryPanel.refresh();
         }
     }
 
@@ -184,9 +224,9 @@ public class GUI extends JFrame implements ActionListener {
         return constraints;
     }
 
-    // EFFECTS: returns aquarium
-    public Aquarium getAquarium() {
-        return aquarium;
+    // EFFECTS: returns simulation loop running the aquarium
+    public SimulationLoop getLoop() {
+        return loop;
     }
 
     // EFFECTS: returns status panel
@@ -195,12 +235,9 @@ public class GUI extends JFrame implements ActionListener {
     }
 
     // MODIFIES: this
-    // EFFECTS: sets aquarium as aquarium status panel
+    // EFFECTS: has the simulation loop run aquarium from its next step
     public void setAquarium(Aquarium aquarium) {
-        this.aquarium = aquarium;
-        aquariumRender.setAquarium(aquarium);
-        statusPanel.setAquarium(aquarium);
-        statusPanel.updateFishTable();
+        loop.setAquarium(aquarium);
     }
 }
 
@@ -0,0 +1,92 @@
+package ui;
+
+import model.FishHistograms;
+import simulation.SimulationFrame;
+import simulation.SimulationLoop;
+
+import javax.swing.*;
+import java.awt.*;
+
+import static model.Fish.FISH_MAX_SIZE;
+import static model.Fish.FISH_MIN_SIZE;
+
+/*
+ * Represents the summary panel drawing bar charts of the alive fish by hunger category and by size;
+ * the histograms come with every frame the simulation loop publishes, so painting costs the same whatever
+ * the number of fish; holds the loop whose frames it shows and the revision of the last frame shown
+ */
+public class HistogramSummaryPanel extends JPanel {
+    private static final Color BAR_COLOR = new Color(72, 110, 160);
+    private static final Color TEXT_COLOR = Color.DARK_GRAY;
+    private static final int MARGIN = 16;
+    private final SimulationLoop loop;
+    private long shownRevision;
+
+    // EFFECTS: constructs summary panel showing frames of loop
+    public HistogramSummaryPanel(SimulationLoop loop) {
+        super();
+        this.loop = loop;
+        setPreferredSize(new Dimension(300, 200));
+    }
+
+    // MODIFIES: this
+    // EFFECT: repaints the charts if the loop has published changes other than movement since last paint
+    public void refresh() {
+        if (loop.getFrame().getRevision() != shownRevision) {
+            repaint();
+        }
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: draws hunger chart in the top half of panel and size chart in the bottom half
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        SimulationFrame frame = loop.getFrame();
+        FishHistograms histograms = frame.getSnapshot().getHistograms();
+        int half = getHeight() / 2;
+
+        int[] hungerCounts = new int[FishHistograms.HUNGER_CATEGORIES.length];
+        for (int c = 0; c < hungerCounts.length; c++) {
+            hungerCounts[c] = histograms.getHungerCount(c);
+        }
+        drawChart(g, "Hunger", FishHistograms.HUNGER_CATEGORIES, hungerCounts, 0, half);
+
+        String[] sizeLabels = new String[FISH_MAX_SIZE - FISH_MIN_SIZE + 1];
+        int[] sizeCounts = new int[sizeLabels.length];
+        for (int k = 0; k < sizeLabels.length; k++) {
+            sizeLabels[k] = Integer.toString(FISH_MIN_SIZE + k);
+            sizeCounts[k] = histograms.getSizeCount(FISH_MIN_SIZE + k);
+        }
+        drawChart(g, "Size", sizeLabels, sizeCounts, half, getHeight() - half);
+        shownRevision = frame.getRevision();
+    }
+
+    // MODIFIES: g
+    // EFFECTS: draws a bar chart titled title with one bar per label, scaled to the largest count,
+    // in the band of panel from top that is height high
+    private void drawChart(Graphics g, String title, String[] labels, int[] counts, int top, int height) {
+        int max = 1;
+        for (int count : counts) {
+            max = Math.max(max, count);
+        }
+        FontMetrics metrics = g.getFontMetrics();
+        int textHeight = metrics.getHeight();
+        int barTop = top + MARGIN + textHeight;
+        int barBottom = top + height - MARGIN - textHeight;
+        int barWidth = Math.max(1, (getWidth() - 2 * MARGIN) / labels.length);
+
+        g.setColor(TEXT_COLOR);
+        g.drawString(title + " (max " + max + ")", MARGIN, top + MARGIN);
+        for (int k = 0; k < labels.length; k++) {
+            int x = MARGIN + k * barWidth;
+            int barHeight = (int) ((long) (barBottom - barTop) * counts[k] / max);
+            g.setColor(BAR_COLOR);
+            g.fillRect(x + 1, barBottom - barHeight, barWidth - 2, barHeight);
+            g.setColor(TEXT_COLOR);
+            if (metrics.stringWidth(labels[k]) < barWidth) {
+                g.drawString(labels[k], x + 1, barBottom + textHeight);
+            }
+        }
+    }
+}
@@ -1,30 +1,34 @@
 package ui;
 
-import model.Aquarium;
+import model.AquariumSnapshot;
 import model.Fish;
+import simulation.SimulationFrame;
+import simulation.SimulationLoop;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.Vector;
 
 /*
  * Represents the status panel with fish stats;
  * holds Jtable with fish status and name of columns,
- * and its respective aquarium
+ * a label with population statistics, the simulation loop whose frames it shows,
+ * and the revision of the last frame shown
  */
 public class StatusTablePanel extends JPanel {
     private JTable fishListTable;
     private Vector<String> fishStatusColumnNames;
-    private Aquarium aquarium;
+    private JLabel statsLabel;
+    private final SimulationLoop loop;
+    private long shownRevision;
 
     // MODIFIES: this
-    // EFFECTS: constructs a status table panel, and sets aquarium in field
-    public StatusTablePanel(Aquarium aquarium) {
+    // EFFECTS: constructs a status table panel, and sets simulation loop in field
+    public StatusTablePanel(SimulationLoop loop) {
         super();
         setLayout(new BorderLayout());
-        this.aquarium = aquarium;
+        this.loop = loop;
         setUpTable();
     }
 
@@ -38,6 +42,8 @@ public class StatusTablePanel extends JPanel {
         fishStatusColumnNames.add("Status");
 
         fishListTable = new JTable(new StatusTableModel());
+        statsLabel = new JLabel();
+        add(statsLabel, BorderLayout.SOUTH);
         updateFishTable();
         add(fishListTable);
         fishListTable.getTableHeader().setReorderingAllowed(false);
@@ -47,28 +53,36 @@ public class StatusTablePanel extends JPanel {
     }
 
     // MODIFIES: this
-    // EFFECT: Updated the fish table with current values
+    // EFFECT: Updates the fish table if the loop has published changes other than movement since last update
+    public void refresh() {
+        if (loop.getFrame().getRevision() != shownRevision) {
+            updateFishTable();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECT: Updated the fish table with values of the last frame published by the loop
     public void updateFishTable() {
-        ArrayList<Fish> fishList = aquarium.getFishList();
+        SimulationFrame frame = loop.getFrame();
+        AquariumSnapshot snapshot = frame.getSnapshot();
         Vector<Vector<String>> fishData = new Vector<>();
 
-        for (Fish fish : fishList) {
+        for (int i = 0; i < snapshot.getNumSlots(); i++) {
+            if (!snapshot.isOccupied(i)) {
+                continue;
+            }
             Vector<String> row = new Vector<>();
 
-            row.add(fish.getName());
-            row.add(fish.hungerToString());
-            row.add(fish.getStatus() == 0 ? "Dead" : "Alive");
+            row.add(snapshot.getName(i));
+            row.add(Fish.hungerToString(snapshot.getHungerLevel(i)));
+            row.add(snapshot.getStatus(i) == 0 ? "Dead" : "Alive");
 
             fishData.add(row);
         }
 
         DefaultTableModel model = (DefaultTableModel) fishListTable.getModel();
         model.setDataVector(fishData, fishStatusColumnNames);
-    }
-
-    // MODIFIES: this
-    // EFFECTS: Sets given aquarium as aquarium
-    public void setAquarium(Aquarium aquarium) {
-        this.aquarium = aquarium;
+        statsLabel.setText(snapshot.getStats().toString());
+        shownRevision = frame.getRevision();
     }
 }
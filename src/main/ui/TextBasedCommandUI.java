@@ -5,21 +5,28 @@ import model.Fish;
 import exception.IllegalAquariumException;
 import exception.IllegalFishException;
 import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.SaveStore;
+import simulation.AddFishCommand;
+import simulation.CleanCommand;
+import simulation.CommandQueue;
+import simulation.FeedCommand;
+import simulation.PassTimeCommand;
+import simulation.RenameCommand;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Scanner;
 
 /*
- * Text based console UI for running application
+ * Text based console UI for running application;
+ * changes to the aquarium are submitted to a command queue, which is drained after every user command
  */
 public class TextBasedCommandUI {
     private static final String JSON_STORE = "./save/aquarium.json";
+    private static final String SAVE_STORE = "./save/aquarium";
     private Scanner input;
     private Aquarium aquarium;
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
+    private CommandQueue commands;
+    private SaveStore saveStore;
 
     // EFFECTS: run the Aquarium application
     public TextBasedCommandUI() {
@@ -30,6 +37,8 @@ public class TextBasedCommandUI {
     // EFFECTS: initializes aquarium
     public void init() {
         aquarium = new Aquarium();
+        commands = new CommandQueue();
+        saveStore = new SaveStore(SAVE_STORE);
         input = new Scanner(System.in);
     }
 
@@ -50,6 +59,7 @@ public class TextBasedCommandUI {
                 keepGoing = false;
             } else {
                 processCommand(command);
+                applyCommands();
             }
         }
 
@@ -90,6 +100,12 @@ public class TextBasedCommandUI {
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: applies every submitted command to aquarium, printing commands that failed
+    private void applyCommands() {
+        commands.drain(aquarium, e -> System.out.println("Fish stats not allowed. Internal error"));
+    }
+
     // MODIFIES: this
     // EFFECTS: processes user command for saving and opening save file
     private void processSaveCommands(String command) {
@@ -115,14 +131,18 @@ public class TextBasedCommandUI {
     }
 
     // MODIFIES: this
-    // EFFECTS: reads the saved file and loads it to aquarium
+    // EFFECTS: loads aquarium from the incremental save, or from the JSON save file if there is none yet
     private void processOpen() {
-        JsonReader jsonReader = new JsonReader(JSON_STORE);
         try {
-            aquarium = jsonReader.read();
-            System.out.println("Loaded Aquarium  from " + JSON_STORE);
+            if (saveStore.hasSave()) {
+                aquarium = saveStore.load();
+                System.out.println("Loaded Aquarium  from " + SAVE_STORE);
+            } else {
+                aquarium = new JsonReader(JSON_STORE).read();
+                System.out.println("Loaded Aquarium  from " + JSON_STORE);
+            }
         } catch (IOException e) {
-            System.out.println("Save file not found, no file in " + JSON_STORE);
+            System.out.println("Save file not found, no file in " + SAVE_STORE + " or " + JSON_STORE);
         } catch (IllegalFishException e) {
             System.out.println("Corrupted save");
         } catch (IllegalAquariumException e) {
@@ -130,30 +150,29 @@ public class TextBasedCommandUI {
         }
     }
 
-    // EFFECTS: saves the aquarium to file
+    // MODIFIES: this
+    // EFFECTS: saves the aquarium to the incremental save, writing only the fish changed since the last save
     private void processSaving() {
-        JsonWriter jsonWriter = new JsonWriter(JSON_STORE);
         try {
-            jsonWriter.write(aquarium);
-        } catch (FileNotFoundException e) {
+            saveStore.save(aquarium.snapshot());
+        } catch (IOException e) {
             System.out.println("Error: Unable to save! " + e.getMessage());
             return;
         }
-        System.out.println("Saved aquarium to " + JSON_STORE);
+        System.out.println("Saved aquarium to " + SAVE_STORE);
     }
 
     // MODIFIES: this
     // EFFECTS: Processes time passing and displays text for passage of time
     private void processPassTime() {
-        aquarium.passTime();
-        aquarium.passTime();
-        aquarium.passTime();
+        commands.submit(new PassTimeCommand(3));
         System.out.println("Some time has passed...");
     }
 
     // EFFECTS: Outputs the status of the aquarium, and fish
     private void processStatus() {
         System.out.println(aquarium.toString());
+        System.out.println(aquarium.getStats().toString());
     }
 
     // MODIFIES: this
@@ -162,7 +181,7 @@ public class TextBasedCommandUI {
         if (aquarium.isFishListEmpty()) {
             System.out.println("\nCleaning empty tank...");
             Thread.sleep(500);
-            aquarium.clean();
+            commands.submit(new CleanCommand());
             System.out.println("\nAll done!");
 
         } else if (aquarium.getCleanness() == Aquarium.MAX_CLEANNESS_LEVEL && !aquarium.isAnyFishDead()) {
@@ -171,18 +190,18 @@ public class TextBasedCommandUI {
         } else if (aquarium.getCleanness() == Aquarium.MAX_CLEANNESS_LEVEL && aquarium.isAnyFishDead()) {
             displayThreeTextWithSleep("\nGoodbye dead fishy...", 100, 500, "Removing all dead fish...",
                     "\nAll clean! All dead fish has been removed...'");
-            aquarium.clean();
+            commands.submit(new CleanCommand());
 
         } else if (aquarium.getCleanness() != Aquarium.MAX_CLEANNESS_LEVEL && aquarium.isAnyFishDead()) {
             displayThreeTextWithSleep("\nCleaning tank and removing dead fish...", 500, 500,
                     "Cleaning tank and removing dead fish...",
                     "\nAll clean! All clean... bye bye dead fishy...");
-            aquarium.clean();
+            commands.submit(new CleanCommand());
 
         } else {
             displayThreeTextWithSleep("\nStarting tank cleaning...", 100, 200,
                     "Cleaning tank...",  "\nAll clean!");
-            aquarium.clean();
+            commands.submit(new CleanCommand());
         }
     }
 
@@ -205,7 +224,7 @@ public class TextBasedCommandUI {
         } else if (!aquarium.isAnyFishAlive()) {
             System.out.println("\nThere are no alive fish to feed!");
         } else {
-            aquarium.feedAllFish();
+            commands.submit(new FeedCommand());
             System.out.println("\nfeeding...");
             Thread.sleep(500);
             System.out.println("feeding...");
@@ -222,12 +241,9 @@ public class TextBasedCommandUI {
     private void processNewFish() {
         boolean keepGoing = true;
         String command = null;
-        try {
-            aquarium.addFish();
-        } catch (IllegalFishException e) {
-            System.out.println("Fish stats not allowed. Internal error");
-            return;
-        }
+        int id = aquarium.getNextFishId();
+        commands.submit(new AddFishCommand());
+        applyCommands();
         System.out.println("\nA brand new fish has been added to the tank!");
         displayNewFishMenu();
 
@@ -238,7 +254,7 @@ public class TextBasedCommandUI {
             if (command.equals("n")) {
                 keepGoing = false;
             } else if (command.equals("y")) {
-                processNameFish();
+                processNameFish(id);
                 keepGoing = false;
             } else {
                 System.out.println("Hmm... your selection is not valid, pick y or n!");
@@ -247,9 +263,9 @@ public class TextBasedCommandUI {
     }
 
     // MODIFIES: this
-    // EFFECTS: processes user command for naming new fish and display text
-    private void processNameFish() {
-        Fish fish = aquarium.getFishList().get(aquarium.getFishList().size() - 1);
+    // EFFECTS: processes user command for naming new fish with id and display text
+    private void processNameFish(int id) {
+        Fish fish = aquarium.getFishById(id);
         String command;
         boolean keepPickingName = true;
         System.out.println("\n Pick the name of your new fish!");
@@ -257,7 +273,8 @@ public class TextBasedCommandUI {
         while (keepPickingName) {
             System.out.println("\n What is their name?");
             command = input.next();
-            fish.setName(command);
+            commands.submit(new RenameCommand(id, command));
+            applyCommands();
             boolean keepGoing = true;
 
             while (keepGoing) {
@@ -0,0 +1,62 @@
+package model;
+
+import static model.Fish.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests for AliveCounters Class
+ */
+public class AliveCountersTests {
+    private AliveCounters testCounters;
+
+    @BeforeEach
+    public void setup() {
+        testCounters = new AliveCounters();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, testCounters.getNumAlive());
+        assertEquals(0, testCounters.getAliveBiomass());
+        assertEquals(0, testCounters.getMeanHunger(7));
+        FishHistograms histograms = testCounters.getHistograms(7);
+        for (int c = 0; c < FishHistograms.HUNGER_CATEGORIES.length; c++) {
+            assertEquals(0, histograms.getHungerCount(c));
+        }
+    }
+
+    @Test
+    public void testCountInOut() {
+        testCounters.countIn(2, 3, 0);
+        testCounters.countIn(4, 5, 10);
+        testCounters.countIn(3, FISH_HUNGER_TO_STARVE, 10);
+        assertEquals(3, testCounters.getNumAlive());
+        assertEquals(9, testCounters.getAliveBiomass());
+
+        // at tick 10 the first fish has aged 10 ticks since it was counted, the others not at all
+        assertEquals((13 + 5 + FISH_HUNGER_TO_STARVE) / 3.0, testCounters.getMeanHunger(10), 1e-9);
+        assertHungerCounts(testCounters.getHistograms(10), 13, 5, FISH_HUNGER_TO_STARVE);
+        assertHungerCounts(testCounters.getHistograms(11), 14, 6, FISH_HUNGER_TO_STARVE);
+        assertEquals(1, testCounters.getHistograms(10).getSizeCount(4));
+
+        testCounters.countOut(4, 5, 10);
+        assertEquals(2, testCounters.getNumAlive());
+        assertEquals(5, testCounters.getAliveBiomass());
+        assertEquals(0, testCounters.getHistograms(10).getSizeCount(4));
+        assertHungerCounts(testCounters.getHistograms(10), 13, FISH_HUNGER_TO_STARVE);
+    }
+
+    // EFFECTS: asserts histograms count one alive fish at each of hungerLevels, and no others
+    private void assertHungerCounts(FishHistograms histograms, int... hungerLevels) {
+        int[] expected = new int[FishHistograms.HUNGER_CATEGORIES.length];
+        for (int hungerLevel : hungerLevels) {
+            expected[FishHistograms.hungerCategory(hungerLevel)]++;
+        }
+        for (int c = 0; c < expected.length; c++) {
+            assertEquals(expected[c], histograms.getHungerCount(c));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package model;
+
+import static model.Fish.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import exception.IllegalFishException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Tests for AquariumSnapshot Class
+ */
+public class AquariumSnapshotTests {
+    private Aquarium testAquarium;
+
+    @BeforeEach
+    public void setup() {
+        testAquarium = new Aquarium();
+        try {
+            for (int i = 0; i < 3 * AquariumSnapshot.CHUNK_SIZE; i++) {
+                testAquarium.addFish(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE,
+                        "F" + i);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    public void testSnapshotMatchesAquarium() {
+        testAquarium.getFood().add(0.5, 0.25);
+        AquariumSnapshot snapshot = testAquarium.snapshot();
+
+        assertEquals(testAquarium.getCleanness(), snapshot.getCleanness());
+        assertEquals(3 * AquariumSnapshot.CHUNK_SIZE, snapshot.getNumFish());
+        assertEquals(snapshot.getNumFish(), snapshot.getNumSlots());
+        assertEquals(snapshot.getNumFish(), snapshot.getStats().getNumAlive());
+        FishPopulation population = testAquarium.getPopulation();
+        for (int i = 0; i < snapshot.getNumSlots(); i++) {
+            assertTrue(snapshot.isOccupied(i));
+            assertEquals(population.getName(i), snapshot.getName(i));
+            assertEquals(population.getCoordinateX(i), snapshot.getCoordinateX(i));
+            assertEquals(population.getCoordinateY(i), snapshot.getCoordinateY(i));
+            assertEquals(population.getDirection(i), snapshot.getDirection(i));
+        }
+        assertFalse(snapshot.isOccupied(snapshot.getNumSlots()));
+        assertEquals(1, snapshot.getNumPellets());
+        assertEquals(0.5, snapshot.getPelletX(0));
+        assertEquals(0.25, snapshot.getPelletY(0));
+    }
+
+    @Test
+    public void testSnapshotUnchangedByLaterChanges() {
+        AquariumSnapshot snapshot = testAquarium.snapshot();
+        double x = snapshot.getCoordinateX(0);
+
+        testAquarium.passTime(3);
+        testAquarium.updateFishCoordinates();
+        testAquarium.getLastFish().setName("Renamed");
+        testAquarium.copyFishList().get(0).die();
+
+        assertEquals(FISH_INITIAL_HUNGER_VALUE, snapshot.getHungerLevel(0));
+        assertEquals(GROWTH_TIMER_START_VALUE, snapshot.getGrowthTimer(0));
+        assertEquals(ALIVE, snapshot.getStatus(0));
+        assertEquals(x, snapshot.getCoordinateX(0));
+        assertEquals("F" + (snapshot.getNumSlots() - 1), snapshot.getName(snapshot.getNumSlots() - 1));
+
+        // a new snapshot sees the changes, hunger worked out from clock
+        AquariumSnapshot later = testAquarium.snapshot();
+        assertEquals(DEAD, later.getStatus(0));
+        assertEquals(FISH_INITIAL_HUNGER_VALUE + 3, later.getHungerLevel(1));
+        assertEquals(GROWTH_TIMER_START_VALUE - 3, later.getGrowthTimer(1));
+        assertEquals("Renamed", later.getName(later.getNumSlots() - 1));
+    }
+
+    @Test
+    public void testUnchangedChunksShared() {
+        AquariumSnapshot first = testAquarium.snapshot();
+
+        // passing time without deadlines and moving fish changes no chunk
+        testAquarium.passTime();
+        testAquarium.updateFishCoordinates();
+        AquariumSnapshot second = testAquarium.snapshot();
+        assertTrue(second.sharesChunk(first, 0));
+        assertTrue(second.sharesChunk(first, AquariumSnapshot.CHUNK_SIZE));
+        assertEquals(FISH_INITIAL_HUNGER_VALUE + 1, second.getHungerLevel(0));
+
+        // only the chunk of the renamed fish is copied
+        testAquarium.copyFishList().get(AquariumSnapshot.CHUNK_SIZE + 5).setName("Dory");
+        AquariumSnapshot third = testAquarium.snapshot();
+        assertTrue(third.sharesChunk(second, 0));
+        assertFalse(third.sharesChunk(second, AquariumSnapshot.CHUNK_SIZE));
+        assertTrue(third.sharesChunk(second, 2 * AquariumSnapshot.CHUNK_SIZE));
+        assertEquals("Dory", third.getName(AquariumSnapshot.CHUNK_SIZE + 5));
+        assertEquals("F" + (AquariumSnapshot.CHUNK_SIZE + 5), second.getName(AquariumSnapshot.CHUNK_SIZE + 5));
+    }
+
+    @Test
+    public void testSnapshotAfterClean() {
+        testAquarium.copyFishList().get(0).die();
+        testAquarium.clean();
+        AquariumSnapshot snapshot = testAquarium.snapshot();
+
+        assertFalse(snapshot.isOccupied(0));
+        assertTrue(snapshot.isOccupied(1));
+        assertEquals(3 * AquariumSnapshot.CHUNK_SIZE - 1, snapshot.getNumFish());
+    }
+
+    @Test
+    public void testToJsonSameAsAquarium() {
+        testAquarium.passTime(2);
+        testAquarium.copyFishList().get(3).feed();
+        JSONObject expected = testAquarium.toJson();
+        JSONObject json = testAquarium.snapshot().toJson();
+
+        assertEquals(expected.toString(), json.toString());
+    }
+
+    @Test
+    public void testForEachChangeSince() throws IllegalFishException {
+        AquariumSnapshot first = testAquarium.snapshot();
+        List<Integer> changed = new ArrayList<>();
+        List<Integer> removed = new ArrayList<>();
+
+        // aging alone changes no fish
+        testAquarium.passTime(3);
+        AquariumSnapshot second = testAquarium.snapshot();
+        second.forEachChangeSince(first, changed::add, removed::add);
+        assertTrue(changed.isEmpty());
+        assertTrue(removed.isEmpty());
+
+        testAquarium.copyFishList().get(5).feed();
+        testAquarium.copyFishList().get(AquariumSnapshot.CHUNK_SIZE).die();
+        testAquarium.addFish();
+        AquariumSnapshot third = testAquarium.snapshot();
+        third.forEachChangeSince(second, changed::add, removed::add);
+        assertEquals(3, changed.size());
+        assertTrue(changed.contains(5));
+        assertTrue(changed.contains(AquariumSnapshot.CHUNK_SIZE));
+        assertTrue(changed.contains(3 * AquariumSnapshot.CHUNK_SIZE));
+        assertTrue(removed.isEmpty());
+
+        changed.clear();
+        testAquarium.clean();
+        AquariumSnapshot fourth = testAquarium.snapshot();
+        fourth.forEachChangeSince(third, changed::add, removed::add);
+        assertEquals(1, removed.size());
+        assertEquals(third.getId(AquariumSnapshot.CHUNK_SIZE), (int) removed.get(0));
+        assertTrue(third.isOfSameAquarium(fourth));
+        assertFalse(third.isOfSameAquarium(new Aquarium().snapshot()));
+    }
+}
@@ -3,18 +3,25 @@ package model;
 import static model.Aquarium.*;
 import static model.Fish.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import exception.IllegalAquariumException;
 import exception.IllegalFishException;
+import exception.OutOfBoundsException;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
 /*
  * Tests for Aquarium Class
  */
 public class AquariumTests {
+    private static final int MEASURED_TICKS = 50000;
+    private static final long MAX_ALLOCATED_BYTES = 8 * 1024;
     private Aquarium testAquarium;
 
     @BeforeEach
@@ -25,7 +32,7 @@ public class AquariumTests {
     @Test
     public void testAquariumConstructor() {
         assertEquals(MAX_CLEANNESS_LEVEL, testAquarium.getCleanness());
-        assertTrue(testAquarium.getFishList().isEmpty());
+        assertTrue(testAquarium.copyFishList().isEmpty());
     }
 
     @Test
@@ -72,7 +79,7 @@ public class AquariumTests {
         testAquarium.passTime();
 
         assertEquals(MAX_CLEANNESS_LEVEL - 1, testAquarium.getCleanness());
-        assertTrue(testAquarium.getFishList().isEmpty());
+        assertTrue(testAquarium.copyFishList().isEmpty());
     }
 
     @Test
@@ -89,7 +96,7 @@ public class AquariumTests {
 
         // test that cleanness is not below minimum cleanness with no fish
         assertEquals(MIN_CLEANNESS_LEVEL, testAquarium.getCleanness());
-        assertTrue(testAquarium.getFishList().isEmpty());
+        assertTrue(testAquarium.copyFishList().isEmpty());
     }
 
     @Test
@@ -105,8 +112,8 @@ public class AquariumTests {
         testAquarium.addFish(testFish);
 
         // test if fish is in fishList
-        assertEquals(1, testAquarium.getFishList().size());
-        assertTrue(testAquarium.getFishList().contains(testFish));
+        assertEquals(1, testAquarium.copyFishList().size());
+        assertTrue(testAquarium.copyFishList().contains(testFish));
     }
 
     @Test
@@ -117,11 +124,11 @@ public class AquariumTests {
         } catch (IllegalFishException e) {
             fail("Unexpected exception");
         }
-        assertEquals(1, testAquarium.getFishList().size());
-        assertEquals(3, testAquarium.getFishList().get(0).getHungerLevel());
-        assertEquals(ALIVE, testAquarium.getFishList().get(0).getStatus());
-        assertEquals(4, testAquarium.getFishList().get(0).getGrowthTimer());
-        assertEquals(2, testAquarium.getFishList().get(0).getSize());
+        assertEquals(1, testAquarium.copyFishList().size());
+        assertEquals(3, testAquarium.copyFishList().get(0).getHungerLevel());
+        assertEquals(ALIVE, testAquarium.copyFishList().get(0).getStatus());
+        assertEquals(4, testAquarium.copyFishList().get(0).getGrowthTimer());
+        assertEquals(2, testAquarium.copyFishList().get(0).getSize());
 
         // add another fish, check size
         try {
@@ -129,7 +136,7 @@ public class AquariumTests {
         } catch (IllegalFishException e) {
             fail("Unexpected exception");
         }
-        assertEquals(2, testAquarium.getFishList().size());
+        assertEquals(2, testAquarium.copyFishList().size());
     }
 
     @Test
@@ -139,13 +146,13 @@ public class AquariumTests {
         } catch (IllegalFishException e) {
             fail("Unexpected exception");
         }
-        assertEquals(1, testAquarium.getFishList().size());
+        assertEquals(1, testAquarium.copyFishList().size());
         try {
             testAquarium.addFish();
         } catch (IllegalFishException e) {
             fail("Unexpected exception");
         }
-        assertEquals(2, testAquarium.getFishList().size());
+        assertEquals(2, testAquarium.copyFishList().size());
 
     }
 
@@ -166,10 +173,10 @@ public class AquariumTests {
 
         // test change in values, hunger and growth
         assertEquals(MAX_CLEANNESS_LEVEL - 1, testAquarium.getCleanness());
-        assertEquals(1, testAquarium.getFishList().size());
-        assertEquals(FISH_INITIAL_HUNGER_VALUE + 1, testAquarium.getFishList().get(0).getHungerLevel());
-        assertEquals(GROWTH_TIMER_START_VALUE - 1, testAquarium.getFishList().get(0).getGrowthTimer());
-        assertEquals(FISH_MIN_SIZE, testAquarium.getFishList().get(0).getSize());
+        assertEquals(1, testAquarium.copyFishList().size());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE + 1, testAquarium.copyFishList().get(0).getHungerLevel());
+        assertEquals(GROWTH_TIMER_START_VALUE - 1, testAquarium.copyFishList().get(0).getGrowthTimer());
+        assertEquals(FISH_MIN_SIZE, testAquarium.copyFishList().get(0).getSize());
 
     }
 
@@ -190,11 +197,11 @@ public class AquariumTests {
 
         // test no change due fish status dead
         assertEquals(MAX_CLEANNESS_LEVEL - 1, testAquarium.getCleanness());
-        assertEquals(1, testAquarium.getFishList().size());
-        assertEquals(FISH_INITIAL_HUNGER_VALUE, testAquarium.getFishList().get(0).getHungerLevel());
-        assertEquals(GROWTH_TIMER_START_VALUE, testAquarium.getFishList().get(0).getGrowthTimer());
-        assertEquals(FISH_MIN_SIZE, testAquarium.getFishList().get(0).getSize());
-        assertEquals(DEAD, testAquarium.getFishList().get(0).getStatus());
+        assertEquals(1, testAquarium.copyFishList().size());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE, testAquarium.copyFishList().get(0).getHungerLevel());
+        assertEquals(GROWTH_TIMER_START_VALUE, testAquarium.copyFishList().get(0).getGrowthTimer());
+        assertEquals(FISH_MIN_SIZE, testAquarium.copyFishList().get(0).getSize());
+        assertEquals(DEAD, testAquarium.copyFishList().get(0).getStatus());
     }
 
     @Test
@@ -222,15 +229,15 @@ public class AquariumTests {
 
         // test first fish, with change
         assertEquals(MAX_CLEANNESS_LEVEL - 1, testAquarium.getCleanness());
-        assertEquals(2, testAquarium.getFishList().size());
-        assertEquals(FISH_INITIAL_HUNGER_VALUE + 1, testAquarium.getFishList().get(0).getHungerLevel());
-        assertEquals(GROWTH_TIMER_START_VALUE - 1, testAquarium.getFishList().get(0).getGrowthTimer());
-        assertEquals(FISH_MIN_SIZE, testAquarium.getFishList().get(0).getSize());
+        assertEquals(2, testAquarium.copyFishList().size());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE + 1, testAquarium.copyFishList().get(0).getHungerLevel());
+        assertEquals(GROWTH_TIMER_START_VALUE - 1, testAquarium.copyFishList().get(0).getGrowthTimer());
+        assertEquals(FISH_MIN_SIZE, testAquarium.copyFishList().get(0).getSize());
         // test second fish, no change due status dead
-        assertEquals(FISH_INITIAL_HUNGER_VALUE, testAquarium.getFishList().get(1).getHungerLevel());
-        assertEquals(GROWTH_TIMER_START_VALUE, testAquarium.getFishList().get(1).getGrowthTimer());
-        assertEquals(FISH_MIN_SIZE, testAquarium.getFishList().get(1).getSize());
-        assertEquals(DEAD, testAquarium.getFishList().get(1).getStatus());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE, testAquarium.copyFishList().get(1).getHungerLevel());
+        assertEquals(GROWTH_TIMER_START_VALUE, testAquarium.copyFishList().get(1).getGrowthTimer());
+        assertEquals(FISH_MIN_SIZE, testAquarium.copyFishList().get(1).getSize());
+        assertEquals(DEAD, testAquarium.copyFishList().get(1).getStatus());
     }
 
     @Test
@@ -266,22 +273,220 @@ public class AquariumTests {
 
         // Check aquarium cleanness and size
         assertEquals(MAX_CLEANNESS_LEVEL - 1, testAquarium.getCleanness());
-        assertEquals(3, testAquarium.getFishList().size());
+        assertEquals(3, testAquarium.copyFishList().size());
         // Fish fish, with starve
-        assertEquals(FISH_HUNGER_TO_STARVE, testAquarium.getFishList().get(0).getHungerLevel());
-        assertEquals(GROWTH_TIMER_START_VALUE - 1, testAquarium.getFishList().get(0).getGrowthTimer());
-        assertEquals(FISH_MIN_SIZE, testAquarium.getFishList().get(0).getSize());
-        assertEquals(DEAD, testAquarium.getFishList().get(0).getStatus());
+        assertEquals(FISH_HUNGER_TO_STARVE, testAquarium.copyFishList().get(0).getHungerLevel());
+        assertEquals(GROWTH_TIMER_START_VALUE - 1, testAquarium.copyFishList().get(0).getGrowthTimer());
+        assertEquals(FISH_MIN_SIZE, testAquarium.copyFishList().get(0).getSize());
+        assertEquals(DEAD, testAquarium.copyFishList().get(0).getStatus());
         // Second fish, no change due status
-        assertEquals(FISH_INITIAL_HUNGER_VALUE, testAquarium.getFishList().get(1).getHungerLevel());
-        assertEquals(GROWTH_TIMER_START_VALUE, testAquarium.getFishList().get(1).getGrowthTimer());
-        assertEquals(FISH_MIN_SIZE, testAquarium.getFishList().get(1).getSize());
-        assertEquals(DEAD, testAquarium.getFishList().get(1).getStatus());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE, testAquarium.copyFishList().get(1).getHungerLevel());
+        assertEquals(GROWTH_TIMER_START_VALUE, testAquarium.copyFishList().get(1).getGrowthTimer());
+        assertEquals(FISH_MIN_SIZE, testAquarium.copyFishList().get(1).getSize());
+        assertEquals(DEAD, testAquarium.copyFishList().get(1).getStatus());
         // third fish, with growth
-        assertEquals(FISH_INITIAL_HUNGER_VALUE + 1, testAquarium.getFishList().get(2).getHungerLevel());
-        assertEquals(GROWTH_TIMER_START_VALUE, testAquarium.getFishList().get(2).getGrowthTimer());
-        assertEquals(FISH_MIN_SIZE + 1, testAquarium.getFishList().get(2).getSize());
-        assertEquals(ALIVE, testAquarium.getFishList().get(2).getStatus());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE + 1, testAquarium.copyFishList().get(2).getHungerLevel());
+        assertEquals(GROWTH_TIMER_START_VALUE, testAquarium.copyFishList().get(2).getGrowthTimer());
+        assertEquals(FISH_MIN_SIZE + 1, testAquarium.copyFishList().get(2).getSize());
+        assertEquals(ALIVE, testAquarium.copyFishList().get(2).getStatus());
+    }
+
+    @Test
+    public void testPassTimeParallelSameAsSequential() {
+        Aquarium parallelAquarium = new Aquarium();
+        parallelAquarium.setParallelism(4);
+        parallelAquarium.setParallelThreshold(0);
+        assertEquals(4, parallelAquarium.getParallelism());
+        assertEquals(0, parallelAquarium.getParallelThreshold());
+
+        // same fish in both aquariums, with various hunger and growth timer values
+        try {
+            for (int i = 0; i < 1000; i++) {
+                int hunger = i % FISH_HUNGER_TO_STARVE;
+                int timer = i % (GROWTH_TIMER_START_VALUE + 1);
+                int status = i % 7 == 0 ? DEAD : ALIVE;
+                testAquarium.addFish(FISH_MIN_SIZE, hunger, status, timer);
+                parallelAquarium.addFish(FISH_MIN_SIZE, hunger, status, timer);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+
+        for (int tick = 0; tick < 60; tick++) {
+            testAquarium.passTime();
+            parallelAquarium.passTime();
+        }
+
+        // test both aquariums ended up in the same state
+        assertEquals(testAquarium.getCleanness(), parallelAquarium.getCleanness());
+        FishPopulation sequential = testAquarium.getPopulation();
+        FishPopulation parallel = parallelAquarium.getPopulation();
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.getHungerLevel(i), parallel.getHungerLevel(i));
+            assertEquals(sequential.getGrowthTimer(i), parallel.getGrowthTimer(i));
+            assertEquals(sequential.getSize(i), parallel.getSize(i));
+            assertEquals(sequential.getStatus(i), parallel.getStatus(i));
+        }
+        parallelAquarium.setParallelism(1);
+    }
+
+    @Test
+    public void testFindFishInRadiusAndRect() {
+        Fish first = null;
+        Fish second = null;
+        try {
+            testAquarium.addFish();
+            testAquarium.addFish();
+            first = testAquarium.copyFishList().get(0);
+            second = testAquarium.copyFishList().get(1);
+            first.setCoordinateX(0.2);
+            first.setCoordinateY(0.2);
+            second.setCoordinateX(0.8);
+            second.setCoordinateY(0.3);
+        } catch (IllegalFishException | OutOfBoundsException e) {
+            fail("Unexpected exception");
+        }
+
+        assertEquals(1, testAquarium.findFishInRadius(0.25, 0.25, 0.1).size());
+        assertSame(first, testAquarium.findFishInRadius(0.25, 0.25, 0.1).get(0));
+        assertEquals(0, testAquarium.findFishInRadius(0.5, 0.5, 0.1).size());
+        assertEquals(2, testAquarium.findFishInRect(0.0, 0.0, 1.0, 0.5).size());
+        assertSame(second, testAquarium.findFishInRect(0.5, 0.0, 1.0, 0.5).get(0));
+    }
+
+    @Test
+    public void testDropFoodEatenByNearestHungryFish() {
+        Fish near = null;
+        Fish far = null;
+        Fish stuffed = null;
+        try {
+            testAquarium.addFish(FISH_MIN_SIZE, 10, ALIVE, GROWTH_TIMER_START_VALUE);
+            testAquarium.addFish(FISH_MIN_SIZE, 10, ALIVE, GROWTH_TIMER_START_VALUE);
+            testAquarium.addFish(FISH_MIN_SIZE, FISH_MIN_HUNGER, ALIVE, GROWTH_TIMER_START_VALUE);
+            near = testAquarium.copyFishList().get(0);
+            far = testAquarium.copyFishList().get(1);
+            stuffed = testAquarium.copyFishList().get(2);
+            for (Fish fish : testAquarium.copyFishList()) {
+                fish.setCoordinateY(0.5);
+            }
+            near.setCoordinateX(0.51);
+            far.setCoordinateX(0.9);
+            stuffed.setCoordinateX(0.5);
+        } catch (IllegalFishException | OutOfBoundsException e) {
+            fail("Unexpected exception");
+        }
+        testAquarium.getFood().add(0.5, 0.5 - FoodPellets.SINK_SPEED);
+
+        // fish speed is at most MAX_SPEED, so near fish is still the nearest hungry one after moving
+        testAquarium.updateFishCoordinates();
+        assertEquals(0, testAquarium.getFood().size());
+        assertEquals(10 - FISH_FOOD_AMOUNT, near.getHungerLevel());
+        assertEquals(10, far.getHungerLevel());
+        assertEquals(FISH_MIN_HUNGER, stuffed.getHungerLevel());
+    }
+
+    @Test
+    public void testDropFoodSinksAndIsCleaned() {
+        testAquarium.dropFood(3);
+        assertEquals(3, testAquarium.getFood().size());
+        for (int step = 0; step < 1000; step++) {
+            testAquarium.updateFishCoordinates();
+        }
+        assertEquals(FoodPellets.BOTTOM, testAquarium.getFood().getCoordinateY(0));
+
+        testAquarium.clean();
+        assertEquals(0, testAquarium.getFood().size());
+    }
+
+    @Test
+    public void testSetSchooling() {
+        assertFalse(testAquarium.isSchooling());
+        testAquarium.setSchooling(true);
+        assertTrue(testAquarium.isSchooling());
+        testAquarium.setSchooling(false);
+        assertFalse(testAquarium.isSchooling());
+    }
+
+    @Test
+    public void testTickPathAllocatesAlmostNothing() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        // allocation counting is an extension of HotSpot JVMs, skip where it is missing or turned off
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        try {
+            for (int i = 0; i < 1000; i++) {
+                testAquarium.addFish(FISH_MIN_SIZE, i % FISH_HUNGER_TO_STARVE, ALIVE, i % GROWTH_TIMER_START_VALUE);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        long threadId = Thread.currentThread().getId();
+
+        // warm up until wheel buckets and scratch arrays have reached their steady size
+        runTicks(MEASURED_TICKS);
+        allocations.getThreadAllocatedBytes(threadId);
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        runTicks(MEASURED_TICKS);
+        long after = allocations.getThreadAllocatedBytes(threadId);
+
+        // a total for all ticks, below one TLAB refill, rather than 0, so a stray allocation of the JIT or of the
+        // measuring does not fail the suite; even 1 byte per tick, such as an iterator or a lambda allocated on
+        // some ticks only, goes past it
+        assertTrue(after - before < MAX_ALLOCATED_BYTES,
+                (after - before) + " bytes allocated over " + MEASURED_TICKS + " ticks");
+        assertTrue(testAquarium.isAnyFishAlive());
+    }
+
+    // MODIFIES: testAquarium
+    // EFFECTS: passes ticks ticks, moving fish every tick and feeding them every fifth tick
+    private void runTicks(int ticks) {
+        for (int tick = 0; tick < ticks; tick++) {
+            testAquarium.passTime();
+            testAquarium.updateFishCoordinates();
+            if (tick % 5 == 0) {
+                testAquarium.feedAllFish();
+            }
+        }
+    }
+
+    @Test
+    public void testPassTimeManyTicksSameAsLoop() {
+        long[] tickCounts = {0, 1, 2, 13, 14, 15, 16, 49, 50, 51, 101, 1000, Long.MAX_VALUE};
+        for (long ticks : tickCounts) {
+            Aquarium looped = null;
+            Aquarium jumped = null;
+            try {
+                looped = new Aquarium(MAX_CLEANNESS_LEVEL - 5);
+                jumped = new Aquarium(MAX_CLEANNESS_LEVEL - 5);
+                for (int hunger = 0; hunger <= FISH_HUNGER_TO_STARVE + 1; hunger++) {
+                    for (int timer = GROWTH_TIMER_END_VALUE; timer <= GROWTH_TIMER_START_VALUE; timer += 7) {
+                        int size = hunger % 2 == 0 ? FISH_MIN_SIZE : FISH_MAX_SIZE - 1;
+                        int status = timer % 3 == 0 ? DEAD : ALIVE;
+                        looped.addFish(size, hunger, status, timer);
+                        jumped.addFish(size, hunger, status, timer);
+                    }
+                }
+            } catch (IllegalAquariumException | IllegalFishException e) {
+                fail("Unexpected exception");
+            }
+
+            // loop at most until every fish has starved, after that nothing changes but cleanness
+            for (long tick = 0; tick < Math.min(ticks, 2000); tick++) {
+                looped.passTime();
+            }
+            jumped.passTime(ticks);
+
+            assertEquals(looped.getCleanness(), jumped.getCleanness());
+            FishPopulation expected = looped.getPopulation();
+            FishPopulation actual = jumped.getPopulation();
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.getHungerLevel(i), actual.getHungerLevel(i));
+                assertEquals(expected.getGrowthTimer(i), actual.getGrowthTimer(i));
+                assertEquals(expected.getSize(i), actual.getSize(i));
+                assertEquals(expected.getStatus(i), actual.getStatus(i));
+            }
+        }
     }
 
     @Test
@@ -300,9 +505,9 @@ public class AquariumTests {
         testAquarium.feedAllFish();
 
         // test is fed
-        assertEquals(1, testAquarium.getFishList().size());
+        assertEquals(1, testAquarium.copyFishList().size());
         assertEquals(Math.max(FISH_INITIAL_HUNGER_VALUE - FISH_FOOD_AMOUNT, FISH_MIN_HUNGER),
-                testAquarium.getFishList().get(0).getHungerLevel());
+                testAquarium.copyFishList().get(0).getHungerLevel());
     }
 
     @Test
@@ -321,8 +526,8 @@ public class AquariumTests {
         testAquarium.feedAllFish();
 
         // test no fish has been fed
-        assertEquals(1, testAquarium.getFishList().size());
-        assertEquals(FISH_INITIAL_HUNGER_VALUE, testAquarium.getFishList().get(0).getHungerLevel());
+        assertEquals(1, testAquarium.copyFishList().size());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE, testAquarium.copyFishList().get(0).getHungerLevel());
     }
 
     @Test
@@ -357,12 +562,12 @@ public class AquariumTests {
         testAquarium.feedAllFish();
 
         // test all alive fish are fed and that hunger does not go below minimum hunger level
-        assertEquals(3, testAquarium.getFishList().size());
+        assertEquals(3, testAquarium.copyFishList().size());
         assertEquals(Math.max(FISH_INITIAL_HUNGER_VALUE - FISH_FOOD_AMOUNT, FISH_MIN_HUNGER),
-                testAquarium.getFishList().get(0).getHungerLevel());
+                testAquarium.copyFishList().get(0).getHungerLevel());
         assertEquals(Math.max(FISH_INITIAL_HUNGER_VALUE, FISH_MIN_HUNGER),
-                testAquarium.getFishList().get(1).getHungerLevel());
-        assertEquals(FISH_MIN_HUNGER, testAquarium.getFishList().get(2).getHungerLevel());
+                testAquarium.copyFishList().get(1).getHungerLevel());
+        assertEquals(FISH_MIN_HUNGER, testAquarium.copyFishList().get(2).getHungerLevel());
     }
 
     @Test
@@ -383,7 +588,7 @@ public class AquariumTests {
     @Test
     public void testIsAnyFishAliveNoFish() {
         assertFalse(testAquarium.isAnyFishAlive());
-        assertEquals(0, testAquarium.getFishList().size());
+        assertEquals(0, testAquarium.copyFishList().size());
     }
 
     @Test
@@ -397,7 +602,7 @@ public class AquariumTests {
 
         // test that there is alive fish
         assertTrue(testAquarium.isAnyFishAlive());
-        assertEquals(1, testAquarium.getFishList().size());
+        assertEquals(1, testAquarium.copyFishList().size());
     }
 
     @Test
@@ -414,7 +619,7 @@ public class AquariumTests {
 
         // test that there are no alive fish
         assertFalse(testAquarium.isAnyFishAlive());
-        assertEquals(1, testAquarium.getFishList().size());
+        assertEquals(1, testAquarium.copyFishList().size());
     }
 
     @Test
@@ -444,14 +649,14 @@ public class AquariumTests {
 
         // test that there are alive fish
         assertTrue(testAquarium.isAnyFishAlive());
-        assertEquals(3, testAquarium.getFishList().size());
+        assertEquals(3, testAquarium.copyFishList().size());
 
     }
 
     @Test
     public void testIsAnyFishDeadNoFish() {
         assertFalse(testAquarium.isAnyFishDead());
-        assertEquals(0, testAquarium.getFishList().size());
+        assertEquals(0, testAquarium.copyFishList().size());
 
     }
 
@@ -466,7 +671,7 @@ public class AquariumTests {
 
         // test that there is no dead fish
         assertFalse(testAquarium.isAnyFishDead());
-        assertEquals(1, testAquarium.getFishList().size());
+        assertEquals(1, testAquarium.copyFishList().size());
 
     }
 
@@ -484,7 +689,7 @@ public class AquariumTests {
 
         // test that there are is dead fish
         assertTrue(testAquarium.isAnyFishDead());
-        assertEquals(1, testAquarium.getFishList().size());
+        assertEquals(1, testAquarium.copyFishList().size());
 
     }
 
@@ -512,7 +717,98 @@ public class AquariumTests {
 
         // test that there is dead fish
         assertTrue(testAquarium.isAnyFishAlive());
-        assertEquals(3, testAquarium.getFishList().size());
+        assertEquals(3, testAquarium.copyFishList().size());
+    }
+
+    @Test
+    public void testGetStatsEmpty() {
+        AquariumStats stats = testAquarium.getStats();
+        assertEquals(0, stats.getNumFish());
+        assertEquals(0, stats.getNumAlive());
+        assertEquals(0, stats.getNumDead());
+        assertEquals(0, stats.getBiomass());
+        assertEquals(0, stats.getMeanHunger());
+    }
+
+    @Test
+    public void testGetStatsThroughChanges() {
+        try {
+            testAquarium.addFish(2, 4, ALIVE, GROWTH_TIMER_START_VALUE);
+            testAquarium.addFish(3, 6, ALIVE, 1);
+            testAquarium.addFish(5, 1, DEAD, GROWTH_TIMER_START_VALUE);
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        AquariumStats stats = testAquarium.getStats();
+        assertEquals(2, stats.getNumAlive());
+        assertEquals(1, stats.getNumDead());
+        assertEquals(5, stats.getBiomass());
+        assertEquals(5.0, stats.getMeanHunger());
+        assertEquals("alive=2 dead=1 biomass=5 meanHunger=5.0", stats.toString());
+
+        // second fish grows, both get hungrier
+        testAquarium.passTime();
+        stats = testAquarium.getStats();
+        assertEquals(6, stats.getBiomass());
+        assertEquals(6.0, stats.getMeanHunger());
+
+        // first fish is fed, second dies
+        testAquarium.feedAllFish();
+        testAquarium.copyFishList().get(1).die();
+        stats = testAquarium.getStats();
+        assertEquals(1, stats.getNumAlive());
+        assertEquals(2, stats.getNumDead());
+        assertEquals(2, stats.getBiomass());
+        assertEquals(0.0, stats.getMeanHunger());
+
+        // cleaning removes dead fish
+        testAquarium.clean();
+        stats = testAquarium.getStats();
+        assertEquals(1, stats.getNumAlive());
+        assertEquals(0, stats.getNumDead());
+    }
+
+    @Test
+    public void testGetHistogramsThroughChanges() {
+        try {
+            testAquarium.addFish(2, 0, ALIVE, GROWTH_TIMER_START_VALUE);
+            testAquarium.addFish(3, 5, ALIVE, 1);
+            testAquarium.addFish(FISH_MAX_SIZE + 4, FISH_HUNGER_TO_STARVE + 3, ALIVE, GROWTH_TIMER_START_VALUE);
+            testAquarium.addFish(5, 1, DEAD, GROWTH_TIMER_START_VALUE);
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        FishHistograms histograms = testAquarium.getHistograms();
+        assertEquals(1, histograms.getHungerCount(0));
+        assertEquals(1, histograms.getHungerCount(1));
+        assertEquals(0, histograms.getHungerCount(2));
+        assertEquals(1, histograms.getHungerCount(3));
+        assertEquals(1, histograms.getSizeCount(2));
+        assertEquals(1, histograms.getSizeCount(3));
+        assertEquals(1, histograms.getSizeCount(FISH_MAX_SIZE));
+        assertEquals(0, histograms.getSizeCount(5));
+        assertEquals("hunger: Stuffed=1 Not Hungry=1 Hungry=0 Starving=1 size: 2=1 3=1 20=1", histograms.toString());
+
+        // first fish is no longer stuffed, second fish grows and gets hungry, third starves
+        testAquarium.passTime();
+        histograms = testAquarium.getHistograms();
+        assertEquals(0, histograms.getHungerCount(0));
+        assertEquals(1, histograms.getHungerCount(1));
+        assertEquals(1, histograms.getHungerCount(2));
+        assertEquals(0, histograms.getHungerCount(3));
+        assertEquals(0, histograms.getSizeCount(3));
+        assertEquals(1, histograms.getSizeCount(4));
+        assertEquals(0, histograms.getSizeCount(FISH_MAX_SIZE));
+
+        // many ticks later the first fish is hungry and the second starving, feeding moves both down a category
+        testAquarium.passTime(8);
+        assertEquals(1, testAquarium.getHistograms().getHungerCount(2));
+        assertEquals(1, testAquarium.getHistograms().getHungerCount(3));
+        testAquarium.feedAllFish();
+        assertEquals(1, testAquarium.getHistograms().getHungerCount(1));
+        assertEquals(1, testAquarium.getHistograms().getHungerCount(2));
+        assertEquals(0, testAquarium.getHistograms().getHungerCount(3));
+        assertEquals(testAquarium.getHistograms().toString(), testAquarium.snapshot().getHistograms().toString());
     }
 
     @Test
@@ -559,7 +855,7 @@ public class AquariumTests {
         // Not clean aquarium, no fish
         testAquarium.passTime();
         assertNotEquals(MAX_CLEANNESS_LEVEL, testAquarium.getCleanness());
-        assertEquals(0, testAquarium.getFishList().size());
+        assertEquals(0, testAquarium.copyFishList().size());
 
 
         // add fish then clean
@@ -572,7 +868,7 @@ public class AquariumTests {
 
         // test fish still present and clean
         assertEquals(MAX_CLEANNESS_LEVEL, testAquarium.getCleanness());
-        assertEquals(1, testAquarium.getFishList().size());
+        assertEquals(1, testAquarium.copyFishList().size());
     }
 
     @Test
@@ -609,8 +905,101 @@ public class AquariumTests {
 
         // test if alive fish is still present
         assertEquals(MAX_CLEANNESS_LEVEL, testAquarium.getCleanness());
-        assertEquals(1, testAquarium.getFishList().size());
-        assertTrue(testAquarium.getFishList().contains(keepFish));
+        assertEquals(1, testAquarium.copyFishList().size());
+        assertTrue(testAquarium.copyFishList().contains(keepFish));
+    }
+
+    @Test
+    public void testFishIdsStableThroughClean() {
+        try {
+            for (int i = 0; i < 10; i++) {
+                testAquarium.addFish(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE,
+                        "F" + i);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, testAquarium.copyFishList().get(i).getId());
+        }
+        assertEquals(10, testAquarium.getNextFishId());
+
+        // killing most fish forces a compaction, which moves fish 9 down to the front
+        for (int i = 0; i < 9; i++) {
+            testAquarium.getFishById(i).die();
+        }
+        testAquarium.clean();
+        assertNull(testAquarium.getFishById(0));
+        assertEquals("F9", testAquarium.getFishById(9).getName());
+        assertEquals(testAquarium.copyFishList().get(0), testAquarium.getFishById(9));
+        assertTrue(testAquarium.getFishByName("F3").isEmpty());
+        assertEquals(1, testAquarium.getFishByName("F9").size());
+
+        // ids are never reused
+        try {
+            testAquarium.addFish();
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        assertEquals(10, testAquarium.getLastFish().getId());
+        assertNull(testAquarium.getFishById(11));
+    }
+
+    @Test
+    public void testGetFishByName() {
+        try {
+            testAquarium.addFish(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, "Nemo");
+            testAquarium.addFish(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, "Dory");
+            testAquarium.addFish(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, "Nemo");
+            testAquarium.addFish();
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        assertEquals(2, testAquarium.getFishByName("Nemo").size());
+        assertEquals(testAquarium.getFishById(1), testAquarium.getFishByName("Dory").get(0));
+        assertTrue(testAquarium.getFishByName("Bruce").isEmpty());
+        assertTrue(testAquarium.getFishByName(null).isEmpty());
+
+        testAquarium.getFishById(0).setName("Bruce");
+        assertEquals(1, testAquarium.getFishByName("Nemo").size());
+        assertEquals(2, testAquarium.getFishByName("Nemo").get(0).getId());
+        testAquarium.getFishById(3).setName("Nemo");
+        testAquarium.getFishById(2).setName(null);
+        assertEquals(1, testAquarium.getFishByName("Nemo").size());
+        assertEquals(3, testAquarium.getFishByName("Nemo").get(0).getId());
+
+        // removed fish leave the name index, and keep their id
+        Fish bruce = testAquarium.getFishById(0);
+        bruce.die();
+        testAquarium.clean();
+        assertTrue(testAquarium.getFishByName("Bruce").isEmpty());
+        assertEquals(0, bruce.getId());
+    }
+
+    @Test
+    public void testAddFishWithId() {
+        try {
+            testAquarium.addFish(41, FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, null);
+            testAquarium.addFish();
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        assertEquals(41, testAquarium.copyFishList().get(0).getId());
+        assertEquals(42, testAquarium.getLastFish().getId());
+
+        try {
+            testAquarium.addFish(42, FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, null);
+            fail("Taken id");
+        } catch (IllegalFishException e) {
+            // expected
+        }
+        try {
+            testAquarium.addFish(-1, FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, null);
+            fail("Negative id");
+        } catch (IllegalFishException e) {
+            // expected
+        }
+        assertEquals(2, testAquarium.copyFishList().size());
     }
 
     @Test
@@ -638,6 +1027,7 @@ public class AquariumTests {
         assertEquals(2, jsonAquarium.getJSONArray("fishList").length());
 
         // test to check aliveFish
+        assertEquals(0, jsonFishList.getJSONObject(0).getInt("id"));
         assertEquals(JSONObject.NULL,jsonFishList.getJSONObject(0).get("name"));
         assertEquals(FISH_INITIAL_HUNGER_VALUE, jsonFishList.getJSONObject(0).getInt("hungerLevel"));
         assertEquals(GROWTH_TIMER_START_VALUE, jsonFishList.getJSONObject(0).getInt("growthTimer"));
@@ -645,6 +1035,7 @@ public class AquariumTests {
         assertEquals(ALIVE, jsonFishList.getJSONObject(0).getInt("status"));
 
         // test to check deadFish
+        assertEquals(1, jsonFishList.getJSONObject(1).getInt("id"));
         assertEquals("Gone",jsonFishList.getJSONObject(1).getString("name"));
         assertEquals(15, jsonFishList.getJSONObject(1).getInt("hungerLevel"));
         assertEquals(10, jsonFishList.getJSONObject(1).getInt("growthTimer"));
@@ -0,0 +1,74 @@
+package model;
+
+import static model.Fish.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests for Boids Class
+ */
+public class BoidsTests {
+    private static final int NUM_SLOTS = 3;
+
+    private Boids testBoids;
+    private byte[] status;
+    private double[] coordinateX;
+    private double[] coordinateY;
+    private double[] velocityX;
+    private double[] velocityY;
+    private SpatialGrid grid;
+
+    @BeforeEach
+    public void setup() {
+        testBoids = new Boids();
+        status = new byte[NUM_SLOTS];
+        coordinateX = new double[NUM_SLOTS];
+        coordinateY = new double[NUM_SLOTS];
+        velocityX = new double[NUM_SLOTS];
+        velocityY = new double[NUM_SLOTS];
+        grid = new SpatialGrid(4, NUM_SLOTS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts a fish with status at (x, y), moving by (vx, vy), in slot i
+    private void place(int i, int status, double x, double y, double vx, double vy) {
+        this.status[i] = (byte) status;
+        coordinateX[i] = x;
+        coordinateY[i] = y;
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+        grid.insert(i, x, y);
+    }
+
+    @Test
+    public void testLoneFishKeepsVelocityWithinSpeedLimits() {
+        place(0, ALIVE, 0.1, 0.1, 0.003, 0.004);
+        place(1, ALIVE, 0.9, 0.9, 0.03, 0.04);
+        place(2, ALIVE, 0.5, 0.5, 0.0, 0.0);
+        testBoids.steer(NUM_SLOTS, status, coordinateX, coordinateY, velocityX, velocityY, grid, null);
+
+        assertEquals(0.003, velocityX[0], 1e-12);
+        assertEquals(0.004, velocityY[0], 1e-12);
+        assertEquals(MAX_SPEED, Math.hypot(velocityX[1], velocityY[1]), 1e-12);
+        assertEquals(0.75, velocityX[1] / velocityY[1], 1e-9);
+        assertEquals(MIN_SPEED, velocityX[2], 1e-12);
+        assertEquals(0.0, velocityY[2]);
+    }
+
+    @Test
+    public void testNeighborsAlignAndDeadIgnored() {
+        place(0, ALIVE, 0.5, 0.5, 0.005, 0.0);
+        place(1, ALIVE, 0.52, 0.5, -0.005, 0.0);
+        place(2, DEAD, 0.51, 0.5, 0.0, 0.01);
+        testBoids.steer(NUM_SLOTS, status, coordinateX, coordinateY, velocityX, velocityY, grid, null);
+
+        // pulled towards each other, and towards each other's velocity, by the one alive neighbor each has
+        assertEquals(0.005 + 0.02 * 0.01 - 0.01 * 0.05, velocityX[0], 1e-12);
+        assertEquals(-velocityX[0], velocityX[1], 1e-12);
+        assertEquals(0.0, velocityY[0]);
+        assertEquals(0.0, velocityY[1]);
+        assertEquals(0.01, velocityY[2]);
+    }
+}
@@ -0,0 +1,571 @@
+package model;
+
+import static model.Fish.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import exception.IllegalFishException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/*
+ * Tests for FishPopulation Class
+ */
+public class FishPopulationTests {
+    private FishPopulation testPopulation;
+
+    @BeforeEach
+    public void setup() {
+        testPopulation = new FishPopulation(2);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertTrue(testPopulation.isEmpty());
+        assertEquals(0, testPopulation.size());
+    }
+
+    @Test
+    public void testAddException() {
+        try {
+            testPopulation.add(FISH_MIN_SIZE - 1, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, null);
+            fail("Uncaught exception");
+        } catch (IllegalFishException e) {
+            // expected
+        }
+        assertTrue(testPopulation.isEmpty());
+    }
+
+    @Test
+    public void testAddGrowsPastCapacity() {
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i, testPopulation.add(i + 1, i, ALIVE, GROWTH_TIMER_START_VALUE, "F" + i));
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        assertEquals(5, testPopulation.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i + 1, testPopulation.getSize(i));
+            assertEquals(i, testPopulation.getHungerLevel(i));
+            assertEquals("F" + i, testPopulation.getName(i));
+            assertTrue(testPopulation.getCoordinateX(i) >= 0.0 && testPopulation.getCoordinateX(i) <= 1.0);
+            assertTrue(testPopulation.getSpeed(i) >= MIN_SPEED && testPopulation.getSpeed(i) <= MAX_SPEED);
+        }
+    }
+
+    @Test
+    public void testAddFishCopiesStateAndKeepsHandle() {
+        Fish fish = null;
+        try {
+            fish = new Fish(3, 4, ALIVE, 5, "Nemo");
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        double x = fish.getCoordinateX();
+
+        int slot = testPopulation.add(fish);
+        assertEquals(0, slot);
+        assertSame(fish, testPopulation.getFish(slot));
+        assertEquals(x, testPopulation.getCoordinateX(slot));
+
+        // changes through handle are stored in population
+        fish.setName("Dory");
+        fish.feed();
+        assertEquals("Dory", testPopulation.getName(slot));
+        assertEquals(0, testPopulation.getHungerLevel(slot));
+    }
+
+    @Test
+    public void testGetFishSameHandle() {
+        try {
+            testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, null);
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        Fish fish = testPopulation.getFish(0);
+        assertSame(fish, testPopulation.getFish(0));
+        assertEquals(FISH_INITIAL_HUNGER_VALUE, fish.getHungerLevel());
+    }
+
+    @Test
+    public void testRemoveDeadKeepsOrderAndHandles() {
+        try {
+            testPopulation.add(1, 1, DEAD, GROWTH_TIMER_START_VALUE, "A");
+            testPopulation.add(2, 2, ALIVE, GROWTH_TIMER_START_VALUE, "B");
+            testPopulation.add(3, 3, DEAD, GROWTH_TIMER_START_VALUE, "C");
+            testPopulation.add(4, 4, ALIVE, GROWTH_TIMER_START_VALUE, "D");
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        Fish deadFish = testPopulation.getFish(0);
+        Fish aliveFish = testPopulation.getFish(3);
+
+        testPopulation.removeDead();
+
+        // remaining fish stay in their slots
+        assertEquals(2, testPopulation.size());
+        assertEquals(4, testPopulation.getNumSlots());
+        assertFalse(testPopulation.isOccupied(0));
+        assertEquals("B", testPopulation.getName(1));
+        assertFalse(testPopulation.isOccupied(2));
+        assertEquals("D", testPopulation.getName(3));
+        assertSame(aliveFish, testPopulation.getFish(3));
+        assertEquals(4, aliveFish.getHungerLevel());
+        assertEquals(0, testPopulation.getNumDead());
+
+        // removed fish keeps its last state, and can be added to another population
+        assertEquals("A", deadFish.getName());
+        assertEquals(DEAD, deadFish.getStatus());
+        assertEquals(0, deadFish.getId());
+        FishPopulation other = new FishPopulation();
+        other.add(deadFish);
+        assertSame(deadFish, other.getFish(0));
+        assertEquals("A", other.getName(0));
+        assertEquals(DEAD, other.getStatus(0));
+    }
+
+    @Test
+    public void testAdvanceOneTick() {
+        try {
+            testPopulation.add(FISH_MIN_SIZE, FISH_HUNGER_TO_STARVE - 1, ALIVE, GROWTH_TIMER_END_VALUE + 1, null);
+            testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_END_VALUE + 1, null);
+            testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, DEAD, GROWTH_TIMER_START_VALUE, null);
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+
+        testPopulation.advance(1);
+
+        // starved, does not grow
+        assertEquals(DEAD, testPopulation.getStatus(0));
+        assertEquals(FISH_MIN_SIZE, testPopulation.getSize(0));
+        // grows and resets timer
+        assertEquals(ALIVE, testPopulation.getStatus(1));
+        assertEquals(FISH_MIN_SIZE + 1, testPopulation.getSize(1));
+        assertEquals(GROWTH_TIMER_START_VALUE, testPopulation.getGrowthTimer(1));
+        // dead, unchanged
+        assertEquals(FISH_INITIAL_HUNGER_VALUE, testPopulation.getHungerLevel(2));
+    }
+
+    @Test
+    public void testAdvanceMatchesPassTimePerFish() {
+        // each fish in population has a standalone copy aged one fish at a time
+        Fish[] expected = new Fish[40];
+        try {
+            for (int i = 0; i < expected.length; i++) {
+                int hunger = i % (FISH_HUNGER_TO_STARVE + 2);
+                int timer = (i * 3) % (GROWTH_TIMER_START_VALUE + 1);
+                testPopulation.add(FISH_MIN_SIZE, hunger, ALIVE, timer, null);
+                expected[i] = new Fish(FISH_MIN_SIZE, hunger, ALIVE, timer, null);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+
+        Random random = new Random(42);
+        for (int step = 0; step < 300; step++) {
+            if (random.nextInt(4) == 0) {
+                testPopulation.feedAll();
+                for (Fish fish : expected) {
+                    fish.feed();
+                }
+            } else {
+                int ticks = 1 + random.nextInt(3);
+                testPopulation.advance(ticks);
+                for (Fish fish : expected) {
+                    for (int t = 0; t < ticks; t++) {
+                        fish.passTime();
+                    }
+                }
+            }
+
+            int numAlive = 0;
+            long biomass = 0;
+            long hunger = 0;
+            int[] hungerCounts = new int[FishHistograms.HUNGER_CATEGORIES.length];
+            int[] sizeCounts = new int[FISH_MAX_SIZE + 1];
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].getHungerLevel(), testPopulation.getHungerLevel(i));
+                assertEquals(expected[i].getGrowthTimer(), testPopulation.getGrowthTimer(i));
+                assertEquals(expected[i].getSize(), testPopulation.getSize(i));
+                assertEquals(expected[i].getStatus(), testPopulation.getStatus(i));
+                if (expected[i].getStatus() == ALIVE) {
+                    numAlive++;
+                    biomass += expected[i].getSize();
+                    hunger += expected[i].getHungerLevel();
+                    hungerCounts[FishHistograms.hungerCategory(expected[i].getHungerLevel())]++;
+                    sizeCounts[expected[i].getSize()]++;
+                }
+            }
+
+            // statistics match a full count
+            assertEquals(numAlive, testPopulation.getNumAlive());
+            assertEquals(expected.length - numAlive, testPopulation.getNumDead());
+            assertEquals(biomass, testPopulation.getAliveBiomass());
+            assertEquals(numAlive == 0 ? 0 : (double) hunger / numAlive, testPopulation.getMeanHunger(), 1e-9);
+            FishHistograms histograms = testPopulation.getHistograms();
+            for (int c = 0; c < hungerCounts.length; c++) {
+                assertEquals(hungerCounts[c], histograms.getHungerCount(c));
+            }
+            for (int s = FISH_MIN_SIZE; s <= FISH_MAX_SIZE; s++) {
+                assertEquals(sizeCounts[s], histograms.getSizeCount(s));
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveDeadCompactsWhenMostlyEmpty() {
+        try {
+            for (int i = 0; i < 6; i++) {
+                testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, "F" + i);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        Fish last = testPopulation.getFish(5);
+
+        // half the slots empty, nothing moves
+        testPopulation.die(0);
+        testPopulation.die(2);
+        testPopulation.die(4);
+        testPopulation.removeDead();
+        assertEquals(3, testPopulation.size());
+        assertEquals(6, testPopulation.getNumSlots());
+        assertSame(last, testPopulation.getFish(5));
+
+        // more empty slots than fish, remaining fish move down in order
+        testPopulation.die(3);
+        testPopulation.removeDead();
+        assertEquals(2, testPopulation.size());
+        assertEquals(2, testPopulation.getNumSlots());
+        assertEquals("F1", testPopulation.getName(0));
+        assertEquals("F5", testPopulation.getName(1));
+        assertSame(last, testPopulation.getFish(1));
+    }
+
+    @Test
+    public void testRemoveDeadStarvedAndTrailing() {
+        try {
+            testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, "A");
+            testPopulation.add(FISH_MIN_SIZE, FISH_HUNGER_TO_STARVE - 1, ALIVE, GROWTH_TIMER_START_VALUE, "B");
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        testPopulation.advance(1);
+        testPopulation.die(1);
+        assertEquals(1, testPopulation.getNumDead());
+
+        // starved fish is removed, trailing empty slot is given back
+        testPopulation.removeDead();
+        assertEquals(1, testPopulation.size());
+        assertEquals(1, testPopulation.getNumSlots());
+        assertEquals("A", testPopulation.getName(0));
+        testPopulation.removeDead();
+        assertEquals(1, testPopulation.size());
+    }
+
+    @Test
+    public void testAddAfterHugeAdvance() {
+        try {
+            testPopulation.add(FISH_MIN_SIZE, FISH_MIN_HUNGER, ALIVE, 3, null);
+            testPopulation.advance(Long.MAX_VALUE);
+            testPopulation.advance(Long.MAX_VALUE);
+            testPopulation.add(FISH_MIN_SIZE, FISH_MIN_HUNGER, ALIVE, 3, null);
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        assertEquals(DEAD, testPopulation.getStatus(0));
+        assertEquals(FISH_HUNGER_TO_STARVE, testPopulation.getHungerLevel(0));
+
+        // fish added later grows and starves on time, and the clock, which saves tell later snapshots by, moves on
+        long clock = testPopulation.getClock();
+        testPopulation.advance(3);
+        assertTrue(testPopulation.getClock() > clock);
+        assertEquals(FISH_MIN_SIZE + 1, testPopulation.getSize(1));
+        assertEquals(FISH_MIN_HUNGER + 3, testPopulation.getHungerLevel(1));
+        testPopulation.advance(FISH_HUNGER_TO_STARVE - 4);
+        assertEquals(ALIVE, testPopulation.getStatus(1));
+        testPopulation.advance(1);
+        assertEquals(DEAD, testPopulation.getStatus(1));
+        assertEquals(FISH_HUNGER_TO_STARVE, testPopulation.getHungerLevel(1));
+    }
+
+    @Test
+    public void testAdvanceAfterRemoveDead() {
+        try {
+            testPopulation.add(FISH_MIN_SIZE, FISH_HUNGER_TO_STARVE, DEAD, GROWTH_TIMER_START_VALUE, null);
+            testPopulation.add(FISH_MIN_SIZE, FISH_HUNGER_TO_STARVE, DEAD, GROWTH_TIMER_START_VALUE, null);
+            testPopulation.add(FISH_MIN_SIZE, FISH_MIN_HUNGER, ALIVE, 3, null);
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        testPopulation.removeDead();
+
+        // moved fish still grows and starves on time
+        testPopulation.advance(3);
+        assertEquals(FISH_MIN_SIZE + 1, testPopulation.getSize(0));
+        assertEquals(GROWTH_TIMER_START_VALUE, testPopulation.getGrowthTimer(0));
+        testPopulation.advance(FISH_HUNGER_TO_STARVE - 4);
+        assertEquals(ALIVE, testPopulation.getStatus(0));
+        testPopulation.advance(1);
+        assertEquals(DEAD, testPopulation.getStatus(0));
+        assertEquals(FISH_HUNGER_TO_STARVE, testPopulation.getHungerLevel(0));
+        assertEquals(GROWTH_TIMER_START_VALUE - (FISH_HUNGER_TO_STARVE - 3), testPopulation.getGrowthTimer(0));
+    }
+
+    @Test
+    public void testSetRandomSeedReproducible() {
+        FishPopulation other = new FishPopulation();
+        testPopulation.setRandomSeed(7);
+        other.setRandomSeed(7);
+        try {
+            for (int i = 0; i < 3; i++) {
+                testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, null);
+                other.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, null);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        for (int step = 0; step < 500; step++) {
+            testPopulation.updateCoordinates();
+            other.updateCoordinates();
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(other.getCoordinateX(i), testPopulation.getCoordinateX(i));
+            assertEquals(other.getCoordinateY(i), testPopulation.getCoordinateY(i));
+            assertEquals(other.getDirection(i), testPopulation.getDirection(i));
+            assertEquals(other.getSpeed(i), testPopulation.getSpeed(i));
+        }
+    }
+
+    @Test
+    public void testUpdateCoordinatesMatchesUpdateCoordinatePerFish() {
+        FishPopulation expected = new FishPopulation();
+        testPopulation.setRandomSeed(3);
+        expected.setRandomSeed(3);
+        try {
+            for (int i = 0; i < 30; i++) {
+                int status = i % 4 == 0 ? DEAD : ALIVE;
+                testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, status, GROWTH_TIMER_START_VALUE, null);
+                expected.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, status, GROWTH_TIMER_START_VALUE, null);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        testPopulation.removeDead();
+        testPopulation.setDirection(1, LEFT);
+        expected.setDirection(1, LEFT);
+
+        for (int step = 0; step < 1000; step++) {
+            if (step == 400) {
+                // dies mid-swim and starts sinking
+                testPopulation.die(5);
+                expected.die(5);
+            }
+            testPopulation.updateCoordinates();
+            for (int i = 0; i < expected.size(); i++) {
+                if (testPopulation.isOccupied(i)) {
+                    expected.updateCoordinate(i);
+                }
+            }
+        }
+
+        for (int i = 0; i < expected.size(); i++) {
+            if (testPopulation.isOccupied(i)) {
+                assertEquals(expected.getCoordinateX(i), testPopulation.getCoordinateX(i));
+                assertEquals(expected.getCoordinateY(i), testPopulation.getCoordinateY(i));
+                assertEquals(expected.getDirection(i), testPopulation.getDirection(i));
+                assertEquals(expected.getSpeed(i), testPopulation.getSpeed(i));
+            }
+        }
+        assertEquals(0.9, testPopulation.getCoordinateY(5));
+    }
+
+    @Test
+    public void testFindMatchesScan() {
+        testPopulation.setRandomSeed(11);
+        try {
+            for (int i = 0; i < 500; i++) {
+                testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, i % 5 == 0 ? DEAD : ALIVE,
+                        GROWTH_TIMER_START_VALUE, null);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        testPopulation.setCoordinateX(1, 0.5);
+        testPopulation.setCoordinateY(1, 0.5);
+
+        Random random = new Random(5);
+        for (int step = 0; step < 60; step++) {
+            testPopulation.updateCoordinates();
+            testPopulation.updateCoordinate(2);
+            if (step == 30) {
+                testPopulation.removeDead();
+            }
+            double x = random.nextDouble();
+            double y = random.nextDouble();
+            double radius = random.nextDouble() * 0.2;
+            assertArrayEquals(scanRadius(x, y, radius), sorted(testPopulation.findInRadius(x, y, radius)));
+            assertArrayEquals(scanRect(x - radius, y - radius, x + radius, y),
+                    sorted(testPopulation.findInRect(x - radius, y - radius, x + radius, y)));
+        }
+        assertEquals(0, testPopulation.findInRect(2.0, 2.0, 3.0, 3.0).length);
+        assertEquals(testPopulation.size(), testPopulation.findInRect(0.0, 0.0, 1.0, 1.0).length);
+    }
+
+    @Test
+    public void testFindNearestHungryMatchesScan() {
+        testPopulation.setRandomSeed(2);
+        try {
+            for (int i = 0; i < 3000; i++) {
+                testPopulation.add(FISH_MIN_SIZE, i % 3, i % 7 == 0 ? DEAD : ALIVE, GROWTH_TIMER_START_VALUE, null);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+
+        Random random = new Random(9);
+        for (int query = 0; query < 200; query++) {
+            double x = random.nextDouble();
+            double y = random.nextDouble() * 0.9;
+            double radius = random.nextDouble() * 0.05;
+            int expected = -1;
+            double nearest = radius * radius;
+            for (int i = 0; i < testPopulation.size(); i++) {
+                double distance = Math.pow(testPopulation.getCoordinateX(i) - x, 2)
+                        + Math.pow(testPopulation.getCoordinateY(i) - y, 2);
+                if (testPopulation.getStatus(i) == ALIVE && testPopulation.getHungerLevel(i) > FISH_MIN_HUNGER
+                        && distance <= nearest && (expected == -1 || distance < nearest)) {
+                    expected = i;
+                    nearest = distance;
+                }
+            }
+            int found = testPopulation.findNearestHungry(x, y, radius);
+            if (expected == -1) {
+                assertEquals(-1, found);
+            } else {
+                double foundDistance = Math.pow(testPopulation.getCoordinateX(found) - x, 2)
+                        + Math.pow(testPopulation.getCoordinateY(found) - y, 2);
+                assertEquals(nearest, foundDistance);
+            }
+        }
+    }
+
+    // EFFECTS: returns slots of fish in testPopulation within radius of (x, y), found by a full scan
+    private int[] scanRadius(double x, double y, double radius) {
+        return IntStream.range(0, testPopulation.getNumSlots())
+                .filter(i -> testPopulation.isOccupied(i))
+                .filter(i -> Math.pow(testPopulation.getCoordinateX(i) - x, 2)
+                        + Math.pow(testPopulation.getCoordinateY(i) - y, 2) <= radius * radius)
+                .toArray();
+    }
+
+    // EFFECTS: returns slots of fish in testPopulation inside rectangle, found by a full scan
+    private int[] scanRect(double minX, double minY, double maxX, double maxY) {
+        return IntStream.range(0, testPopulation.getNumSlots())
+                .filter(i -> testPopulation.isOccupied(i))
+                .filter(i -> testPopulation.getCoordinateX(i) >= minX && testPopulation.getCoordinateX(i) <= maxX
+                        && testPopulation.getCoordinateY(i) >= minY && testPopulation.getCoordinateY(i) <= maxY)
+                .toArray();
+    }
+
+    // EFFECTS: returns slots in ascending order
+    private int[] sorted(int[] slots) {
+        Arrays.sort(slots);
+        return slots;
+    }
+
+    @Test
+    public void testSchoolingParallelSameAsSequential() {
+        FishPopulation parallel = new FishPopulation();
+        testPopulation.setRandomSeed(8);
+        parallel.setRandomSeed(8);
+        try {
+            for (int i = 0; i < 2000; i++) {
+                int status = i % 10 == 0 ? DEAD : ALIVE;
+                testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, status, GROWTH_TIMER_START_VALUE, null);
+                parallel.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, status, GROWTH_TIMER_START_VALUE, null);
+            }
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        testPopulation.setSchooling(true);
+        parallel.setSchooling(true);
+        assertTrue(testPopulation.isSchooling());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int step = 0; step < 100; step++) {
+            testPopulation.updateCoordinates();
+            parallel.updateCoordinates(pool, 0);
+        }
+        pool.shutdown();
+
+        boolean anyMovedVertically = false;
+        for (int i = 0; i < testPopulation.size(); i++) {
+            assertEquals(testPopulation.getCoordinateX(i), parallel.getCoordinateX(i));
+            assertEquals(testPopulation.getCoordinateY(i), parallel.getCoordinateY(i));
+            assertEquals(testPopulation.getDirection(i), parallel.getDirection(i));
+            assertTrue(testPopulation.getCoordinateX(i) >= 0.0 && testPopulation.getCoordinateX(i) <= 1.0);
+            assertTrue(testPopulation.getCoordinateY(i) >= 0.0 && testPopulation.getCoordinateY(i) <= 0.95);
+            if (testPopulation.getStatus(i) == ALIVE) {
+                assertTrue(testPopulation.getSpeed(i) >= MIN_SPEED - 1e-12);
+                assertTrue(testPopulation.getSpeed(i) <= MAX_SPEED + 1e-12);
+            } else {
+                assertTrue(testPopulation.getCoordinateY(i) <= 0.9);
+            }
+        }
+        for (int i = 1; i < testPopulation.size(); i += 10) {
+            double y = testPopulation.getCoordinateY(i);
+            testPopulation.updateCoordinates();
+            anyMovedVertically |= y != testPopulation.getCoordinateY(i);
+        }
+        assertTrue(anyMovedVertically);
+    }
+
+    @Test
+    public void testSchoolingOffSwimsSideways() {
+        try {
+            testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, null);
+            testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, null);
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        testPopulation.setCoordinateX(1, testPopulation.getCoordinateX(0) + 0.005);
+        testPopulation.setCoordinateY(1, testPopulation.getCoordinateY(0) + 0.005);
+        testPopulation.setSchooling(true);
+        for (int step = 0; step < 20; step++) {
+            testPopulation.updateCoordinates();
+        }
+
+        testPopulation.setSchooling(false);
+        assertFalse(testPopulation.isSchooling());
+        double y = testPopulation.getCoordinateY(0);
+        double x = testPopulation.getCoordinateX(0);
+        double speed = testPopulation.getSpeed(0);
+        testPopulation.updateCoordinates();
+        assertEquals(y, testPopulation.getCoordinateY(0));
+        double moved = Math.abs(testPopulation.getCoordinateX(0) - x);
+        assertTrue(moved <= speed + 1e-12);
+    }
+
+    @Test
+    public void testAnyWithStatus() {
+        assertFalse(testPopulation.anyWithStatus(ALIVE));
+        try {
+            testPopulation.add(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, null);
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        assertTrue(testPopulation.anyWithStatus(ALIVE));
+        assertFalse(testPopulation.anyWithStatus(DEAD));
+        testPopulation.die(0);
+        assertTrue(testPopulation.anyWithStatus(DEAD));
+    }
+}
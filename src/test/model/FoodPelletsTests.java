@@ -0,0 +1,71 @@
+package model;
+
+import static model.FoodPellets.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests for FoodPellets Class
+ */
+public class FoodPelletsTests {
+    private FoodPellets testFood;
+
+    @BeforeEach
+    public void setup() {
+        testFood = new FoodPellets();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, testFood.size());
+    }
+
+    @Test
+    public void testAddGrowsPastCapacity() {
+        for (int i = 0; i < 40; i++) {
+            testFood.add(i / 40.0, 0.5);
+        }
+        assertEquals(40, testFood.size());
+        assertEquals(39 / 40.0, testFood.getCoordinateX(39));
+        assertEquals(0.5, testFood.getCoordinateY(39));
+    }
+
+    @Test
+    public void testDropAtTop() {
+        testFood.setRandomSeed(1);
+        testFood.drop(5);
+        assertEquals(5, testFood.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0.0, testFood.getCoordinateY(i));
+            assertTrue(testFood.getCoordinateX(i) >= 0.0 && testFood.getCoordinateX(i) <= 1.0);
+        }
+    }
+
+    @Test
+    public void testRemoveMovesLast() {
+        testFood.add(0.1, 0.1);
+        testFood.add(0.2, 0.2);
+        testFood.add(0.3, 0.3);
+
+        testFood.remove(0);
+        assertEquals(2, testFood.size());
+        assertEquals(0.3, testFood.getCoordinateX(0));
+        assertEquals(0.2, testFood.getCoordinateX(1));
+    }
+
+    @Test
+    public void testSinkAndRemoveResting() {
+        testFood.add(0.1, 0.0);
+        testFood.add(0.2, BOTTOM - SINK_SPEED / 2);
+
+        testFood.sink();
+        assertEquals(SINK_SPEED, testFood.getCoordinateY(0));
+        assertEquals(BOTTOM, testFood.getCoordinateY(1));
+
+        testFood.removeResting();
+        assertEquals(1, testFood.size());
+        assertEquals(0.1, testFood.getCoordinateX(0));
+    }
+}
@@ -0,0 +1,75 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/*
+ * Tests for IdIndex Class
+ */
+public class IdIndexTests {
+    private IdIndex testIndex;
+
+    @BeforeEach
+    public void setup() {
+        testIndex = new IdIndex();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, testIndex.size());
+        assertEquals(IdIndex.NONE, testIndex.get(0));
+    }
+
+    @Test
+    public void testPutGetReplace() {
+        testIndex.put(7, 0);
+        testIndex.put(3, 1);
+        assertEquals(2, testIndex.size());
+        assertEquals(0, testIndex.get(7));
+        assertEquals(1, testIndex.get(3));
+
+        testIndex.put(7, 5);
+        assertEquals(2, testIndex.size());
+        assertEquals(5, testIndex.get(7));
+    }
+
+    @Test
+    public void testRemove() {
+        testIndex.put(7, 0);
+        testIndex.remove(8);
+        testIndex.remove(7);
+        assertEquals(0, testIndex.size());
+        assertEquals(IdIndex.NONE, testIndex.get(7));
+    }
+
+    @Test
+    public void testManyMatchesMap() {
+        // grows well past its first table and removes keys in the middle of probe runs
+        SplittableRandom random = new SplittableRandom(17);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int k = 0; k < 20000; k++) {
+            int id = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                testIndex.remove(id);
+                expected.remove(id);
+            } else {
+                testIndex.put(id, k);
+                expected.put(id, k);
+            }
+        }
+        assertEquals(expected.size(), testIndex.size());
+        for (int id = 0; id < 5000; id++) {
+            assertEquals(expected.getOrDefault(id, IdIndex.NONE), testIndex.get(id));
+        }
+
+        testIndex.clear();
+        assertEquals(0, testIndex.size());
+        assertEquals(IdIndex.NONE, testIndex.get(expected.keySet().iterator().next()));
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+/*
+ * Tests for RandomSource Class
+ */
+public class RandomSourceTests {
+
+    @Test
+    public void testSeedReproducible() {
+        RandomSource.seed(11);
+        SplittableRandom first = RandomSource.newStream();
+        SplittableRandom second = RandomSource.newStream();
+        RandomSource.seed(11);
+
+        assertEquals(first.nextLong(), RandomSource.newStream().nextLong());
+        assertEquals(second.nextLong(), RandomSource.newStream().nextLong());
+    }
+
+    @Test
+    public void testStreamsIndependent() {
+        RandomSource.seed(11);
+        SplittableRandom first = RandomSource.newStream();
+        SplittableRandom second = RandomSource.newStream();
+
+        assertNotEquals(first.nextLong(), second.nextLong());
+    }
+
+    @Test
+    public void testOtherThreadUnaffectedBySeed() {
+        RandomSource.seed(11);
+        long expected = RandomSource.newStream().nextLong();
+        long[] otherThread = new long[1];
+        Thread thread = new Thread(() -> otherThread[0] = RandomSource.newStream().nextLong());
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            fail("Unexpected exception");
+        }
+
+        assertNotEquals(expected, otherThread[0]);
+    }
+}
@@ -0,0 +1,81 @@
+package model;
+
+import static model.AquariumSnapshot.CHUNK_SHIFT;
+import static model.AquariumSnapshot.CHUNK_SIZE;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Tests for SnapshotChunks Class
+ */
+public class SnapshotChunksTests {
+    private SnapshotChunks testChunks;
+    private List<Integer> copied;
+
+    @BeforeEach
+    public void setup() {
+        testChunks = new SnapshotChunks(CHUNK_SIZE * 2);
+        copied = new ArrayList<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns an empty chunk standing in for chunk c, and records that c was copied
+    private FishChunk copy(int c) {
+        copied.add(c);
+        return new FishChunk(c << CHUNK_SHIFT, new int[0], new byte[0], new int[0], new int[0], new int[0],
+                new long[0], new String[0]);
+    }
+
+    @Test
+    public void testNumChunks() {
+        assertEquals(0, SnapshotChunks.numChunks(0));
+        assertEquals(1, SnapshotChunks.numChunks(1));
+        assertEquals(1, SnapshotChunks.numChunks(CHUNK_SIZE));
+        assertEquals(2, SnapshotChunks.numChunks(CHUNK_SIZE + 1));
+    }
+
+    @Test
+    public void testTakeCopiesOnlyChanged() {
+        FishChunk[] first = testChunks.take(CHUNK_SIZE + 1, this::copy);
+        assertEquals(List.of(0, 1), copied);
+        assertEquals(2, first.length);
+
+        copied.clear();
+        FishChunk[] second = testChunks.take(CHUNK_SIZE + 1, this::copy);
+        assertTrue(copied.isEmpty());
+        assertNotSame(first, second);
+        assertSame(first[0], second[0]);
+        assertSame(first[1], second[1]);
+
+        testChunks.touch(CHUNK_SIZE);
+        FishChunk[] third = testChunks.take(CHUNK_SIZE + 1, this::copy);
+        assertEquals(List.of(1), copied);
+        assertSame(first[0], third[0]);
+        assertNotSame(first[1], third[1]);
+
+        copied.clear();
+        testChunks.touchAll();
+        testChunks.take(CHUNK_SIZE + 1, this::copy);
+        assertEquals(List.of(0, 1), copied);
+    }
+
+    @Test
+    public void testGrowAndShrink() {
+        testChunks.take(CHUNK_SIZE, this::copy);
+        copied.clear();
+        testChunks.grow(CHUNK_SIZE * 4);
+        testChunks.touch(CHUNK_SIZE * 3);
+        assertEquals(4, testChunks.take(CHUNK_SIZE * 3 + 1, this::copy).length);
+        assertEquals(List.of(1, 2, 3), copied);
+
+        // fewer slots than before hand out fewer chunks
+        copied.clear();
+        assertEquals(1, testChunks.take(1, this::copy).length);
+        assertTrue(copied.isEmpty());
+    }
+}
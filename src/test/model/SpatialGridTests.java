@@ -0,0 +1,67 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests for SpatialGrid Class
+ */
+public class SpatialGridTests {
+    private SpatialGrid testGrid;
+
+    @BeforeEach
+    public void setup() {
+        testGrid = new SpatialGrid(4, 2);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(4, testGrid.getCellsPerSide());
+        assertFalse(testGrid.contains(0));
+        assertEquals(SpatialGrid.NONE, testGrid.first(0, 0));
+    }
+
+    @Test
+    public void testColumnRowClamped() {
+        assertEquals(0, testGrid.column(0.0));
+        assertEquals(1, testGrid.column(0.25));
+        assertEquals(3, testGrid.column(1.0));
+        assertEquals(0, testGrid.row(-0.5));
+        assertEquals(3, testGrid.row(7.0));
+    }
+
+    @Test
+    public void testInsertRemove() {
+        testGrid.insert(0, 0.1, 0.1);
+        testGrid.insert(1, 0.2, 0.2);
+        assertTrue(testGrid.contains(0));
+        assertEquals(1, testGrid.first(0, 0));
+        assertEquals(0, testGrid.next(1));
+        assertEquals(SpatialGrid.NONE, testGrid.next(0));
+
+        testGrid.remove(1);
+        assertFalse(testGrid.contains(1));
+        assertEquals(0, testGrid.first(0, 0));
+        testGrid.remove(1);
+        testGrid.remove(0);
+        assertEquals(SpatialGrid.NONE, testGrid.first(0, 0));
+    }
+
+    @Test
+    public void testUpdateMovesToNewCell() {
+        testGrid.insert(0, 0.1, 0.1);
+        testGrid.insert(1, 0.2, 0.2);
+
+        // same cell, stays linked
+        testGrid.update(0, 0.15, 0.15);
+        assertEquals(1, testGrid.first(0, 0));
+        assertEquals(0, testGrid.next(1));
+
+        testGrid.update(0, 0.9, 0.6);
+        assertEquals(1, testGrid.first(0, 0));
+        assertEquals(SpatialGrid.NONE, testGrid.next(1));
+        assertEquals(0, testGrid.first(3, 2));
+    }
+}
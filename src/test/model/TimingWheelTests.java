@@ -0,0 +1,64 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests for TimingWheel Class
+ */
+public class TimingWheelTests {
+    private TimingWheel testWheel;
+
+    @BeforeEach
+    public void setup() {
+        testWheel = new TimingWheel(8);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertTrue(testWheel.isEmpty());
+        assertEquals(0, testWheel.bucketSize(0));
+    }
+
+    @Test
+    public void testScheduleSameBucket() {
+        // ticks 3 and 11 are one turn apart, so share a bucket
+        for (int i = 0; i < 10; i++) {
+            testWheel.schedule(3, i);
+        }
+        testWheel.schedule(11, 100);
+
+        assertFalse(testWheel.isEmpty());
+        assertEquals(11, testWheel.bucketSize(3));
+        assertEquals(11, testWheel.bucketSize(11));
+        assertEquals(0, testWheel.bucketSize(4));
+        assertEquals(9, testWheel.bucket(3)[9]);
+        assertEquals(100, testWheel.bucket(3)[10]);
+    }
+
+    @Test
+    public void testTruncateBucket() {
+        testWheel.schedule(5, 1);
+        testWheel.schedule(5, 2);
+        testWheel.schedule(6, 3);
+
+        testWheel.truncateBucket(5, 1);
+        assertFalse(testWheel.isEmpty());
+        assertEquals(1, testWheel.bucketSize(5));
+        assertEquals(1, testWheel.bucket(5)[0]);
+    }
+
+    @Test
+    public void testTruncateEveryBucket() {
+        testWheel.schedule(5, 1);
+        testWheel.schedule(6, 3);
+
+        testWheel.truncateBucket(5, 0);
+        assertFalse(testWheel.isEmpty());
+        testWheel.truncateBucket(6, 0);
+        assertTrue(testWheel.isEmpty());
+        assertEquals(0, testWheel.bucketSize(5));
+    }
+}
@@ -0,0 +1,116 @@
+package persistance;
+
+import model.Aquarium;
+import model.AquariumSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.AutosaveService;
+import persistence.SaveMetrics;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Tests for AutosaveService
+ */
+public class AutosaveServiceTest {
+    private List<AquariumSnapshot> saved;
+    private List<String> threads;
+    private Aquarium aquarium;
+    private AutosaveService service;
+
+    @BeforeEach
+    void setup() {
+        saved = new CopyOnWriteArrayList<>();
+        threads = new CopyOnWriteArrayList<>();
+        aquarium = new Aquarium();
+        AquariumSnapshot snapshot = aquarium.snapshot();
+        service = new AutosaveService(s -> {
+            threads.add(Thread.currentThread().getName());
+            saved.add(s);
+            return 100;
+        }, () -> snapshot);
+    }
+
+    @AfterEach
+    void teardown() {
+        service.close();
+    }
+
+    @Test
+    void testSaveNowRunsOnSaveThread() throws Exception {
+        assertEquals(100L, (long) service.saveNow().get());
+
+        assertEquals(1, saved.size());
+        assertEquals("autosave", threads.get(0));
+        SaveMetrics metrics = service.getMetrics();
+        assertEquals(1, metrics.getNumSaves());
+        assertEquals(0, metrics.getNumFailures());
+        assertEquals(100, metrics.getLastBytes());
+        assertEquals(100, metrics.getTotalBytes());
+        assertTrue(metrics.getLastNanos() > 0);
+        assertEquals(metrics.getLastNanos(), metrics.getMaxNanos());
+        assertEquals(metrics.getLastNanos(), metrics.getMeanNanos());
+    }
+
+    @Test
+    void testAutosavesEveryInterval() throws Exception {
+        assertEquals(0, service.getInterval());
+        service.setInterval(5);
+        assertEquals(5, service.getInterval());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (saved.size() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(saved.size() >= 3);
+
+        service.setInterval(0);
+        service.saveNow().get();
+        int count = saved.size();
+        Thread.sleep(50);
+        assertEquals(count, saved.size());
+        assertEquals(count, service.getMetrics().getNumSaves());
+        assertEquals(100L * count, service.getMetrics().getTotalBytes());
+    }
+
+    @Test
+    void testFailedSavesReported() throws Exception {
+        service.close();
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        service = new AutosaveService(s -> {
+            throw new IOException("Disk full");
+        }, aquarium::snapshot);
+        service.setErrorHandler(errors::add);
+
+        try {
+            service.saveNow().get();
+            fail("Exception not thrown");
+        } catch (ExecutionException e) {
+            assertEquals("Disk full", e.getCause().getMessage());
+        }
+        assertTrue(errors.isEmpty());
+
+        service.setInterval(5);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (errors.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals("Disk full", errors.get(0).getMessage());
+        assertTrue(service.getMetrics().getNumFailures() >= 2);
+        assertEquals(0, service.getMetrics().getNumSaves());
+    }
+
+    @Test
+    void testNothingToSave() throws Exception {
+        service.close();
+        service = new AutosaveService(s -> 100, () -> null);
+
+        assertEquals(AutosaveService.SKIPPED, (long) service.saveNow().get());
+        assertEquals(0, service.getMetrics().getNumSaves());
+    }
+}
@@ -0,0 +1,123 @@
+package persistance;
+
+import exception.IllegalAquariumException;
+import exception.IllegalFishException;
+import model.Aquarium;
+import model.Fish;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.BinaryReader;
+import persistence.BinaryWriter;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static model.Fish.ALIVE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Tests for BinaryReader on files that are not valid binary saves
+ */
+public class BinaryReaderTest {
+    private static final String FILE = "./data/testBinaryReader" + BinaryWriter.EXTENSION;
+
+    @BeforeEach
+    void setup() throws Exception {
+        Aquarium aq = new Aquarium();
+        aq.addFish(new Fish(1, 2, ALIVE, 50, "Penny"));
+        new BinaryWriter(FILE).write(aq.snapshot());
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        Files.deleteIfExists(Paths.get(FILE));
+    }
+
+    // EFFECTS: overwrites the int at position of FILE with value, little-endian
+    private void patchInt(long position, int value) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(FILE, "rw")) {
+            file.seek(position);
+            file.writeInt(Integer.reverseBytes(value));
+        }
+    }
+
+    // EFFECTS: reads FILE, expecting exception of type expected
+    private void assertReadThrows(Class<? extends Exception> expected) {
+        try {
+            new BinaryReader(FILE).read();
+            fail("Exception not thrown");
+        } catch (IOException | IllegalAquariumException | IllegalFishException e) {
+            assertEquals(expected, e.getClass());
+        }
+    }
+
+    @Test
+    void testIsBinary() {
+        assertTrue(BinaryReader.isBinary(FILE));
+        assertFalse(BinaryReader.isBinary("./data/testReaderGeneralAquarium.json"));
+    }
+
+    @Test
+    void testReaderValidFile() throws Exception {
+        assertEquals("Penny", new BinaryReader(FILE).read().getFishById(0).getName());
+    }
+
+    @Test
+    void testReaderMissingFile() {
+        try {
+            new BinaryReader("./data/noSuchFile.aqb").read();
+            fail("Exception not thrown");
+        } catch (IOException e) {
+            // expected
+        } catch (IllegalAquariumException | IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    void testReaderJsonFile() {
+        try {
+            new BinaryReader("./data/testReaderGeneralAquarium.json").read();
+            fail("Exception not thrown");
+        } catch (IOException e) {
+            // expected
+        } catch (IllegalAquariumException | IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    void testReaderLaterVersion() throws IOException {
+        patchInt(4, BinaryWriter.VERSION + 1);
+        assertReadThrows(IOException.class);
+    }
+
+    @Test
+    void testReaderCutShort() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(FILE, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        assertReadThrows(IOException.class);
+    }
+
+    @Test
+    void testReaderBadNameOffset() throws IOException {
+        patchInt(BinaryWriter.HEADER_BYTES + BinaryWriter.RECORD_BYTES - 4, 1000);
+        assertReadThrows(IOException.class);
+    }
+
+    @Test
+    void testReaderIllegalAquarium() throws IOException {
+        patchInt(8, -5);
+        assertReadThrows(IllegalAquariumException.class);
+    }
+
+    @Test
+    void testReaderIllegalFish() throws IOException {
+        patchInt(BinaryWriter.HEADER_BYTES + 4, 7);
+        assertReadThrows(IllegalFishException.class);
+    }
+}
@@ -0,0 +1,105 @@
+package persistance;
+
+import exception.IllegalAquariumException;
+import exception.IllegalFishException;
+import model.Aquarium;
+import model.Fish;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import persistence.BinaryReader;
+import persistence.BinaryWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static model.Fish.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Tests for BinaryWriter, read back with BinaryReader
+ */
+public class BinaryWriterTest extends JsonTest {
+    private static final String FILE = "./data/testBinaryWriter" + BinaryWriter.EXTENSION;
+
+    @AfterEach
+    void teardown() {
+        new File(FILE).delete();
+    }
+
+    @Test
+    void testWriterInvalidFile() {
+        try {
+            new BinaryWriter("./save/my\0illigalName.aqb").write(new Aquarium().snapshot());
+            fail("Missing exception");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    void testWriterEmptyAquarium() {
+        try {
+            new BinaryWriter(FILE).write(new Aquarium().snapshot());
+            assertEquals(BinaryWriter.HEADER_BYTES, new File(FILE).length());
+            Aquarium aq = new BinaryReader(FILE).read();
+            assertEquals(30, aq.getCleanness());
+            assertTrue(aq.isFishListEmpty());
+        } catch (IOException | IllegalFishException | IllegalAquariumException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    void testWriterGeneralAquarium() {
+        try {
+            Aquarium aq = new Aquarium(25);
+            aq.addFish(new Fish(1, 2, DEAD, 50, "Gone"));
+            aq.addFish(new Fish(1, 2, ALIVE, 50, "P\u00e9nny \uD83D\uDC1F"));
+            aq.addFish(new Fish(2, 15, ALIVE, 15, null));
+            aq.clean();
+            aq.addFish(new Fish(3, 4, DEAD, 5, ""));
+            new BinaryWriter(FILE).write(aq.snapshot());
+
+            Aquarium read = new BinaryReader(FILE).read();
+            assertEquals(aq.getCleanness(), read.getCleanness());
+            ArrayList<Fish> fishList = read.copyFishList();
+            assertEquals(3, fishList.size());
+            checkFish(ALIVE, 2, 50, 1, "P\u00e9nny \uD83D\uDC1F", read.getFishById(1));
+            checkFish(ALIVE, 15, 15, 2, null, read.getFishById(2));
+            checkFish(DEAD, 4, 5, 3, "", read.getFishById(3));
+            assertEquals(4, read.getNextFishId());
+            assertTrue(aq.toJson().similar(read.toJson()));
+        } catch (IOException | IllegalFishException | IllegalAquariumException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    void testWriterLargerThanBuffers() {
+        StringBuilder longName = new StringBuilder();
+        for (int i = 0; i < 70000; i++) {
+            longName.append((char) ('a' + i % 26));
+        }
+        try {
+            Aquarium aq = new Aquarium();
+            for (int i = 0; i < 5000; i++) {
+                aq.addFish(FISH_MIN_SIZE, i % FISH_HUNGER_TO_STARVE, ALIVE, GROWTH_TIMER_START_VALUE,
+                        i % 3 == 0 ? null : "fish" + i);
+            }
+            aq.addFish(FISH_MIN_SIZE, 0, ALIVE, GROWTH_TIMER_START_VALUE, longName.toString());
+            aq.addFish(FISH_MIN_SIZE, 0, ALIVE, GROWTH_TIMER_START_VALUE, "last");
+            new BinaryWriter(FILE).write(aq.snapshot());
+
+            Aquarium read = new BinaryReader(FILE).read();
+            assertEquals(5002, read.copyFishList().size());
+            assertNull(read.getFishById(4998).getName());
+            assertEquals("fish4999", read.getFishById(4999).getName());
+            assertEquals(4999 % FISH_HUNGER_TO_STARVE, read.getFishById(4999).getHungerLevel());
+            assertEquals(longName.toString(), read.getFishById(5000).getName());
+            assertEquals("last", read.getFishById(5001).getName());
+        } catch (IOException | IllegalFishException | IllegalAquariumException e) {
+            fail("Unexpected exception");
+        }
+    }
+}
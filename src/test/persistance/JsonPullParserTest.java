@@ -0,0 +1,109 @@
+package persistance;
+
+import org.junit.jupiter.api.Test;
+import persistence.JsonPullParser;
+import persistence.JsonPullParser.Token;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Tests for JsonPullParser
+ */
+public class JsonPullParserTest {
+
+    private JsonPullParser parser(String json) {
+        return new JsonPullParser(new StringReader(json));
+    }
+
+    @Test
+    void testTokensInDocumentOrder() throws IOException {
+        JsonPullParser parser = parser(" {\"a\": [1, -20, 3.75, true, false, null], \"b\" : {}, \"c\": \"x\"} ");
+        assertEquals(Token.BEGIN_OBJECT, parser.next());
+        assertEquals(Token.NAME, parser.next());
+        assertEquals("a", parser.getText());
+        assertTrue(parser.isText("a"));
+        assertFalse(parser.isText("ab"));
+        assertEquals(Token.BEGIN_ARRAY, parser.next());
+        assertEquals(Token.NUMBER, parser.next());
+        assertEquals(1, parser.getInt());
+        assertEquals(Token.NUMBER, parser.next());
+        assertEquals(-20, parser.getLong());
+        assertEquals(Token.NUMBER, parser.next());
+        assertEquals(3, parser.getInt());
+        assertEquals(Token.BOOLEAN, parser.next());
+        assertEquals("true", parser.getText());
+        assertEquals(Token.BOOLEAN, parser.next());
+        assertEquals("false", parser.getText());
+        assertEquals(Token.NULL, parser.next());
+        assertEquals(Token.END_ARRAY, parser.next());
+        assertEquals(Token.NAME, parser.next());
+        assertEquals(Token.BEGIN_OBJECT, parser.next());
+        assertEquals(Token.END_OBJECT, parser.next());
+        assertEquals(Token.NAME, parser.next());
+        assertEquals(Token.STRING, parser.next());
+        assertEquals("x", parser.getText());
+        assertEquals(Token.END_OBJECT, parser.next());
+        assertEquals(Token.END_DOCUMENT, parser.next());
+        assertEquals(Token.END_DOCUMENT, parser.next());
+    }
+
+    @Test
+    void testEscapesAndStringsLongerThanBuffer() throws IOException {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            longText.append((char) ('a' + i % 26));
+        }
+        JsonPullParser parser = parser("[\"q\\\"b\\\\s\\/\\n\\t\\u00e9\", \"" + longText + "\", 12345678901]");
+        assertEquals(Token.BEGIN_ARRAY, parser.next());
+        assertEquals(Token.STRING, parser.next());
+        assertEquals("q\"b\\s/\n\t\u00e9", parser.getText());
+        assertEquals(Token.STRING, parser.next());
+        assertEquals(longText.toString(), parser.getText());
+        assertEquals(Token.NUMBER, parser.next());
+        assertEquals(12345678901L, parser.getLong());
+        try {
+            parser.getInt();
+            fail("Exception not thrown");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals(Token.END_ARRAY, parser.next());
+    }
+
+    @Test
+    void testSkipValue() throws IOException {
+        JsonPullParser parser = parser("{\"skip\": {\"x\": [1, [2, {}], \"]\"]}, \"keep\": 7}");
+        assertEquals(Token.BEGIN_OBJECT, parser.next());
+        assertEquals(Token.NAME, parser.next());
+        parser.skipValue();
+        assertEquals(Token.NAME, parser.next());
+        assertEquals("keep", parser.getText());
+        assertEquals(Token.NUMBER, parser.next());
+        assertEquals(7, parser.getInt());
+        assertEquals(Token.END_OBJECT, parser.next());
+    }
+
+    @Test
+    void testMalformedDocuments() {
+        String[] malformed = {"", "{\"a\" 1}", "{\"a\": 1,}", "[1 2]", "{1: 2}", "[tru]", "[\"open", "{} {}",
+            "[-]", "[\"\\x\"]", "[1}"};
+        for (String json : malformed) {
+            JsonPullParser parser = parser(json);
+            try {
+                Token token = parser.next();
+                while (token != Token.END_DOCUMENT) {
+                    if (token == Token.NUMBER) {
+                        parser.getLong();
+                    }
+                    token = parser.next();
+                }
+                fail("Exception not thrown for " + json);
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -36,6 +36,22 @@ public class JsonReaderTest extends JsonTest {
         }
     }
 
+    @Test
+    void testReadLong() {
+        JsonReader reader = new JsonReader("./data/testReaderGeneralAquarium.json");
+        try {
+            assertEquals(25, reader.readLong("cleanness"));
+        } catch (IOException e) {
+            fail("Unexpected exception");
+        }
+        try {
+            reader.readLong("logSequence");
+            fail("Excepted exception expected but not thrown");
+        } catch (IOException e) {
+            // excepted
+        }
+    }
+
     @Test
     void testReaderAquariumExceptionFile() {
         JsonReader reader = new JsonReader("./data/testReaderAquariumException.json");
@@ -72,7 +88,7 @@ public class JsonReaderTest extends JsonTest {
         try {
             Aquarium aquarium = reader.read();
             assertEquals(30, aquarium.getCleanness());
-            assertEquals(0, aquarium.getFishList().size());
+            assertEquals(0, aquarium.copyFishList().size());
         } catch (IOException e) {
             fail("Unexpected exception, could not read file");
         } catch (IllegalFishException e) {
@@ -89,8 +105,8 @@ public class JsonReaderTest extends JsonTest {
         try {
             Aquarium aquarium = reader.read();
             assertEquals(25, aquarium.getCleanness());
-            ArrayList<Fish> fishList = aquarium.getFishList();
-            assertEquals(2, aquarium.getFishList().size());
+            ArrayList<Fish> fishList = aquarium.copyFishList();
+            assertEquals(2, aquarium.copyFishList().size());
             checkFish(ALIVE, 2, 50, 1, "Penny", fishList.get(0));
             checkFish(DEAD, 15, 15, 2, null, fishList.get(1));
         } catch (IOException e) {
@@ -101,4 +117,52 @@ public class JsonReaderTest extends JsonTest {
             fail("Unexpected exception for aquarium");
         }
     }
+
+    @Test
+    void testReaderKeysInAnyOrderAndUnknownKeysSkipped() {
+        JsonReader reader = new JsonReader("./data/testReaderReorderedAquarium.json");
+        try {
+            Aquarium aquarium = reader.read();
+            assertEquals(25, aquarium.getCleanness());
+            assertEquals(1, aquarium.copyFishList().size());
+            checkFish(ALIVE, 2, 50, 1, "Pen\"ny!", aquarium.getFishById(4));
+            assertEquals(5, aquarium.getNextFishId());
+        } catch (IOException e) {
+            fail("Unexpected exception, could not read file " + e.getMessage());
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        } catch (IllegalAquariumException e) {
+            fail("Unexpected exception for aquarium");
+        }
+    }
+
+    @Test
+    void testReaderMalformedFile() {
+        JsonReader reader = new JsonReader("./data/testReaderMalformed.json");
+        try {
+            reader.read();
+            fail("Excepted exception expected but not thrown");
+        } catch (IOException e) {
+            // expected
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception for fish");
+        } catch (IllegalAquariumException e) {
+            fail("Unexpected exception for aquarium");
+        }
+    }
+
+    @Test
+    void testReaderMissingFishField() {
+        JsonReader reader = new JsonReader("./data/testReaderMissingFishField.json");
+        try {
+            reader.read();
+            fail("Excepted exception expected but not thrown");
+        } catch (IOException e) {
+            fail("Unexpected exception");
+        } catch (IllegalFishException e) {
+            // expected
+        } catch (IllegalAquariumException e) {
+            fail("Unexpected exception for aquarium");
+        }
+    }
 }
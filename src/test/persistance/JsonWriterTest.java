@@ -4,23 +4,28 @@ import model.Aquarium;
 import model.Fish;
 import exception.IllegalAquariumException;
 import exception.IllegalFishException;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 import persistence.JsonReader;
+import persistence.JsonOutput;
 import persistence.JsonWriter;
+import persistence.Writable;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 
-import static model.Fish.ALIVE;
-import static model.Fish.DEAD;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.fail;
+import static model.Fish.*;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Tests for JsonWriter,
  * code based on JsonSerializationDemo, from CPSC 210 UBC.
  **/
 public class JsonWriterTest extends JsonTest {
+    private static final String FILE = "./data/testWriterGeneralAquarium.json";
 
     @Test
     void testWriterInvalidFile() {
@@ -44,7 +49,7 @@ public class JsonWriterTest extends JsonTest {
             JsonReader reader = new JsonReader("./data/testWriterEmptyAquarium.json");
             aq = reader.read();
             assertEquals(30, aq.getCleanness());
-            assertEquals(0, aq.getFishList().size());
+            assertEquals(0, aq.copyFishList().size());
         } catch (IOException e) {
             fail("Unexpected exception");
         } catch (IllegalFishException e) {
@@ -66,10 +71,12 @@ public class JsonWriterTest extends JsonTest {
             JsonReader reader = new JsonReader("./data/testWriterGeneralAquarium.json");
             aq = reader.read();
             assertEquals(25, aq.getCleanness());
-            ArrayList<Fish> fishList = aq.getFishList();
-            assertEquals(2, aq.getFishList().size());
+            ArrayList<Fish> fishList = aq.copyFishList();
+            assertEquals(2, aq.copyFishList().size());
             checkFish(ALIVE, 2, 50, 1, "Penny", fishList.get(0));
             checkFish(DEAD, 15, 15, 2, null, fishList.get(1));
+            assertEquals(0, fishList.get(0).getId());
+            assertEquals(1, fishList.get(1).getId());
         } catch (IOException e) {
             fail("Exception should not have been thrown");
         } catch (IllegalAquariumException e) {
@@ -78,4 +85,106 @@ public class JsonWriterTest extends JsonTest {
             fail("Unexpected exception");
         }
     }
+
+    @Test
+    void testWriterKeepsIdsAfterClean() {
+        try {
+            Aquarium aq = new Aquarium();
+            aq.addFish(new Fish(1, 2, DEAD, 50, "Gone"));
+            aq.addFish(new Fish(1, 2, ALIVE, 50, "Penny"));
+            aq.clean();
+            JsonWriter writer = new JsonWriter("./data/testWriterGeneralAquarium.json");
+            writer.write(aq);
+
+            JsonReader reader = new JsonReader("./data/testWriterGeneralAquarium.json");
+            aq = reader.read();
+            assertEquals(1, aq.copyFishList().size());
+            assertEquals("Penny", aq.getFishById(1).getName());
+            assertEquals(2, aq.getNextFishId());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } catch (IllegalAquariumException e) {
+            fail("Unexpected exception");
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    void testWriterCompactAndPrettyHoldSameJson() {
+        try {
+            Aquarium aq = new Aquarium(25);
+            aq.addFish(new Fish(1, 2, ALIVE, 50, "P\u00e9nny \"\uD83D\uDC1F\"\n"));
+            aq.addFish(new Fish(2, 15, DEAD, 15, null));
+            new JsonWriter(FILE, false).write(aq);
+            String compact = new String(Files.readAllBytes(Paths.get(FILE)), StandardCharsets.UTF_8);
+            assertFalse(compact.contains(" \n") || compact.contains("\n "));
+            assertTrue(aq.toJson().similar(new JSONObject(compact)));
+            checkFish(ALIVE, 2, 50, 1, "P\u00e9nny \"\uD83D\uDC1F\"\n", new JsonReader(FILE).read().getFishById(0));
+
+            new JsonWriter(FILE).write(aq.snapshot());
+            String pretty = new String(Files.readAllBytes(Paths.get(FILE)), StandardCharsets.UTF_8);
+            assertTrue(pretty.startsWith("{\n    \"cleanness\": 25,\n"));
+            assertTrue(pretty.endsWith("\n    ]\n}"));
+            assertTrue(aq.toJson().similar(new JSONObject(pretty)));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } catch (IllegalAquariumException e) {
+            fail("Unexpected exception");
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    void testWriterLargerThanBuffer() {
+        try {
+            Aquarium aq = new Aquarium();
+            for (int i = 0; i < 5000; i++) {
+                aq.addFish(FISH_MIN_SIZE, i % FISH_HUNGER_TO_STARVE, ALIVE, GROWTH_TIMER_START_VALUE, "fish" + i);
+            }
+            new JsonWriter(FILE, false).write(aq);
+            assertTrue(Files.size(Paths.get(FILE)) > 1 << 16);
+            Aquarium read = new JsonReader(FILE).read();
+            assertEquals(5000, read.copyFishList().size());
+            assertEquals("fish4999", read.getFishById(4999).getName());
+            assertEquals(4999 % FISH_HUNGER_TO_STARVE, read.getFishById(4999).getHungerLevel());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } catch (IllegalAquariumException e) {
+            fail("Unexpected exception");
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    void testWriterFailureKeepsOldFile() throws Exception {
+        Aquarium aq = new Aquarium(25);
+        aq.addFish(new Fish(1, 2, ALIVE, 50, "Penny"));
+        new JsonWriter(FILE).write(aq);
+        byte[] saved = Files.readAllBytes(Paths.get(FILE));
+
+        Writable failing = new Writable() {
+            @Override
+            public JSONObject toJson() {
+                return new JSONObject();
+            }
+
+            @Override
+            public void write(JsonOutput out) throws IOException {
+                out.beginObject().name("cleanness").value(1);
+                out.flush();
+                throw new IOException("Disk full");
+            }
+        };
+        try {
+            new JsonWriter(FILE).write(failing);
+            fail("Exception not thrown");
+        } catch (IOException e) {
+            assertEquals("Disk full", e.getMessage());
+        }
+        assertArrayEquals(saved, Files.readAllBytes(Paths.get(FILE)));
+        assertFalse(Files.exists(Paths.get(FILE + ".tmp")));
+    }
 }
@@ -0,0 +1,255 @@
+package persistance;
+
+import model.Aquarium;
+import model.AquariumSnapshot;
+import model.Fish;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.BinaryWriter;
+import persistence.SaveStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static model.Fish.ALIVE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Tests for SaveStore
+ */
+public class SaveStoreTest {
+    private static final String DIRECTORY = "./data/testSaveStore";
+    private static final int NUM_FISH = 5000;
+
+    private SaveStore store;
+    private Aquarium aquarium;
+
+    @BeforeEach
+    void setup() throws Exception {
+        store = new SaveStore(DIRECTORY);
+        aquarium = new Aquarium();
+        for (int i = 0; i < NUM_FISH; i++) {
+            aquarium.addFish(1, 2, ALIVE, 50, i % 3 == 0 ? "Fish" + i : null);
+        }
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        store.close();
+        if (Files.exists(Paths.get(DIRECTORY))) {
+            try (Stream<Path> files = Files.walk(Paths.get(DIRECTORY))) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    // EFFECTS: returns the aquarium a new store loads from DIRECTORY
+    private Aquarium reload() throws Exception {
+        try (SaveStore other = new SaveStore(DIRECTORY)) {
+            return other.load();
+        }
+    }
+
+    @Test
+    void testNoSave() throws Exception {
+        assertFalse(store.hasSave());
+        try {
+            store.load();
+            fail("Exception not thrown");
+        } catch (FileNotFoundException e) {
+            // expected
+        }
+    }
+
+    @Test
+    void testFirstSaveWritesBase() throws Exception {
+        long written = store.save(aquarium.snapshot());
+
+        assertTrue(store.hasSave());
+        assertTrue(written > (long) NUM_FISH * BinaryWriter.RECORD_BYTES);
+        assertTrue(Files.exists(Paths.get(DIRECTORY, SaveStore.BASE_PREFIX + store.getGeneration()
+                + BinaryWriter.EXTENSION)));
+        assertEquals(aquarium.toJson().toString(), reload().toJson().toString());
+    }
+
+    @Test
+    void testDeltaHoldsOnlyChangedFish() throws Exception {
+        store.save(aquarium.snapshot());
+        aquarium.passTime(7);
+        aquarium.getFishById(10).feed();
+        aquarium.getFishById(2000).setName("Dory");
+        aquarium.getFishById(4999).die();
+        long written = store.save(aquarium.snapshot());
+
+        assertTrue(written < 200);
+        assertEquals(0, store.save(aquarium.snapshot()));
+        assertEquals(aquarium.toJson().toString(), reload().toJson().toString());
+
+        // aging alone is a delta of no fish, fish not in it are aged when loaded
+        aquarium.passTime(3);
+        assertTrue(store.save(aquarium.snapshot()) < 50);
+        assertEquals(aquarium.toJson().toString(), reload().toJson().toString());
+    }
+
+    @Test
+    void testDeltaWithRemovedAndAddedFish() throws Exception {
+        store.save(aquarium.snapshot());
+        aquarium.getFishById(3).die();
+        aquarium.getFishById(4).die();
+        aquarium.clean();
+        aquarium.addFish(2, 5, ALIVE, 30, "Nemo");
+        store.save(aquarium.snapshot());
+        aquarium.passTime(2);
+        aquarium.addFish();
+        store.save(aquarium.snapshot());
+
+        Aquarium loaded = reload();
+        assertEquals(aquarium.toJson().toString(), loaded.toJson().toString());
+        assertNull(loaded.getFishById(3));
+        assertEquals("Nemo", loaded.getFishById(NUM_FISH).getName());
+    }
+
+    @Test
+    void testLoadThenSaveAppends() throws Exception {
+        store.save(aquarium.snapshot());
+        aquarium.getFishById(1).feed();
+        store.save(aquarium.snapshot());
+        int generation = store.getGeneration();
+
+        Aquarium loaded = store.load();
+        loaded.passTime(4);
+        loaded.getFishById(7).setName("Bubbles");
+        assertTrue(store.save(loaded.snapshot()) < 100);
+        assertEquals(generation, store.getGeneration());
+        assertEquals(loaded.toJson().toString(), reload().toJson().toString());
+    }
+
+    @Test
+    void testTornDeltaDropped() throws Exception {
+        store.save(aquarium.snapshot());
+        aquarium.getFishById(1).feed();
+        store.save(aquarium.snapshot());
+        String expected = aquarium.toJson().toString();
+        aquarium.getFishById(2).die();
+        store.save(aquarium.snapshot());
+        store.close();
+
+        Path log = Paths.get(DIRECTORY, SaveStore.DELTA_PREFIX + store.getGeneration() + SaveStore.DELTA_EXTENSION);
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        store = new SaveStore(DIRECTORY);
+        Aquarium loaded = store.load();
+        assertEquals(expected, loaded.toJson().toString());
+
+        // later deltas go after the last intact one
+        loaded.getFishById(5).die();
+        store.save(loaded.snapshot());
+        assertEquals(loaded.toJson().toString(), reload().toJson().toString());
+    }
+
+    @Test
+    void testLongNamesSaved() throws Exception {
+        store.save(aquarium.snapshot());
+        String name = "\u00e9\u00e8".repeat(30000);
+        aquarium.getFishById(8).setName(name);
+        aquarium.addFish(1, 2, ALIVE, 50, name + "!");
+        store.save(aquarium.snapshot());
+
+        Aquarium loaded = reload();
+        assertEquals(aquarium.toJson().toString(), loaded.toJson().toString());
+        assertEquals(name, loaded.getFishById(8).getName());
+        assertEquals(name + "!", loaded.getFishById(NUM_FISH).getName());
+    }
+
+    @Test
+    void testVersion1DeltaLogRead() throws Exception {
+        store.save(aquarium.snapshot());
+        int generation = store.getGeneration();
+        store.close();
+        Fish fish = aquarium.getFishById(7);
+        fish.setName("Bubbles");
+
+        // a log as version 1 wrote it, one segment renaming fish 7, its name in modified UTF-8
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeLong(0);
+        out.writeInt(aquarium.getCleanness());
+        out.writeInt(aquarium.getNextFishId());
+        out.writeInt(1);
+        out.writeInt(0);
+        out.writeInt(fish.getId());
+        out.writeInt(fish.getStatus());
+        out.writeInt(fish.getHungerLevel());
+        out.writeInt(fish.getGrowthTimer());
+        out.writeInt(fish.getSize());
+        out.writeBoolean(true);
+        out.writeUTF(fish.getName());
+        byte[] bytes = body.toByteArray();
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes);
+        Path log = Paths.get(DIRECTORY, SaveStore.DELTA_PREFIX + generation + SaveStore.DELTA_EXTENSION);
+        try (DataOutputStream file = new DataOutputStream(Files.newOutputStream(log))) {
+            file.writeInt(SaveStore.DELTA_MAGIC);
+            file.writeInt(1);
+            file.writeLong(0);
+            file.writeInt(bytes.length);
+            file.write(bytes);
+            file.writeInt((int) checksum.getValue());
+        }
+
+        store = new SaveStore(DIRECTORY);
+        Aquarium loaded = store.load();
+        assertEquals(aquarium.toJson().toString(), loaded.toJson().toString());
+
+        // later saves start a log of the current version rather than appending to the old one
+        assertEquals(generation + 1, store.getGeneration());
+        loaded.getFishById(9).setName("Dory");
+        store.save(loaded.snapshot());
+        assertEquals(loaded.toJson().toString(), reload().toJson().toString());
+    }
+
+    @Test
+    void testCompactMergesDeltasIntoNewBase() throws Exception {
+        store.save(aquarium.snapshot());
+        int generation = store.getGeneration();
+        aquarium.passTime(5);
+        aquarium.getFishById(9).feed();
+        store.save(aquarium.snapshot());
+
+        store.compact().get();
+        assertEquals(generation + 1, store.getGeneration());
+        assertFalse(Files.exists(Paths.get(DIRECTORY, SaveStore.BASE_PREFIX + generation + BinaryWriter.EXTENSION)));
+        assertFalse(Files.exists(Paths.get(DIRECTORY,
+                SaveStore.DELTA_PREFIX + generation + SaveStore.DELTA_EXTENSION)));
+        assertEquals(aquarium.toJson().toString(), reload().toJson().toString());
+
+        aquarium.passTime(2);
+        aquarium.getFishById(11).die();
+        store.save(aquarium.snapshot());
+        assertEquals(aquarium.toJson().toString(), reload().toJson().toString());
+    }
+
+    @Test
+    void testOtherAquariumSavedWhole() throws Exception {
+        store.save(aquarium.snapshot());
+        int generation = store.getGeneration();
+        Aquarium other = new Aquarium();
+        other.addFish();
+        AquariumSnapshot snapshot = other.snapshot();
+
+        assertTrue(store.save(snapshot) > BinaryWriter.HEADER_BYTES);
+        assertEquals(generation + 1, store.getGeneration());
+        assertEquals(other.toJson().toString(), reload().toJson().toString());
+    }
+}
@@ -0,0 +1,303 @@
+package simulation;
+
+import static model.Fish.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import exception.IllegalAquariumException;
+import exception.IllegalFishException;
+import model.Aquarium;
+import model.Fish;
+import model.FoodPellets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/*
+ * Tests for AquariumLog Class
+ */
+public class AquariumLogTests {
+    private static final String JOURNAL = "./data/testJournal";
+    private AquariumLog testLog;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        deleteJournal();
+        testLog = new AquariumLog(JOURNAL, 100);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        testLog.close();
+        deleteJournal();
+    }
+
+    private void deleteJournal() throws IOException {
+        Files.deleteIfExists(Paths.get(JOURNAL, AquariumLog.LOG_FILE));
+        Files.deleteIfExists(Paths.get(JOURNAL, AquariumLog.SNAPSHOT_FILE));
+        Files.deleteIfExists(Paths.get(JOURNAL));
+    }
+
+    // EFFECTS: applies command to aquarium and appends it to testLog
+    private void applyAndAppend(Aquarium aquarium, AquariumCommand command) throws Exception {
+        command.apply(aquarium);
+        testLog.append(command);
+    }
+
+    // EFFECTS: closes testLog and returns the aquarium recovered by a new log over the same journal
+    private Aquarium reopen(int snapshotEvery) throws Exception {
+        testLog.close();
+        testLog = new AquariumLog(JOURNAL, snapshotEvery);
+        return testLog.recover();
+    }
+
+    @Test
+    public void testRecoverEmptyJournal() throws Exception {
+        Aquarium aquarium = testLog.recover();
+        assertTrue(aquarium.isFishListEmpty());
+        assertEquals(0, testLog.getSequence());
+        assertTrue(Files.exists(Paths.get(JOURNAL, AquariumLog.LOG_FILE)));
+    }
+
+    @Test
+    public void testReplayCommittedRecords() throws Exception {
+        Aquarium aquarium = testLog.recover();
+        applyAndAppend(aquarium, new AddFishCommand("Nemo"));
+        applyAndAppend(aquarium, new AddFishCommand());
+        applyAndAppend(aquarium, new PassTimeCommand(5));
+        applyAndAppend(aquarium, new FeedFishCommand(0));
+        applyAndAppend(aquarium, new RenameCommand(1, "Dory"));
+        applyAndAppend(aquarium, new CleanCommand());
+        applyAndAppend(aquarium, new PassTimeCommand(2));
+        testLog.commit(aquarium);
+        assertEquals(7, testLog.getSequence());
+
+        Aquarium recovered = reopen(100);
+        assertEquals(7, testLog.getSequence());
+        assertEquals(aquarium.toJson().toString(), recovered.toJson().toString());
+        assertEquals("Dory", recovered.getFishById(1).getName());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE + 2, recovered.getFishById(0).getHungerLevel());
+    }
+
+    @Test
+    public void testPelletDropsAndActionsNotJournaled() throws Exception {
+        Aquarium aquarium = testLog.recover();
+        testLog.append(new FeedCommand(3));
+        testLog.append(current -> current.passTime(3));
+        assertEquals(0, testLog.getSequence());
+
+        applyAndAppend(aquarium, new PassTimeCommand());
+        assertEquals(1, testLog.getSequence());
+        testLog.commit(aquarium);
+        Aquarium recovered = reopen(100);
+        assertEquals(1, testLog.getSequence());
+        assertEquals(aquarium.getCleanness(), recovered.getCleanness());
+        assertEquals(0, recovered.getFood().size());
+    }
+
+    @Test
+    public void testEatsJournaledThroughLoop() throws Exception {
+        Aquarium aquarium = testLog.recover();
+        aquarium.setRandomSeed(1);
+        applyAndAppend(aquarium, new AddFishCommand("Nemo"));
+        applyAndAppend(aquarium, new PassTimeCommand(10));
+        Fish fish = aquarium.getFishById(0);
+        fish.setCoordinateX(0.5);
+        fish.setCoordinateY(0.5);
+        SimulationLoop loop = new SimulationLoop(aquarium, 1, 1000);
+        loop.setLog(testLog);
+        loop.submit(new FeedCommand(1));
+        loop.step();
+        aquarium.getFood().add(0.5, 0.5 - FoodPellets.SINK_SPEED);
+        loop.step();
+        assertEquals(FISH_INITIAL_HUNGER_VALUE + 10 - FISH_FOOD_AMOUNT, fish.getHungerLevel());
+        assertEquals(3, testLog.getSequence());
+
+        Aquarium recovered = reopen(100);
+        assertEquals(fish.getHungerLevel(), recovered.getFishById(0).getHungerLevel());
+        assertEquals(aquarium.toJson().toString(), recovered.toJson().toString());
+    }
+
+    @Test
+    public void testSnapshotEmptiesLog() throws Exception {
+        testLog.close();
+        testLog = new AquariumLog(JOURNAL, 2);
+        Aquarium aquarium = testLog.recover();
+        applyAndAppend(aquarium, new AddFishCommand("Nemo"));
+        testLog.commit(aquarium);
+        assertTrue(Files.size(Paths.get(JOURNAL, AquariumLog.LOG_FILE)) > 0);
+        assertFalse(Files.exists(Paths.get(JOURNAL, AquariumLog.SNAPSHOT_FILE)));
+
+        applyAndAppend(aquarium, new AddFishCommand("Dory"));
+        testLog.commit(aquarium);
+        assertEquals(0, Files.size(Paths.get(JOURNAL, AquariumLog.LOG_FILE)));
+        assertTrue(Files.exists(Paths.get(JOURNAL, AquariumLog.SNAPSHOT_FILE)));
+
+        applyAndAppend(aquarium, new RenameCommand(0, "Marlin"));
+        testLog.commit(aquarium);
+        Aquarium recovered = reopen(2);
+        assertEquals(3, testLog.getSequence());
+        assertEquals(aquarium.toJson().toString(), recovered.toJson().toString());
+        assertEquals("Marlin", recovered.getFishById(0).getName());
+    }
+
+    @Test
+    public void testIdsOfRemovedFishNotReusedAfterSnapshot() throws Exception {
+        Aquarium aquarium = testLog.recover();
+        applyAndAppend(aquarium, new AddFishCommand("Nemo"));
+        applyAndAppend(aquarium, new AddFishCommand("Dory"));
+        aquarium.getFishById(1).die();
+        aquarium.clean();
+        testLog.snapshot(aquarium);
+
+        Aquarium recovered = reopen(100);
+        assertEquals(2, recovered.getNextFishId());
+        applyAndAppend(recovered, new AddFishCommand("Marlin"));
+        assertEquals(2, recovered.getLastFish().getId());
+    }
+
+    @Test
+    public void testTornTailCutOff() throws Exception {
+        Aquarium aquarium = testLog.recover();
+        applyAndAppend(aquarium, new AddFishCommand("Nemo"));
+        testLog.commit(aquarium);
+        Path file = Paths.get(JOURNAL, AquariumLog.LOG_FILE);
+        long intact = Files.size(file);
+        applyAndAppend(aquarium, new AddFishCommand("Dory"));
+        testLog.commit(aquarium);
+        testLog.close();
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(Files.size(file) - 3);
+        }
+
+        Aquarium recovered = reopen(100);
+        assertEquals(1, recovered.copyFishList().size());
+        assertEquals(1, testLog.getSequence());
+        assertEquals(intact, Files.size(file));
+
+        applyAndAppend(recovered, new AddFishCommand("Marlin"));
+        testLog.commit(recovered);
+        Aquarium again = reopen(100);
+        assertEquals("Marlin", again.getFishById(1).getName());
+        assertEquals(2, again.copyFishList().size());
+    }
+
+    @Test
+    public void testCorruptRecordCutOff() throws Exception {
+        Aquarium aquarium = testLog.recover();
+        applyAndAppend(aquarium, new AddFishCommand("Nemo"));
+        applyAndAppend(aquarium, new AddFishCommand("Dory"));
+        testLog.commit(aquarium);
+        testLog.close();
+        Path file = Paths.get(JOURNAL, AquariumLog.LOG_FILE);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(Files.size(file) - 6);
+            raf.write(raf.read() ^ 0xFF);
+        }
+
+        Aquarium recovered = reopen(100);
+        assertEquals(1, recovered.copyFishList().size());
+        assertEquals("Nemo", recovered.getLastFish().getName());
+    }
+
+    @Test
+    public void testLongNamesRecovered() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 30000; i++) {
+            builder.append("\u00e9\u00e8");
+        }
+        String longName = builder.toString();
+        Aquarium aquarium = testLog.recover();
+        applyAndAppend(aquarium, new AddFishCommand(longName));
+        applyAndAppend(aquarium, new AddFishCommand("Nemo"));
+        applyAndAppend(aquarium, new RenameCommand(1, longName + "!"));
+        applyAndAppend(aquarium, new FeedFishCommand(1));
+        testLog.commit(aquarium);
+
+        Aquarium recovered = reopen(100);
+        assertEquals(4, testLog.getSequence());
+        assertEquals(longName, recovered.getFishById(0).getName());
+        assertEquals(longName + "!", recovered.getFishById(1).getName());
+        assertEquals(aquarium.toJson().toString(), recovered.toJson().toString());
+    }
+
+    @Test
+    public void testLegacyNamedRecordsReplayed() throws Exception {
+        testLog.recover();
+        testLog.close();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream bodyOut = new DataOutputStream(body);
+        // an add fish record of an earlier version, type 1 and a name in modified UTF-8
+        bodyOut.writeLong(1);
+        bodyOut.writeByte(1);
+        bodyOut.writeBoolean(true);
+        bodyOut.writeUTF("Nemo");
+        CRC32 checksum = new CRC32();
+        checksum.update(body.toByteArray());
+        Path file = Paths.get(JOURNAL, AquariumLog.LOG_FILE);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND))) {
+            out.writeInt(body.size());
+            body.writeTo(out);
+            out.writeInt((int) checksum.getValue());
+        }
+
+        Aquarium recovered = reopen(100);
+        assertEquals(1, testLog.getSequence());
+        assertEquals("Nemo", recovered.getFishById(0).getName());
+    }
+
+    @Test
+    public void testUnknownRecordTypeCutOff() throws Exception {
+        Aquarium aquarium = testLog.recover();
+        applyAndAppend(aquarium, new AddFishCommand("Nemo"));
+        testLog.commit(aquarium);
+        testLog.close();
+        Path file = Paths.get(JOURNAL, AquariumLog.LOG_FILE);
+        long intact = Files.size(file);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        new DataOutputStream(body).writeLong(2);
+        body.write(99);
+        CRC32 checksum = new CRC32();
+        checksum.update(body.toByteArray());
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND))) {
+            out.writeInt(body.size());
+            body.writeTo(out);
+            out.writeInt((int) checksum.getValue());
+        }
+
+        Aquarium recovered = reopen(100);
+        assertEquals(1, recovered.copyFishList().size());
+        assertEquals(1, testLog.getSequence());
+        assertEquals(intact, Files.size(file));
+
+        applyAndAppend(recovered, new AddFishCommand("Dory"));
+        testLog.commit(recovered);
+        assertEquals("Dory", reopen(100).getFishById(1).getName());
+    }
+
+    @Test
+    public void testRecoverIllegalSnapshot() throws Exception {
+        testLog.recover();
+        testLog.close();
+        Files.write(Paths.get(JOURNAL, AquariumLog.SNAPSHOT_FILE),
+                "{\"cleanness\":-1,\"fishList\":[],\"logSequence\":0}".getBytes());
+        testLog = new AquariumLog(JOURNAL);
+        try {
+            testLog.recover();
+            fail("Exception not thrown");
+        } catch (IllegalAquariumException e) {
+            // pass
+        } catch (IllegalFishException e) {
+            fail("Wrong exception thrown");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import exception.IllegalAquariumException;
+import exception.IllegalFishException;
+import model.Aquarium;
+import org.junit.jupiter.api.Test;
+import persistence.BinaryReader;
+import persistence.JsonReader;
+
+import java.io.File;
+import java.io.IOException;
+
+/*
+ * Tests for BatchRunner and BatchReport Classes
+ */
+public class BatchRunnerTests {
+
+    @Test
+    public void testRunGeneratedAndWrite() {
+        File out = new File("./data/testBatchRunner.json");
+        try {
+            BatchRunner runner = BatchRunner.parse(new String[]{"--fish", "200", "--ticks", "30",
+                    "--threads", "2", "--seed", "7", "--out", out.getPath()});
+            BatchReport report = runner.run();
+            assertEquals(30, report.getTicks());
+            // fed every 3 ticks, no fish starves
+            assertEquals(200 * 30, report.getFishUpdates());
+            assertTrue(report.getTotalNanos() > 0);
+            assertTrue(report.getFeedNanos() > 0);
+            assertTrue(report.getFeedNanos() < report.getTotalNanos());
+            assertTrue(report.getTicksPerSecond() > 0);
+            assertEquals(report.getFishUpdatesPerSecond(), report.getTicksPerSecond() * 200, 1e-3);
+            assertTrue(report.getPercentileNanos(50) <= report.getPercentileNanos(99));
+
+            Aquarium aquarium = new JsonReader(out.getPath()).read();
+            assertEquals(200, aquarium.getStats().getNumAlive());
+        } catch (IOException | IllegalAquariumException | IllegalFishException e) {
+            fail("Unexpected exception");
+        } finally {
+            out.delete();
+        }
+    }
+
+    @Test
+    public void testRunBinaryLoadAndWrite() {
+        File json = new File("./data/testBatchRunner.json");
+        File binary = new File("./data/testBatchRunner.aqb");
+        try {
+            BatchRunner.parse(new String[]{"--fish", "100", "--ticks", "0", "--out", binary.getPath()}).run();
+            BatchRunner.parse(new String[]{"--load", binary.getPath(), "--ticks", "0", "--out", json.getPath()}).run();
+            Aquarium fromBinary = new BinaryReader(binary.getPath()).read();
+            Aquarium fromJson = new JsonReader(json.getPath()).read();
+            assertEquals(100, fromBinary.copyFishList().size());
+            assertTrue(fromBinary.toJson().similar(fromJson.toJson()));
+        } catch (IOException | IllegalAquariumException | IllegalFishException e) {
+            fail("Unexpected exception");
+        } finally {
+            json.delete();
+            binary.delete();
+        }
+    }
+
+    @Test
+    public void testRunLoadedWithoutFeeding() {
+        BatchRunner runner = BatchRunner.parse(new String[]{"--load", "./data/testReaderGeneralAquarium.json",
+                "--ticks", "40", "--feed-every", "0"});
+        try {
+            BatchReport report = runner.run();
+            assertEquals(40, report.getTicks());
+            assertTrue(report.getFishUpdates() > 0);
+            assertEquals(0, report.getFeedNanos());
+        } catch (IOException | IllegalAquariumException | IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    public void testRunMissingSource() {
+        BatchRunner runner = BatchRunner.parse(new String[]{"--load", "./data/noSuchFile.json"});
+        try {
+            runner.run();
+            fail("Missing exception");
+        } catch (IOException e) {
+            // expected
+        } catch (IllegalAquariumException | IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+    }
+
+    @Test
+    public void testParseInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> BatchRunner.parse(new String[]{"--ticks"}));
+        assertThrows(IllegalArgumentException.class, () -> BatchRunner.parse(new String[]{"--ticks", "many"}));
+        assertThrows(IllegalArgumentException.class, () -> BatchRunner.parse(new String[]{"--threads", "0"}));
+        assertThrows(IllegalArgumentException.class, () -> BatchRunner.parse(new String[]{"--speed", "1"}));
+        assertThrows(IllegalArgumentException.class, () -> BatchRunner.parse(new String[]{"--seed", "1.5"}));
+    }
+
+    @Test
+    public void testParseLongSeed() {
+        assertDoesNotThrow(() -> BatchRunner.parse(new String[]{"--seed", "9007199254740993"}));
+        assertDoesNotThrow(() -> BatchRunner.parse(new String[]{"--seed", "-4"}));
+    }
+
+    @Test
+    public void testPercentiles() {
+        long[] tickNanos = new long[100];
+        for (int k = 0; k < tickNanos.length; k++) {
+            tickNanos[k] = (k + 1) * 1000;
+        }
+        BatchReport report = new BatchReport(100, 500, 2000000000L, 250000000L, tickNanos);
+        assertEquals(50000, report.getPercentileNanos(50));
+        assertEquals(99000, report.getPercentileNanos(99));
+        assertEquals(100000, report.getPercentileNanos(100));
+        assertEquals(1000, report.getPercentileNanos(0.5));
+        assertEquals(50.0, report.getTicksPerSecond());
+        assertEquals(250.0, report.getFishUpdatesPerSecond());
+        assertEquals("ticks=100 fishUpdates=500 seconds=2.000 ticks/s=50.0 fishUpdates/s=250"
+                + " feedSeconds=0.250 p50=0.050ms p99=0.099ms", report.toString());
+
+        BatchReport empty = new BatchReport(0, 0, 0, 0, new long[0]);
+        assertEquals(0, empty.getPercentileNanos(50));
+        assertEquals(0.0, empty.getTicksPerSecond());
+    }
+}
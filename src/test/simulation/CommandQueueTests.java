@@ -0,0 +1,164 @@
+package simulation;
+
+import static model.Aquarium.MAX_CLEANNESS_LEVEL;
+import static model.Fish.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import exception.IllegalFishException;
+import model.Aquarium;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Tests for CommandQueue Class and the commands it applies
+ */
+public class CommandQueueTests {
+    private Aquarium testAquarium;
+    private CommandQueue testQueue;
+    private List<IllegalFishException> errors;
+
+    @BeforeEach
+    public void setup() {
+        testAquarium = new Aquarium();
+        testQueue = new CommandQueue();
+        errors = new ArrayList<>();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertTrue(testQueue.isEmpty());
+        assertEquals(0, testQueue.drain(testAquarium, errors::add));
+    }
+
+    @Test
+    public void testCommandsAppliedInOrderOnDrain() {
+        testQueue.submit(new AddFishCommand("Nemo"));
+        testQueue.submit(new AddFishCommand());
+        testQueue.submit(new RenameCommand(1, "Dory"));
+        assertFalse(testQueue.isEmpty());
+        assertTrue(testAquarium.isFishListEmpty());
+
+        assertEquals(3, testQueue.drain(testAquarium, errors::add));
+        assertTrue(testQueue.isEmpty());
+        assertEquals(2, testAquarium.copyFishList().size());
+        assertEquals("Nemo", testAquarium.copyFishList().get(0).getName());
+        assertEquals("Dory", testAquarium.getLastFish().getName());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void testPassTimeFeedAndClean() {
+        testQueue.submit(new AddFishCommand());
+        testQueue.submit(new PassTimeCommand(3));
+        testQueue.drain(testAquarium, errors::add);
+        assertEquals(MAX_CLEANNESS_LEVEL - 3, testAquarium.getCleanness());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE + 3, testAquarium.getLastFish().getHungerLevel());
+
+        testQueue.submit(new FeedCommand());
+        testQueue.submit(new CleanCommand());
+        testQueue.submit(new FeedCommand(2));
+        testQueue.drain(testAquarium, errors::add);
+        assertEquals(FISH_MIN_HUNGER, testAquarium.getLastFish().getHungerLevel());
+        assertEquals(MAX_CLEANNESS_LEVEL, testAquarium.getCleanness());
+        assertEquals(2, testAquarium.getFood().size());
+    }
+
+    @Test
+    public void testBurstsMerge() {
+        PassTimeCommand passTime = new PassTimeCommand(2);
+        AquariumCommand merged = passTime.mergeWith(new PassTimeCommand());
+        assertEquals(3, ((PassTimeCommand) merged).getTicks());
+        merged = new PassTimeCommand(Long.MAX_VALUE - 1).mergeWith(new PassTimeCommand(2));
+        assertEquals(Long.MAX_VALUE, ((PassTimeCommand) merged).getTicks());
+        assertNull(passTime.mergeWith(new CleanCommand()));
+
+        assertEquals(5, ((FeedCommand) new FeedCommand(2).mergeWith(new FeedCommand(3))).getNumPellets());
+        assertNull(new FeedCommand().mergeWith(new FeedCommand()));
+        assertNull(new FeedCommand(2).mergeWith(new FeedCommand()));
+
+        CleanCommand clean = new CleanCommand();
+        assertSame(clean, clean.mergeWith(new CleanCommand()));
+
+        RenameCommand rename = new RenameCommand(4, "Dory");
+        assertEquals("Dory", ((RenameCommand) new RenameCommand(4, "Nemo").mergeWith(rename)).getName());
+        assertNull(new RenameCommand(3, "Nemo").mergeWith(rename));
+        assertNull(new AddFishCommand().mergeWith(new AddFishCommand()));
+    }
+
+    @Test
+    public void testDrainCountsMergedCommands() {
+        testQueue.submit(new AddFishCommand());
+        for (int i = 0; i < 10; i++) {
+            testQueue.submit(new PassTimeCommand());
+        }
+        testQueue.submit(new FeedCommand(1));
+        testQueue.submit(new FeedCommand(1));
+
+        assertEquals(13, testQueue.drain(testAquarium, errors::add));
+        assertEquals(MAX_CLEANNESS_LEVEL - 10, testAquarium.getCleanness());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE + 10, testAquarium.getLastFish().getHungerLevel());
+        assertEquals(2, testAquarium.getFood().size());
+    }
+
+    @Test
+    public void testRenameMissingFishIgnored() {
+        testQueue.submit(new RenameCommand(0, "Nemo"));
+        testQueue.drain(testAquarium, errors::add);
+        assertTrue(testAquarium.isFishListEmpty());
+    }
+
+    @Test
+    public void testFailedCommandReportedOthersApplied() {
+        testQueue.submit(aquarium -> aquarium.addFish(0, 0, ALIVE, 0));
+        testQueue.submit(new AddFishCommand());
+
+        assertEquals(2, testQueue.drain(testAquarium, errors::add));
+        assertEquals(1, errors.size());
+        assertEquals(1, testAquarium.copyFishList().size());
+    }
+
+    @Test
+    public void testDrainStopsAtCommandsQueuedWhenItStarted() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            testQueue.submit(new AddFishCommand());
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger submitted = new AtomicInteger();
+        CountDownLatch producing = new CountDownLatch(1000);
+        Thread producer = new Thread(() -> {
+            while (!stop.get() && submitted.get() < 1000000) {
+                testQueue.submit(aquarium -> aquarium.passTime());
+                submitted.incrementAndGet();
+                producing.countDown();
+            }
+        });
+        try {
+            // the producer starts once the drain has, and keeps submitting for as long as the drain runs
+            int drained = testQueue.drain(() -> testAquarium, errors::add, command -> {
+                if (producer.getState() == Thread.State.NEW) {
+                    producer.start();
+                    try {
+                        producing.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            assertEquals(100, drained);
+            assertEquals(100, testAquarium.copyFishList().size());
+            assertEquals(MAX_CLEANNESS_LEVEL, testAquarium.getCleanness());
+        } finally {
+            stop.set(true);
+            producer.join();
+        }
+        assertEquals(submitted.get(), testQueue.drain(testAquarium, errors::add));
+        assertTrue(testQueue.isEmpty());
+        assertTrue(errors.isEmpty());
+    }
+}
@@ -0,0 +1,105 @@
+package simulation;
+
+import static model.Aquarium.MAX_CLEANNESS_LEVEL;
+import static model.Fish.FISH_INITIAL_HUNGER_VALUE;
+import static org.junit.jupiter.api.Assertions.*;
+
+import exception.IllegalFishException;
+import model.Aquarium;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/*
+ * Tests for SimulationEngine Class
+ */
+public class SimulationEngineTests {
+    private SimulationEngine testEngine;
+
+    @BeforeEach
+    public void setup() {
+        testEngine = new SimulationEngine(2, 3);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(2, testEngine.getNumThreads());
+        assertEquals(3, testEngine.getNumShards());
+        assertEquals(0, testEngine.getNumAquariums());
+        assertEquals(0, testEngine.getTick());
+        assertEquals(0, testEngine.getMeanTickNanos(0));
+        testEngine.shutdown();
+    }
+
+    @Test
+    public void testAddAquariumLeastLoad() {
+        Aquarium big = new Aquarium();
+        try {
+            big.addFish();
+            big.addFish();
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        assertEquals(0, testEngine.addAquarium(big));
+        assertEquals(1, testEngine.addAquarium(new Aquarium()));
+        assertEquals(2, testEngine.addAquarium(new Aquarium()));
+        assertEquals(1, testEngine.addAquarium(new Aquarium()));
+        assertEquals(4, testEngine.getNumAquariums());
+
+        assertTrue(testEngine.removeAquarium(big));
+        assertFalse(testEngine.removeAquarium(big));
+        assertEquals(3, testEngine.getNumAquariums());
+
+        // the load of big leaves its shard with it
+        assertEquals(0, testEngine.addAquarium(new Aquarium()));
+        assertEquals(0, testEngine.addAquarium(new Aquarium()));
+        assertEquals(2, testEngine.addAquarium(new Aquarium()));
+        testEngine.shutdown();
+    }
+
+    @Test
+    public void testRunTicksAllAquariums() {
+        Aquarium[] aquariums = new Aquarium[10];
+        for (int i = 0; i < aquariums.length; i++) {
+            aquariums[i] = new Aquarium();
+            try {
+                aquariums[i].addFish();
+            } catch (IllegalFishException e) {
+                fail("Unexpected exception");
+            }
+            testEngine.addAquarium(aquariums[i]);
+        }
+
+        testEngine.run(5);
+
+        assertEquals(5, testEngine.getTick());
+        for (Aquarium aquarium : aquariums) {
+            assertEquals(MAX_CLEANNESS_LEVEL - 5, aquarium.getCleanness());
+            assertEquals(FISH_INITIAL_HUNGER_VALUE + 5, aquarium.getLastFish().getHungerLevel());
+        }
+        for (int shard = 0; shard < testEngine.getNumShards(); shard++) {
+            assertTrue(testEngine.getMaxTickNanos(shard) >= testEngine.getLastTickNanos(shard));
+            assertTrue(testEngine.getMeanTickNanos(shard) <= testEngine.getMaxTickNanos(shard));
+        }
+        testEngine.shutdown();
+    }
+
+    @Test
+    public void testStartStop() {
+        Aquarium aquarium = new Aquarium();
+        testEngine.addAquarium(aquarium);
+
+        testEngine.start(1);
+        testEngine.start(1);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (testEngine.getTick() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        testEngine.stop();
+        testEngine.stop();
+
+        long ticks = testEngine.getTick();
+        assertTrue(ticks >= 3);
+        assertEquals(Math.max(MAX_CLEANNESS_LEVEL - ticks, 0), aquarium.getCleanness());
+        testEngine.shutdown();
+    }
+}
@@ -0,0 +1,141 @@
+package simulation;
+
+import static model.Aquarium.MAX_CLEANNESS_LEVEL;
+import static model.Fish.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import exception.IllegalFishException;
+import model.Aquarium;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Tests for SimulationLoop Class
+ */
+public class SimulationLoopTests {
+    private Aquarium testAquarium;
+    private SimulationLoop testLoop;
+
+    @BeforeEach
+    public void setup() {
+        testAquarium = new Aquarium();
+        try {
+            testAquarium.addFish(FISH_MIN_SIZE, FISH_INITIAL_HUNGER_VALUE, ALIVE, GROWTH_TIMER_START_VALUE, "Nemo");
+        } catch (IllegalFishException e) {
+            fail("Unexpected exception");
+        }
+        testLoop = new SimulationLoop(testAquarium, 1, 3);
+    }
+
+    @Test
+    public void testConstructorPublishesFrame() {
+        SimulationFrame frame = testLoop.getFrame();
+        assertFalse(testLoop.isRunning());
+        assertEquals(0, frame.getStep());
+        assertEquals(0, frame.getRevision());
+        assertEquals(MAX_CLEANNESS_LEVEL, frame.getSnapshot().getCleanness());
+        assertEquals(1, frame.getSnapshot().getNumFish());
+        assertEquals("Nemo", frame.getSnapshot().getName(0));
+        assertEquals(FISH_INITIAL_HUNGER_VALUE, frame.getSnapshot().getHungerLevel(0));
+        assertEquals(ALIVE, frame.getSnapshot().getStatus(0));
+        assertEquals(FISH_MIN_SIZE, frame.getSnapshot().getSize(0));
+        assertEquals(testAquarium.getLastFish().getDirection(), frame.getSnapshot().getDirection(0));
+        assertEquals(testAquarium.getLastFish().getCoordinateY(), frame.getSnapshot().getCoordinateY(0));
+    }
+
+    @Test
+    public void testStepMovesAndPassesTimeEveryTick() {
+        double x = testAquarium.getLastFish().getCoordinateX();
+        SimulationFrame before = testLoop.getFrame();
+
+        testLoop.step();
+        testLoop.step();
+        SimulationFrame frame = testLoop.getFrame();
+        assertNotSame(before, frame);
+        assertEquals(2, frame.getStep());
+        assertEquals(0, frame.getRevision());
+        assertNotEquals(x, frame.getSnapshot().getCoordinateX(0));
+        assertEquals(FISH_INITIAL_HUNGER_VALUE, frame.getSnapshot().getHungerLevel(0));
+
+        // third step is a tick
+        testLoop.step();
+        frame = testLoop.getFrame();
+        assertEquals(1, frame.getRevision());
+        assertEquals(MAX_CLEANNESS_LEVEL - 1, frame.getSnapshot().getCleanness());
+        assertEquals(FISH_INITIAL_HUNGER_VALUE + 1, frame.getSnapshot().getHungerLevel(0));
+        // frame taken before is unchanged
+        assertEquals(FISH_INITIAL_HUNGER_VALUE, before.getSnapshot().getHungerLevel(0));
+    }
+
+    @Test
+    public void testInvokeLaterRunsBeforeNextStep() {
+        testLoop.invokeLater(aquarium -> aquarium.getLastFish().die());
+        assertEquals(ALIVE, testLoop.getFrame().getSnapshot().getStatus(0));
+
+        testLoop.step();
+        assertEquals(DEAD, testLoop.getFrame().getSnapshot().getStatus(0));
+        assertEquals(1, testLoop.getFrame().getRevision());
+        assertEquals(1, testLoop.getFrame().getSnapshot().getStats().getNumDead());
+    }
+
+    @Test
+    public void testSubmittedCommandsAppliedAsOneBatch() {
+        List<Exception> errors = new ArrayList<>();
+        testLoop.setErrorHandler(errors::add);
+        testLoop.submit(new PassTimeCommand());
+        testLoop.submit(new PassTimeCommand());
+        testLoop.submit(new AddFishCommand("Dory"));
+        testLoop.submit(aquarium -> aquarium.addFish(0, 0, ALIVE, 0));
+
+        testLoop.step();
+        SimulationFrame frame = testLoop.getFrame();
+        assertEquals(4, frame.getRevision());
+        assertEquals(MAX_CLEANNESS_LEVEL - 2, frame.getSnapshot().getCleanness());
+        assertEquals(2, frame.getSnapshot().getNumFish());
+        assertEquals("Dory", frame.getSnapshot().getName(1));
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    public void testSetAquariumAppliesLaterCommandsToNewAquarium() {
+        testLoop.setAquarium(new Aquarium());
+        testLoop.submit(new AddFishCommand());
+        testLoop.step();
+        assertEquals(1, testLoop.getFrame().getSnapshot().getNumFish());
+        assertEquals(1, testAquarium.copyFishList().size());
+    }
+
+    @Test
+    public void testSetAquarium() {
+        testLoop.setAquarium(new Aquarium());
+        testLoop.step();
+        assertEquals(0, testLoop.getFrame().getSnapshot().getNumFish());
+    }
+
+    @Test
+    public void testStartStop() {
+        testLoop.start();
+        testLoop.start();
+        assertTrue(testLoop.isRunning());
+        testLoop.invokeLater(Aquarium::feedAllFish);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (testLoop.getFrame().getStep() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        testLoop.stop();
+        testLoop.stop();
+        assertFalse(testLoop.isRunning());
+
+        // aquarium is only touched by the loop, which has stopped
+        SimulationFrame frame = testLoop.getFrame();
+        assertTrue(frame.getStep() >= 10);
+        long ticks = frame.getStep() / 3;
+        assertEquals(ticks + 1, frame.getRevision());
+        assertEquals(Math.max(MAX_CLEANNESS_LEVEL - ticks, 0), testAquarium.getCleanness());
+        assertEquals(Math.max(MAX_CLEANNESS_LEVEL - ticks, 0), frame.getSnapshot().getCleanness());
+    }
+}